@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per type cached readers and writers of the {@link JacksonJsonHttpMessageConverter} with
+ * plain {@link ObjectMapper} calls. Run with {@code mvn test -Pbenchmark -Dtest=JacksonJsonHttpMessageConverterBenchmark}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonJsonHttpMessageConverterBenchmark {
+
+    private ObjectMapper objectMapper;
+    private JacksonJsonHttpMessageConverter<Object> converter;
+    private User user;
+    private ByteBuf json;
+    private HttpInputMessage httpInputMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        converter = new JacksonJsonHttpMessageConverter<>(objectMapper);
+        user = new User();
+        user.setId(123456789L);
+        user.setName("John Doe");
+        user.setEmail("john.doe@example.com");
+        user.setActive(true);
+        user.setRoles(ImmutableList.of("admin", "editor", "viewer"));
+
+        json = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(objectMapper.writeValueAsBytes(user)));
+        httpInputMessage = new BufferedHttpInputMessage(
+                json,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+
+    @Benchmark
+    public User readObjectMapper() throws IOException {
+        return objectMapper.readValue((InputStream) new ByteBufInputStream(json.duplicate()), User.class);
+    }
+
+    @Benchmark
+    public Object readConverter() {
+        return converter.read(User.class, httpInputMessage);
+    }
+
+    @Benchmark
+    public int writeObjectMapper() throws IOException {
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(objectMapper.writeValueAsBytes(user));
+        final int size = byteBuf.readableBytes();
+        byteBuf.release();
+        return size;
+    }
+
+    @Benchmark
+    public int writeConverter() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(user, MediaType.APPLICATION_JSON, httpOutputMessage);
+        final int size = httpOutputMessage.getBody().readableBytes();
+        httpOutputMessage.release();
+        return size;
+    }
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(getClass().getName() + ".*")
+                .jvmArgsAppend("-Dlogback.configurationFile=logback-benchmark.xml")
+                .build()).run();
+    }
+
+    public static class User {
+
+        private long id;
+        private String name;
+        private String email;
+        private boolean active;
+        private List<String> roles;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public List<String> getRoles() {
+            return roles;
+        }
+
+        public void setRoles(List<String> roles) {
+            this.roles = roles;
+        }
+    }
+}
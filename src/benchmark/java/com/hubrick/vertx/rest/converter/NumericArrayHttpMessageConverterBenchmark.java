@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a JSON array of 100k doubles with the {@link NumericArrayHttpMessageConverter} and with the
+ * {@link JacksonJsonHttpMessageConverter}, once into a {@code double[]} and once into a boxed {@code List}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=NumericArrayHttpMessageConverterBenchmark}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericArrayHttpMessageConverterBenchmark {
+
+    private NumericArrayHttpMessageConverter numericConverter;
+    private NumericArrayHttpMessageConverter pooledNumericConverter;
+    private JacksonJsonHttpMessageConverter<Object> jacksonConverter;
+    private HttpInputMessage jsonInputMessage;
+
+    @Setup
+    public void setUp() {
+        numericConverter = new NumericArrayHttpMessageConverter();
+        pooledNumericConverter = new NumericArrayHttpMessageConverter();
+        pooledNumericConverter.setArrayPoolSize(4);
+        jacksonConverter = new JacksonJsonHttpMessageConverter<>(new ObjectMapper());
+
+        final Random random = new Random(42);
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100000; i++) {
+            json.append(i > 0 ? "," : "").append(Math.round(random.nextDouble() * 1e6) / 1e3);
+        }
+        json.append(']');
+        jsonInputMessage = createHttpInputMessage(Unpooled.directBuffer().writeBytes(json.toString().getBytes(Charsets.UTF_8)));
+    }
+
+    @Benchmark
+    public Object readDoubleArray() {
+        return numericConverter.read(double[].class, jsonInputMessage);
+    }
+
+    @Benchmark
+    public Object readDoubleArrayPooled() {
+        return pooledNumericConverter.read(double[].class, jsonInputMessage);
+    }
+
+    @Benchmark
+    public Object readDoubleArrayJackson() {
+        return jacksonConverter.read(double[].class, jsonInputMessage);
+    }
+
+    @Benchmark
+    public Object readListJackson() {
+        return jacksonConverter.read(List.class, jsonInputMessage);
+    }
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(getClass().getName() + ".*")
+                .jvmArgsAppend("-Dlogback.configurationFile=logback-benchmark.xml")
+                .build()).run();
+    }
+
+    private static HttpInputMessage createHttpInputMessage(ByteBuf byteBuf) {
+        return new BufferedHttpInputMessage(
+                Unpooled.unreleasableBuffer(byteBuf),
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link ProtobufHttpMessageConverter} with the {@link JacksonJsonHttpMessageConverter} for the same
+ * document, once as a protobuf {@link Struct} and once as JSON bound to a {@link Map}.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ProtobufHttpMessageConverterBenchmark}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufHttpMessageConverterBenchmark {
+
+    private ProtobufHttpMessageConverter protobufConverter;
+    private JacksonJsonHttpMessageConverter<Object> jacksonConverter;
+    private Struct struct;
+    private Map<String, Object> map;
+    private HttpInputMessage protobufInputMessage;
+    private HttpInputMessage jsonInputMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        protobufConverter = new ProtobufHttpMessageConverter();
+        jacksonConverter = new JacksonJsonHttpMessageConverter<>(objectMapper);
+
+        final ListValue.Builder roles = ListValue.newBuilder();
+        final List<String> roleNames = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            roles.addValues(Value.newBuilder().setStringValue("role-" + i));
+            roleNames.add("role-" + i);
+        }
+        struct = Struct.newBuilder()
+                .putFields("id", Value.newBuilder().setNumberValue(123456789L).build())
+                .putFields("name", Value.newBuilder().setStringValue("John Doe").build())
+                .putFields("email", Value.newBuilder().setStringValue("john.doe@example.com").build())
+                .putFields("active", Value.newBuilder().setBoolValue(true).build())
+                .putFields("roles", Value.newBuilder().setListValue(roles).build())
+                .build();
+        map = new LinkedHashMap<>();
+        map.put("id", 123456789L);
+        map.put("name", "John Doe");
+        map.put("email", "john.doe@example.com");
+        map.put("active", true);
+        map.put("roles", roleNames);
+        final byte[] json = objectMapper.writeValueAsBytes(map);
+
+        protobufInputMessage = createHttpInputMessage(Unpooled.directBuffer().writeBytes(struct.toByteArray()), MediaType.APPLICATION_PROTOBUF_VALUE);
+        jsonInputMessage = createHttpInputMessage(Unpooled.directBuffer().writeBytes(json), MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    @Benchmark
+    public Object readProtobuf() {
+        return protobufConverter.read(Struct.class, protobufInputMessage);
+    }
+
+    @Benchmark
+    public Object readJson() {
+        return jacksonConverter.read(Map.class, jsonInputMessage);
+    }
+
+    @Benchmark
+    public int writeProtobuf() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        protobufConverter.write(struct, MediaType.APPLICATION_PROTOBUF, httpOutputMessage);
+        final int size = httpOutputMessage.getBody().readableBytes();
+        httpOutputMessage.release();
+        return size;
+    }
+
+    @Benchmark
+    public int writeJson() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        jacksonConverter.write(map, MediaType.APPLICATION_JSON, httpOutputMessage);
+        final int size = httpOutputMessage.getBody().readableBytes();
+        httpOutputMessage.release();
+        return size;
+    }
+
+    @Test
+    public void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(getClass().getName() + ".*")
+                .jvmArgsAppend("-Dlogback.configurationFile=logback-benchmark.xml")
+                .build()).run();
+    }
+
+    private static HttpInputMessage createHttpInputMessage(ByteBuf byteBuf, String contentType) {
+        return new BufferedHttpInputMessage(
+                Unpooled.unreleasableBuffer(byteBuf),
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, contentType),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+}
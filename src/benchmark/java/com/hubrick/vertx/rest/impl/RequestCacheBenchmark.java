@@ -0,0 +1,282 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.google.common.base.Splitter;
+import com.hubrick.vertx.rest.RequestCacheOptions;
+import com.hubrick.vertx.rest.RestClientOptions;
+import com.hubrick.vertx.rest.converter.StringHttpMessageConverter;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpServer;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drives the request cache of the {@link DefaultRestClient} against an in-process server with zipf distributed keys.
+ * Run with {@code mvn test -Pbenchmark -Dtest=RequestCacheBenchmark}.
+ * <p>
+ * Tunable with system properties:
+ * <ul>
+ * <li>{@code benchmark.keyCounts} comma separated number of distinct keys, default {@code 1000,100000,1000000}</li>
+ * <li>{@code benchmark.ttlsMillis} comma separated times to live after write, default {@code 1000,60000}</li>
+ * <li>{@code benchmark.requests} measured requests per scenario, default {@code 500000}</li>
+ * <li>{@code benchmark.concurrency} requests in flight, default {@code 256}</li>
+ * <li>{@code benchmark.zipfExponent} skew of the key distribution, default {@code 1.0}</li>
+ * </ul>
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class RequestCacheBenchmark {
+
+    private static final String RESPONSE_BODY = "{\"id\":1,\"name\":\"benchmark\",\"active\":true}";
+
+    private static final List<Integer> KEY_COUNTS = integers("benchmark.keyCounts", "1000,100000,1000000");
+    private static final List<Integer> TTLS_MILLIS = integers("benchmark.ttlsMillis", "1000,60000");
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 500000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 256);
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("benchmark.zipfExponent", "1.0"));
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+    private static Vertx serverVertx;
+    private static HttpServer httpServer;
+    private static final AtomicLong serverRequests = new AtomicLong();
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        serverVertx = Vertx.vertx();
+        final CompletableFuture<HttpServer> started = new CompletableFuture<>();
+        serverVertx.createHttpServer()
+                .requestHandler(request -> {
+                    serverRequests.incrementAndGet();
+                    request.response().putHeader("Content-Type", "application/json").end(RESPONSE_BODY);
+                })
+                .listen(0, "localhost", result -> {
+                    if (result.succeeded()) {
+                        started.complete(result.result());
+                    } else {
+                        started.completeExceptionally(result.cause());
+                    }
+                });
+        httpServer = started.get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        serverVertx.close();
+    }
+
+    @Test
+    public void benchmarkRequestCache() throws Exception {
+        System.out.println(String.format("%10s %8s %12s %9s %14s %12s %12s %10s",
+                "keys", "ttl ms", "req/s", "hit ratio", "cache entries", "bytes/entry", "loop busy %", "p99 ms"));
+        for (Integer keyCount : KEY_COUNTS) {
+            final ZipfDistribution zipfDistribution = new ZipfDistribution(keyCount, ZIPF_EXPONENT);
+            for (Integer ttlMillis : TTLS_MILLIS) {
+                final Result result = runScenario(zipfDistribution, ttlMillis);
+                System.out.println(String.format("%10d %8d %12.0f %9.3f %14d %12.0f %12.1f %10.2f",
+                        keyCount, ttlMillis, result.throughput, result.hitRatio, result.cacheEntries,
+                        result.bytesPerEntry, result.eventLoopBusyPercent, result.p99Millis));
+            }
+        }
+    }
+
+    private Result runScenario(ZipfDistribution zipfDistribution, int ttlMillis) throws Exception {
+        final Vertx clientVertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(1));
+        try {
+            final Context context = clientVertx.getOrCreateContext();
+
+            final RequestCacheOptions requestCacheOptions = new RequestCacheOptions().withExpiresAfterWriteMillis(ttlMillis);
+            final RestClientOptions restClientOptions = new RestClientOptions()
+                    .setDefaultHost("localhost")
+                    .setDefaultPort(httpServer.actualPort())
+                    .setMaxPoolSize(CONCURRENCY)
+                    .setKeepAlive(true)
+                    .setGlobalRequestCacheOptions(requestCacheOptions);
+
+            final CompletableFuture<DefaultRestClient> created = new CompletableFuture<>();
+            context.runOnContext(aVoid -> created.complete(new DefaultRestClient(clientVertx, restClientOptions, Collections.singletonList(new StringHttpMessageConverter()))));
+            final DefaultRestClient restClient = created.get(10, TimeUnit.SECONDS);
+
+            // Warm up connections and the jit before measuring, then start the measured run with an empty cache
+            new Driver(context, restClient, zipfDistribution, REQUESTS / 5).run();
+            final CompletableFuture<Void> cleared = new CompletableFuture<>();
+            context.runOnContext(aVoid -> {
+                restClient.getEvictionTimersCache().values().forEach(clientVertx::cancelTimer);
+                restClient.getEvictionTimersCache().clear();
+                restClient.getRequestCache().clear();
+                cleared.complete(null);
+            });
+            cleared.get(10, TimeUnit.SECONDS);
+
+            // Both heap samples include the client and its pooled connections but no driver
+            final long heapBefore = usedHeapAfterGc();
+            Driver driver = new Driver(context, restClient, zipfDistribution, REQUESTS);
+
+            final long serverRequestsBefore = serverRequests.get();
+            final long startNanos = System.nanoTime();
+            final long eventLoopCpuNanos = driver.run();
+            final long elapsedNanos = System.nanoTime() - startNanos;
+            final double p99Millis = driver.percentileMillis(0.99);
+            driver = null;
+
+            final CompletableFuture<Integer> cacheEntries = new CompletableFuture<>();
+            context.runOnContext(aVoid -> cacheEntries.complete(restClient.getRequestCache().size()));
+            final int entries = cacheEntries.get(10, TimeUnit.SECONDS);
+            final long heapAfter = usedHeapAfterGc();
+
+            final Result result = new Result();
+            result.throughput = REQUESTS / (elapsedNanos / 1e9);
+            result.hitRatio = 1 - (double) (serverRequests.get() - serverRequestsBefore) / REQUESTS;
+            result.cacheEntries = entries;
+            result.bytesPerEntry = entries > 0 ? (double) (heapAfter - heapBefore) / entries : 0;
+            result.eventLoopBusyPercent = 100.0 * eventLoopCpuNanos / elapsedNanos;
+            result.p99Millis = p99Millis;
+
+            context.runOnContext(aVoid -> restClient.close());
+            return result;
+        } finally {
+            clientVertx.close();
+        }
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<Integer> integers(String property, String defaultValue) {
+        return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(System.getProperty(property, defaultValue))
+                .stream()
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Keeps {@link #CONCURRENCY} requests in flight from the client context until all requests are answered.
+     */
+    private static class Driver {
+
+        private final Context context;
+        private final DefaultRestClient restClient;
+        private final ZipfDistribution zipfDistribution;
+        private final SplittableRandom random = new SplittableRandom(42);
+        private final long[] latencies;
+        private final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        private int issued = 0;
+        private int completed = 0;
+        private long eventLoopThreadId;
+        private long eventLoopCpuNanosBefore;
+
+        private Driver(Context context, DefaultRestClient restClient, ZipfDistribution zipfDistribution, int requests) {
+            this.context = context;
+            this.restClient = restClient;
+            this.zipfDistribution = zipfDistribution;
+            this.latencies = new long[requests];
+        }
+
+        private long run() throws Exception {
+            context.runOnContext(aVoid -> {
+                eventLoopThreadId = Thread.currentThread().getId();
+                eventLoopCpuNanosBefore = threadMXBean.getThreadCpuTime(eventLoopThreadId);
+                for (int i = 0; i < CONCURRENCY && issued < latencies.length; i++) {
+                    issue();
+                }
+            });
+            return done.get(10, TimeUnit.MINUTES);
+        }
+
+        private void issue() {
+            final int index = issued++;
+            final long startNanos = System.nanoTime();
+            restClient.get("/resources/" + zipfDistribution.sample(random), String.class, restClientResponse -> {
+                restClientResponse.getBody();
+                complete(index, startNanos);
+            }).exceptionHandler(t -> complete(index, startNanos)).end();
+        }
+
+        private void complete(int index, long startNanos) {
+            latencies[index] = System.nanoTime() - startNanos;
+            if (++completed == latencies.length) {
+                done.complete(threadMXBean.getThreadCpuTime(eventLoopThreadId) - eventLoopCpuNanosBefore);
+            } else if (issued < latencies.length) {
+                issue();
+            }
+        }
+
+        private double percentileMillis(double percentile) {
+            final long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+        }
+    }
+
+    /**
+     * Samples ranks from a zipf distribution by binary search over the precomputed cumulative distribution.
+     */
+    private static class ZipfDistribution {
+
+        private final double[] cumulativeProbabilities;
+
+        private ZipfDistribution(int keyCount, double exponent) {
+            cumulativeProbabilities = new double[keyCount];
+            double sum = 0;
+            for (int rank = 1; rank <= keyCount; rank++) {
+                sum += 1 / Math.pow(rank, exponent);
+                cumulativeProbabilities[rank - 1] = sum;
+            }
+            for (int i = 0; i < keyCount; i++) {
+                cumulativeProbabilities[i] /= sum;
+            }
+        }
+
+        private int sample(SplittableRandom random) {
+            final int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+        }
+    }
+
+    private static class Result {
+
+        private double throughput;
+        private double hitRatio;
+        private int cacheEntries;
+        private double bytesPerEntry;
+        private double eventLoopBusyPercent;
+        private double p99Millis;
+    }
+}
@@ -23,7 +23,10 @@ import com.hubrick.vertx.rest.exception.InvalidMimeTypeException;
 
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -36,6 +39,14 @@ public class MediaType extends MimeType implements Serializable {
 
     private static final long serialVersionUID = 2069937152339670231L;
 
+    /**
+     * Upper bound of distinct header values kept by {@link #parseMediaType(String)}. Values beyond the bound are
+     * parsed but not interned, so the ones seen first, including the constants below, are never evicted.
+     */
+    private static final int INTERNED_LIMIT = 256;
+
+    private static final ConcurrentMap<String, MediaType> INTERNED = new ConcurrentHashMap<>(64);
+
     /**
      * Public constant media type that includes all media ranges (i.e. "&#42;/&#42;").
      */
@@ -76,6 +87,62 @@ public class MediaType extends MimeType implements Serializable {
      */
     public final static String APPLICATION_JSON_VALUE = "application/json";
 
+    /**
+     * Public constant media type for {@code application/x-ndjson}.
+     *
+     * @since 3.2.0
+     */
+    public final static MediaType APPLICATION_NDJSON;
+
+    /**
+     * A String equivalent of {@link MediaType#APPLICATION_NDJSON}.
+     *
+     * @since 3.2.0
+     */
+    public final static String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    /**
+     * Public constant media type for {@code application/x-jackson-smile}.
+     *
+     * @since 3.2.0
+     */
+    public final static MediaType APPLICATION_SMILE;
+
+    /**
+     * A String equivalent of {@link MediaType#APPLICATION_SMILE}.
+     *
+     * @since 3.2.0
+     */
+    public final static String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Public constant media type for {@code application/cbor}.
+     *
+     * @since 3.2.0
+     */
+    public final static MediaType APPLICATION_CBOR;
+
+    /**
+     * A String equivalent of {@link MediaType#APPLICATION_CBOR}.
+     *
+     * @since 3.2.0
+     */
+    public final static String APPLICATION_CBOR_VALUE = "application/cbor";
+
+    /**
+     * Public constant media type for {@code application/x-protobuf}.
+     *
+     * @since 3.2.0
+     */
+    public final static MediaType APPLICATION_PROTOBUF;
+
+    /**
+     * A String equivalent of {@link MediaType#APPLICATION_PROTOBUF}.
+     *
+     * @since 3.2.0
+     */
+    public final static String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
     /**
      * Public constant media type for {@code application/octet-stream}.
      */
@@ -176,15 +243,49 @@ public class MediaType extends MimeType implements Serializable {
      */
     public final static String TEXT_XML_VALUE = "text/xml";
 
+    /**
+     * Public constant media type for {@code text/csv}.
+     *
+     * @since 3.2.0
+     */
+    public final static MediaType TEXT_CSV;
+
+    /**
+     * A String equivalent of {@link MediaType#TEXT_CSV}.
+     *
+     * @since 3.2.0
+     */
+    public final static String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Public constant media type for {@code text/tab-separated-values}.
+     *
+     * @since 3.2.0
+     */
+    public final static MediaType TEXT_TAB_SEPARATED_VALUES;
+
+    /**
+     * A String equivalent of {@link MediaType#TEXT_TAB_SEPARATED_VALUES}.
+     *
+     * @since 3.2.0
+     */
+    public final static String TEXT_TAB_SEPARATED_VALUES_VALUE = "text/tab-separated-values";
+
 
     private static final String PARAM_QUALITY_FACTOR = "q";
 
+    private static final String PARAM_BOUNDARY = "boundary";
+
 
     static {
         ALL = valueOf(ALL_VALUE);
         APPLICATION_ATOM_XML = valueOf(APPLICATION_ATOM_XML_VALUE);
         APPLICATION_FORM_URLENCODED = valueOf(APPLICATION_FORM_URLENCODED_VALUE);
         APPLICATION_JSON = valueOf(APPLICATION_JSON_VALUE);
+        APPLICATION_NDJSON = valueOf(APPLICATION_NDJSON_VALUE);
+        APPLICATION_SMILE = valueOf(APPLICATION_SMILE_VALUE);
+        APPLICATION_CBOR = valueOf(APPLICATION_CBOR_VALUE);
+        APPLICATION_PROTOBUF = valueOf(APPLICATION_PROTOBUF_VALUE);
         APPLICATION_OCTET_STREAM = valueOf(APPLICATION_OCTET_STREAM_VALUE);
         APPLICATION_XHTML_XML = valueOf(APPLICATION_XHTML_XML_VALUE);
         APPLICATION_XML = valueOf(APPLICATION_XML_VALUE);
@@ -195,6 +296,8 @@ public class MediaType extends MimeType implements Serializable {
         TEXT_HTML = valueOf(TEXT_HTML_VALUE);
         TEXT_PLAIN = valueOf(TEXT_PLAIN_VALUE);
         TEXT_XML = valueOf(TEXT_XML_VALUE);
+        TEXT_CSV = valueOf(TEXT_CSV_VALUE);
+        TEXT_TAB_SEPARATED_VALUES = valueOf(TEXT_TAB_SEPARATED_VALUES_VALUE);
     }
 
 
@@ -349,26 +452,40 @@ public class MediaType extends MimeType implements Serializable {
 
     /**
      * Parse the given String into a single {@code MediaType}.
+     * <p>Media types are immutable, so parsed instances are interned by their raw header value and repeated
+     * calls with the same value return the same instance. Values with a multipart boundary are unique per message
+     * and not interned.
      *
      * @param mediaType the string to parse
      * @return the media type
      * @throws InvalidMediaTypeException if the string cannot be parsed
      */
     public static MediaType parseMediaType(String mediaType) {
-        MimeType type;
+        MediaType result = mediaType != null ? INTERNED.get(mediaType) : null;
+        if (result == null) {
+            result = doParseMediaType(mediaType);
+            if (INTERNED.size() < INTERNED_LIMIT && result.getParameter(PARAM_BOUNDARY) == null) {
+                final MediaType interned = INTERNED.putIfAbsent(mediaType, result);
+                if (interned != null) {
+                    result = interned;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static MediaType doParseMediaType(String mediaType) {
         try {
-            type = MimeTypeUtils.parseMimeType(mediaType);
+            return MimeTypeUtils.parseMimeType(mediaType, MediaType::new);
         } catch (InvalidMimeTypeException ex) {
             throw new InvalidMediaTypeException(ex);
-        }
-        try {
-            return new MediaType(type.getType(), type.getSubtype(), type.getParameters());
+        } catch (UnsupportedCharsetException ex) {
+            throw new InvalidMediaTypeException(mediaType, "unsupported charset '" + ex.getCharsetName() + "'");
         } catch (IllegalArgumentException ex) {
             throw new InvalidMediaTypeException(mediaType, ex.getMessage());
         }
     }
 
-
     /**
      * Parse the given, comma-separated string into a list of {@code MediaType} objects.
      * <p>This method can be used to parse an Accept or Content-Type header.
@@ -44,6 +44,10 @@ public class MimeType implements Comparable<MimeType>, Serializable {
 
     private final Map<String, String> parameters;
 
+    private transient int hashCode;
+
+    private transient String toStringValue;
+
 
     static {
         // variable names refer to RFC 2616, section 2.2
@@ -277,7 +281,7 @@ public class MimeType implements Comparable<MimeType>, Serializable {
         if (other == null) {
             return false;
         }
-        if (this.isWildcardType()) {
+        if (this == other || this.isWildcardType()) {
             // */* includes anything
             return true;
         }
@@ -294,13 +298,8 @@ public class MimeType implements Comparable<MimeType>, Serializable {
                 else {
                     // application/*+xml includes application/soap+xml
                     int otherPlusIdx = other.getSubtype().indexOf('+');
-                    if (otherPlusIdx != -1) {
-                        String thisSubtypeNoSuffix = getSubtype().substring(0, thisPlusIdx);
-                        String thisSubtypeSuffix = getSubtype().substring(thisPlusIdx + 1);
-                        String otherSubtypeSuffix = other.getSubtype().substring(otherPlusIdx + 1);
-                        if (thisSubtypeSuffix.equals(otherSubtypeSuffix) && WILDCARD_TYPE.equals(thisSubtypeNoSuffix)) {
-                            return true;
-                        }
+                    if (otherPlusIdx != -1 && sameSuffix(getSubtype(), thisPlusIdx, other.getSubtype(), otherPlusIdx)) {
+                        return true;
                     }
                 }
             }
@@ -321,7 +320,7 @@ public class MimeType implements Comparable<MimeType>, Serializable {
         if (other == null) {
             return false;
         }
-        if (isWildcardType() || other.isWildcardType()) {
+        if (this == other || isWildcardType() || other.isWildcardType()) {
             return true;
         }
         else if (getType().equals(other.getType())) {
@@ -338,14 +337,12 @@ public class MimeType implements Comparable<MimeType>, Serializable {
                     return true;
                 }
                 else if (thisPlusIdx != -1 && otherPlusIdx != -1) {
-                    String thisSubtypeNoSuffix = getSubtype().substring(0, thisPlusIdx);
-                    String otherSubtypeNoSuffix = other.getSubtype().substring(0, otherPlusIdx);
+                    // the subtype part before the suffix is a wildcard exactly when it is the single character '*'
+                    boolean thisWildcardNoSuffix = thisPlusIdx == 1 && getSubtype().charAt(0) == '*';
+                    boolean otherWildcardNoSuffix = otherPlusIdx == 1 && other.getSubtype().charAt(0) == '*';
 
-                    String thisSubtypeSuffix = getSubtype().substring(thisPlusIdx + 1);
-                    String otherSubtypeSuffix = other.getSubtype().substring(otherPlusIdx + 1);
-
-                    if (thisSubtypeSuffix.equals(otherSubtypeSuffix) &&
-                            (WILDCARD_TYPE.equals(thisSubtypeNoSuffix) || WILDCARD_TYPE.equals(otherSubtypeNoSuffix))) {
+                    if (sameSuffix(getSubtype(), thisPlusIdx, other.getSubtype(), otherPlusIdx) &&
+                            (thisWildcardNoSuffix || otherWildcardNoSuffix)) {
                         return true;
                     }
                 }
@@ -354,6 +351,15 @@ public class MimeType implements Comparable<MimeType>, Serializable {
         return false;
     }
 
+    /**
+     * Compares the subtype suffixes following the given {@code '+'} positions without creating substrings.
+     */
+    private static boolean sameSuffix(String subtype, int plusIdx, String otherSubtype, int otherPlusIdx) {
+        int suffixLength = subtype.length() - plusIdx - 1;
+        return suffixLength == otherSubtype.length() - otherPlusIdx - 1 &&
+                subtype.regionMatches(plusIdx + 1, otherSubtype, otherPlusIdx + 1, suffixLength);
+    }
+
     /**
      * Compares this {@code MediaType} to another alphabetically.
      * @param other media type to compare to
@@ -415,17 +421,27 @@ public class MimeType implements Comparable<MimeType>, Serializable {
 
     @Override
     public int hashCode() {
-        int result = this.type.hashCode();
-        result = 31 * result + this.subtype.hashCode();
-        result = 31 * result + this.parameters.hashCode();
+        // all fields are immutable, so the hash and string form are computed once; racing threads compute equal values
+        int result = this.hashCode;
+        if (result == 0) {
+            result = this.type.hashCode();
+            result = 31 * result + this.subtype.hashCode();
+            result = 31 * result + this.parameters.hashCode();
+            this.hashCode = result;
+        }
         return result;
     }
 
     @Override
     public String toString() {
-        StringBuilder builder = new StringBuilder();
-        appendTo(builder);
-        return builder.toString();
+        String result = this.toStringValue;
+        if (result == null) {
+            StringBuilder builder = new StringBuilder();
+            appendTo(builder);
+            result = builder.toString();
+            this.toStringValue = result;
+        }
+        return result;
     }
 
     protected void appendTo(StringBuilder builder) {
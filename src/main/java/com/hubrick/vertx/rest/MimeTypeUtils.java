@@ -15,9 +15,7 @@
  */
 package com.hubrick.vertx.rest;
 
-import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
-import com.google.common.collect.FluentIterable;
 import com.hubrick.vertx.rest.exception.InvalidMimeTypeException;
 
 import java.nio.charset.UnsupportedCharsetException;
@@ -197,53 +195,89 @@ public class MimeTypeUtils {
      * @throws InvalidMimeTypeException if the string cannot be parsed
      */
     public static MimeType parseMimeType(String mimeType) {
+        try {
+            return parseMimeType(mimeType, MimeType::new);
+        }
+        catch (UnsupportedCharsetException ex) {
+            throw new InvalidMimeTypeException(mimeType, "unsupported charset '" + ex.getCharsetName() + "'");
+        }
+        catch (InvalidMimeTypeException ex) {
+            throw ex;
+        }
+        catch (IllegalArgumentException ex) {
+            throw new InvalidMimeTypeException(mimeType, ex.getMessage());
+        }
+    }
+
+    /**
+     * Scans the given String by index and hands the type, subtype and parameters straight to the factory, so no
+     * intermediate split arrays or {@code MimeType} instances are created. Structural errors are reported as
+     * {@link InvalidMimeTypeException}, errors raised by the factory are passed through unchanged.
+     */
+    static <T extends MimeType> T parseMimeType(String mimeType, MimeTypeFactory<T> factory) {
         if (Strings.isNullOrEmpty(mimeType)) {
             throw new InvalidMimeTypeException(mimeType, "'mimeType' must not be empty");
         }
 
-        String[] parts = FluentIterable.from(Splitter.on(";").trimResults().split(mimeType)).toArray(String.class);
+        final int length = mimeType.length();
+        int separatorIndex = mimeType.indexOf(';');
+        int start = skipWhitespace(mimeType, 0, separatorIndex == -1 ? length : separatorIndex);
+        int end = trimWhitespace(mimeType, start, separatorIndex == -1 ? length : separatorIndex);
 
-        String fullType = parts[0].trim();
+        String type;
+        String subtype;
         // java.net.HttpURLConnection returns a *; q=.2 Accept header
-        if (MimeType.WILDCARD_TYPE.equals(fullType)) {
-            fullType = "*/*";
+        if (end - start == 1 && mimeType.charAt(start) == '*') {
+            type = MimeType.WILDCARD_TYPE;
+            subtype = MimeType.WILDCARD_TYPE;
         }
-        int subIndex = fullType.indexOf('/');
-        if (subIndex == -1) {
-            throw new InvalidMimeTypeException(mimeType, "does not contain '/'");
-        }
-        if (subIndex == fullType.length() - 1) {
-            throw new InvalidMimeTypeException(mimeType, "does not contain subtype after '/'");
-        }
-        String type = fullType.substring(0, subIndex);
-        String subtype = fullType.substring(subIndex + 1, fullType.length());
-        if (MimeType.WILDCARD_TYPE.equals(type) && !MimeType.WILDCARD_TYPE.equals(subtype)) {
-            throw new InvalidMimeTypeException(mimeType, "wildcard type is legal only in '*/*' (all mime types)");
+        else {
+            int subIndex = mimeType.indexOf('/', start);
+            if (subIndex == -1 || subIndex >= end) {
+                throw new InvalidMimeTypeException(mimeType, "does not contain '/'");
+            }
+            if (subIndex == end - 1) {
+                throw new InvalidMimeTypeException(mimeType, "does not contain subtype after '/'");
+            }
+            type = mimeType.substring(start, subIndex);
+            subtype = mimeType.substring(subIndex + 1, end);
+            if (MimeType.WILDCARD_TYPE.equals(type) && !MimeType.WILDCARD_TYPE.equals(subtype)) {
+                throw new InvalidMimeTypeException(mimeType, "wildcard type is legal only in '*/*' (all mime types)");
+            }
         }
 
         Map<String, String> parameters = null;
-        if (parts.length > 1) {
-            parameters = new LinkedHashMap<String, String>(parts.length - 1);
-            for (int i = 1; i < parts.length; i++) {
-                String parameter = parts[i];
-                int eqIndex = parameter.indexOf('=');
-                if (eqIndex != -1) {
-                    String attribute = parameter.substring(0, eqIndex);
-                    String value = parameter.substring(eqIndex + 1, parameter.length());
-                    parameters.put(attribute, value);
+        while (separatorIndex != -1) {
+            int parameterStart = separatorIndex + 1;
+            separatorIndex = mimeType.indexOf(';', parameterStart);
+            int parameterEnd = separatorIndex == -1 ? length : separatorIndex;
+            parameterStart = skipWhitespace(mimeType, parameterStart, parameterEnd);
+            parameterEnd = trimWhitespace(mimeType, parameterStart, parameterEnd);
+
+            int eqIndex = mimeType.indexOf('=', parameterStart);
+            if (eqIndex != -1 && eqIndex < parameterEnd) {
+                if (parameters == null) {
+                    parameters = new LinkedHashMap<>(4);
                 }
+                parameters.put(mimeType.substring(parameterStart, eqIndex), mimeType.substring(eqIndex + 1, parameterEnd));
             }
         }
 
-        try {
-            return new MimeType(type, subtype, parameters);
-        }
-        catch (UnsupportedCharsetException ex) {
-            throw new InvalidMimeTypeException(mimeType, "unsupported charset '" + ex.getCharsetName() + "'");
+        return factory.create(type, subtype, parameters);
+    }
+
+    private static int skipWhitespace(String value, int start, int end) {
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
         }
-        catch (IllegalArgumentException ex) {
-            throw new InvalidMimeTypeException(mimeType, ex.getMessage());
+        return start;
+    }
+
+    private static int trimWhitespace(String value, int start, int end) {
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
         }
+        return end;
     }
 
     /**
@@ -274,7 +308,7 @@ public class MimeTypeUtils {
         StringBuilder builder = new StringBuilder();
         for (Iterator<? extends MimeType> iterator = mimeTypes.iterator(); iterator.hasNext();) {
             MimeType mimeType = iterator.next();
-            mimeType.appendTo(builder);
+            builder.append(mimeType.toString());
             if (iterator.hasNext()) {
                 builder.append(", ");
             }
@@ -355,4 +389,15 @@ public class MimeTypeUtils {
             return (paramsSize2 < paramsSize1 ? -1 : (paramsSize2 == paramsSize1 ? 0 : 1)); // audio/basic;level=1 < audio/basic
         }
     }
+
+    /**
+     * Creates the concrete {@link MimeType} from the parts found by {@link #parseMimeType(String, MimeTypeFactory)}.
+     *
+     * @since 3.2.0
+     */
+    @FunctionalInterface
+    interface MimeTypeFactory<T extends MimeType> {
+
+        T create(String type, String subtype, Map<String, String> parameters);
+    }
 }
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Configures the predictive prefetching of cached GET requests. The client learns the transitions between
+ * uri templates (the path with id-like segments collapsed) and, once a follow-up request is likely enough,
+ * issues it ahead of time so that the real request hits the request cache.
+ * <p>
+ * A follow-up uri is built by putting the ids of the current request into the placeholders of the predicted
+ * template, e.g. {@code /orders/123} is followed by {@code /orders/123/items}. Only transitions for which this
+ * reproduced the real follow-up uri in the past are predicted. Only requests with caching enabled take part.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class PrefetchOptions {
+
+    private static final double DEFAULT_PROBABILITY_THRESHOLD = 0.6;
+    private static final double DEFAULT_MAX_PREFETCH_RATIO = 0.1;
+    private static final int DEFAULT_MIN_OBSERVATIONS = 10;
+    private static final int DEFAULT_DECAY_INTERVAL = 1000;
+
+    private double probabilityThreshold = DEFAULT_PROBABILITY_THRESHOLD;
+    private double maxPrefetchRatio = DEFAULT_MAX_PREFETCH_RATIO;
+    private int minObservations = DEFAULT_MIN_OBSERVATIONS;
+    private int decayInterval = DEFAULT_DECAY_INTERVAL;
+    private String sequenceHeader;
+
+    /**
+     * Sets the probability a transition must have before the follow-up request is prefetched. Default is 0.6.
+     *
+     * @param probabilityThreshold The probability between 0 (exclusive) and 1 (inclusive)
+     * @return A reference to this, so multiple method calls can be chained.
+     */
+    public PrefetchOptions withProbabilityThreshold(double probabilityThreshold) {
+        checkArgument(probabilityThreshold > 0D && probabilityThreshold <= 1D, "probabilityThreshold must be between 0 (exclusive) and 1");
+        this.probabilityThreshold = probabilityThreshold;
+        return this;
+    }
+
+    public double getProbabilityThreshold() {
+        return probabilityThreshold;
+    }
+
+    /**
+     * Sets the maximum number of prefetch requests as a fraction of the real requests. Default is 0.1.
+     *
+     * @param maxPrefetchRatio The ratio, must be greater than 0
+     * @return A reference to this, so multiple method calls can be chained.
+     */
+    public PrefetchOptions withMaxPrefetchRatio(double maxPrefetchRatio) {
+        checkArgument(maxPrefetchRatio > 0D, "maxPrefetchRatio must be greater than 0");
+        this.maxPrefetchRatio = maxPrefetchRatio;
+        return this;
+    }
+
+    public double getMaxPrefetchRatio() {
+        return maxPrefetchRatio;
+    }
+
+    /**
+     * Sets how many times a uri template must have been followed by another request before predictions
+     * are made for it. Default is 10.
+     *
+     * @param minObservations The number of observations
+     * @return A reference to this, so multiple method calls can be chained.
+     */
+    public PrefetchOptions withMinObservations(int minObservations) {
+        checkArgument(minObservations > 0, "minObservations must be greater than 0");
+        this.minObservations = minObservations;
+        return this;
+    }
+
+    public int getMinObservations() {
+        return minObservations;
+    }
+
+    /**
+     * Sets after how many real requests all observed frequencies are halved, so that old access patterns fade out.
+     * Default is 1000.
+     *
+     * @param decayInterval The number of requests
+     * @return A reference to this, so multiple method calls can be chained.
+     */
+    public PrefetchOptions withDecayInterval(int decayInterval) {
+        checkArgument(decayInterval > 0, "decayInterval must be greater than 0");
+        this.decayInterval = decayInterval;
+        return this;
+    }
+
+    public int getDecayInterval() {
+        return decayInterval;
+    }
+
+    /**
+     * Sets the header which identifies a flow of requests, e.g. a request id. Transitions are only learned between
+     * requests with the same header value. If not set all requests of the client are treated as one sequence.
+     *
+     * @param sequenceHeader The name of the header
+     * @return A reference to this, so multiple method calls can be chained.
+     */
+    public PrefetchOptions withSequenceHeader(String sequenceHeader) {
+        checkNotNull(sequenceHeader, "sequenceHeader must not be null");
+        this.sequenceHeader = sequenceHeader;
+        return this;
+    }
+
+    public String getSequenceHeader() {
+        return sequenceHeader;
+    }
+}
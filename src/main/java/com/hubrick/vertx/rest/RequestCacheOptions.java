@@ -32,12 +32,21 @@ public class RequestCacheOptions {
     private static final boolean DEFAULT_EVICT_ALL_BEFORE = false;
     private static final int EXPIRES_AFTER_ACCESS_IN_MILLIS = 0;
     private static final Set<Integer> DEFAULT_CACHED_STATUS_CODES = Collections.singleton(200);
+    private static final int DEFAULT_ADAPTIVE_HEALTHY_LATENCY_IN_MILLIS = 100;
+    private static final int DEFAULT_ADAPTIVE_DEGRADED_LATENCY_IN_MILLIS = 1000;
+    private static final double DEFAULT_ADAPTIVE_DEGRADED_ERROR_RATE = 0.5;
 
     private int expiresAfterWriteMillis = DEFAULT_EXPIRES_AFTER_WRITE_IN_MILLIS;
     private boolean evictBefore = DEFAULT_EVICT_BEFORE;
     private boolean evictAllBefore = DEFAULT_EVICT_ALL_BEFORE;
     private int expiresAfterAccessMillis = EXPIRES_AFTER_ACCESS_IN_MILLIS;
     private Set<Integer> cachedStatusCodes = DEFAULT_CACHED_STATUS_CODES;
+    private boolean adaptiveExpiresAfterWrite = false;
+    private int minExpiresAfterWriteMillis = DEFAULT_EXPIRES_AFTER_WRITE_IN_MILLIS;
+    private int maxExpiresAfterWriteMillis = DEFAULT_EXPIRES_AFTER_WRITE_IN_MILLIS;
+    private int adaptiveHealthyLatencyMillis = DEFAULT_ADAPTIVE_HEALTHY_LATENCY_IN_MILLIS;
+    private int adaptiveDegradedLatencyMillis = DEFAULT_ADAPTIVE_DEGRADED_LATENCY_IN_MILLIS;
+    private double adaptiveDegradedErrorRate = DEFAULT_ADAPTIVE_DEGRADED_ERROR_RATE;
 
     /**
      * Sets the time to live after write for the request cache entries. This is the initial time to live.
@@ -126,5 +135,80 @@ public class RequestCacheOptions {
         return Collections.unmodifiableSet(cachedStatusCodes);
     }
 
+    /**
+     * Enables the adaptive time to live after write. Instead of the fixed expiresAfterWriteMillis the ttl of a new entry
+     * is scaled between the given bounds based on the observed latency and error rate of the upstream for the
+     * cache partition of the request (the uri path with id-like segments collapsed). A healthy upstream gets the
+     * minimum ttl, a degraded one the maximum ttl, which takes load off a struggling origin.
+     * This will only work with GET
+     *
+     * @param minExpiresAfterWriteMillis The ttl in milliseconds used for a healthy upstream.
+     * @param maxExpiresAfterWriteMillis The ttl in milliseconds used for a degraded upstream.
+     * @return A reference to this, so multiple method calls can be chained.
+     * @since 3.2.0
+     */
+    public RequestCacheOptions withAdaptiveExpiresAfterWriteMillis(int minExpiresAfterWriteMillis, int maxExpiresAfterWriteMillis) {
+        checkArgument(minExpiresAfterWriteMillis > 0, "minExpiresAfterWriteMillis must be greater than 0");
+        checkArgument(maxExpiresAfterWriteMillis >= minExpiresAfterWriteMillis, "maxExpiresAfterWriteMillis must be greater or equal to minExpiresAfterWriteMillis");
+        this.adaptiveExpiresAfterWrite = true;
+        this.minExpiresAfterWriteMillis = minExpiresAfterWriteMillis;
+        this.maxExpiresAfterWriteMillis = maxExpiresAfterWriteMillis;
+        return this;
+    }
+
+    public boolean getAdaptiveExpiresAfterWrite() {
+        return adaptiveExpiresAfterWrite;
+    }
+
+    public int getMinExpiresAfterWriteMillis() {
+        return minExpiresAfterWriteMillis;
+    }
+
+    public int getMaxExpiresAfterWriteMillis() {
+        return maxExpiresAfterWriteMillis;
+    }
+
+    /**
+     * Sets the latency bounds used by the adaptive ttl. At or below the healthy latency the minimum ttl is used,
+     * at or above the degraded latency the maximum ttl. In between the ttl is interpolated linearly.
+     * Defaults are 100 and 1000 millis.
+     *
+     * @param healthyLatencyMillis The latency in milliseconds up to which the upstream is considered healthy.
+     * @param degradedLatencyMillis The latency in milliseconds from which the upstream is considered degraded.
+     * @return A reference to this, so multiple method calls can be chained.
+     * @since 3.2.0
+     */
+    public RequestCacheOptions withAdaptiveLatencyThresholdsMillis(int healthyLatencyMillis, int degradedLatencyMillis) {
+        checkArgument(healthyLatencyMillis >= 0, "healthyLatencyMillis must be greater or equal to 0");
+        checkArgument(degradedLatencyMillis > healthyLatencyMillis, "degradedLatencyMillis must be greater than healthyLatencyMillis");
+        this.adaptiveHealthyLatencyMillis = healthyLatencyMillis;
+        this.adaptiveDegradedLatencyMillis = degradedLatencyMillis;
+        return this;
+    }
+
+    public int getAdaptiveHealthyLatencyMillis() {
+        return adaptiveHealthyLatencyMillis;
+    }
+
+    public int getAdaptiveDegradedLatencyMillis() {
+        return adaptiveDegradedLatencyMillis;
+    }
 
+    /**
+     * Sets the upstream error rate (5xx responses and failed requests) at which the adaptive ttl reaches its maximum.
+     * Default is 0.5.
+     *
+     * @param degradedErrorRate The error rate between 0 (exclusive) and 1 (inclusive).
+     * @return A reference to this, so multiple method calls can be chained.
+     * @since 3.2.0
+     */
+    public RequestCacheOptions withAdaptiveErrorRateThreshold(double degradedErrorRate) {
+        checkArgument(degradedErrorRate > 0D && degradedErrorRate <= 1D, "degradedErrorRate must be between 0 (exclusive) and 1");
+        this.adaptiveDegradedErrorRate = degradedErrorRate;
+        return this;
+    }
+
+    public double getAdaptiveErrorRateThreshold() {
+        return adaptiveDegradedErrorRate;
+    }
 }
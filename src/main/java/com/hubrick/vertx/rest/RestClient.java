@@ -21,6 +21,7 @@ import com.hubrick.vertx.rest.impl.DefaultRestClient;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
 
 import java.util.List;
 
@@ -173,4 +174,19 @@ public interface RestClient {
      * @return A reference to the {@link com.hubrick.vertx.rest.RestClientRequest}
      */
     <T> RestClientRequest<T> request(HttpMethod method, String uri, Class<T> responseClass, Handler<RestClientResponse<T>> responseHandler);
+
+    /**
+     * Makes a call whose successful response body is decoded element by element while it arrives, e.g. the elements
+     * of a top level JSON array or the lines of newline delimited JSON. The body is never buffered as a whole and
+     * pausing the returned stream pauses the response. Requires a {@link com.hubrick.vertx.rest.converter.StreamingHttpMessageConverter}
+     * for the content type of the response. Streaming responses are not cached.
+     *
+     * @param method The http method to be used for this call
+     * @param uri The uri which should be called.
+     * @param elementClass The class which represents a single element of the response
+     * @param responseHandler The handler for the response callback
+     * @return A reference to the {@link com.hubrick.vertx.rest.RestClientRequest}
+     * @since 3.2.0
+     */
+    <T> RestClientRequest<ReadStream<T>> stream(HttpMethod method, String uri, Class<T> elementClass, Handler<RestClientResponse<ReadStream<T>>> responseHandler);
 }
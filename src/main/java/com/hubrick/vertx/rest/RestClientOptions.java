@@ -40,6 +40,7 @@ public class RestClientOptions extends HttpClientOptions {
     private static final long DEFAULT_GLOBAL_REQUEST_TIMEOUT_IN_MILLIS = 0;
 
     private RequestCacheOptions globalRequestCacheOptions;
+    private PrefetchOptions prefetchOptions;
     private long globalRequestTimeoutInMillis = DEFAULT_GLOBAL_REQUEST_TIMEOUT_IN_MILLIS;
     private MultiMap globalHeaders = new CaseInsensitiveHeaders();
 
@@ -54,6 +55,7 @@ public class RestClientOptions extends HttpClientOptions {
     public RestClientOptions(final RestClientOptions other) {
         super(other);
         globalRequestCacheOptions = other.globalRequestCacheOptions;
+        prefetchOptions = other.prefetchOptions;
         globalHeaders = new CaseInsensitiveHeaders().addAll(other.getGlobalHeaders());
         globalRequestTimeoutInMillis = other.getGlobalRequestTimeoutInMillis();
 
@@ -66,6 +68,11 @@ public class RestClientOptions extends HttpClientOptions {
             final RequestCacheOptions requestCacheOptions = new RequestCacheOptions();
             final Integer ttlInMillis = jsonObjectGlobalRequestCacheOptions.getInteger("ttlInMillis");
             final Boolean evictBefore = jsonObjectGlobalRequestCacheOptions.getBoolean("evictBefore");
+            final Integer minTtlInMillis = jsonObjectGlobalRequestCacheOptions.getInteger("minTtlInMillis");
+            final Integer maxTtlInMillis = jsonObjectGlobalRequestCacheOptions.getInteger("maxTtlInMillis");
+            final Integer healthyLatencyInMillis = jsonObjectGlobalRequestCacheOptions.getInteger("healthyLatencyInMillis");
+            final Integer degradedLatencyInMillis = jsonObjectGlobalRequestCacheOptions.getInteger("degradedLatencyInMillis");
+            final Double degradedErrorRate = jsonObjectGlobalRequestCacheOptions.getDouble("degradedErrorRate");
             if (jsonObjectGlobalRequestCacheOptions.getJsonArray("cachedStatusCodes") != null) {
                 final Set<Integer> cachedStatusCodes = jsonObjectGlobalRequestCacheOptions.getJsonArray("cachedStatusCodes")
                         .stream()
@@ -80,8 +87,45 @@ public class RestClientOptions extends HttpClientOptions {
             if (evictBefore != null) {
                 requestCacheOptions.withEvictBefore(evictBefore);
             }
+            checkArgument((minTtlInMillis == null) == (maxTtlInMillis == null), "minTtlInMillis and maxTtlInMillis must be set together");
+            if (minTtlInMillis != null) {
+                requestCacheOptions.withAdaptiveExpiresAfterWriteMillis(minTtlInMillis, maxTtlInMillis);
+            }
+            checkArgument((healthyLatencyInMillis == null) == (degradedLatencyInMillis == null), "healthyLatencyInMillis and degradedLatencyInMillis must be set together");
+            if (healthyLatencyInMillis != null) {
+                requestCacheOptions.withAdaptiveLatencyThresholdsMillis(healthyLatencyInMillis, degradedLatencyInMillis);
+            }
+            if (degradedErrorRate != null) {
+                requestCacheOptions.withAdaptiveErrorRateThreshold(degradedErrorRate);
+            }
             globalRequestCacheOptions = requestCacheOptions;
         }
+        final JsonObject jsonObjectPrefetchOptions = json.getJsonObject("prefetchOptions");
+        if (jsonObjectPrefetchOptions != null) {
+            final PrefetchOptions prefetchOptions = new PrefetchOptions();
+            final Double probabilityThreshold = jsonObjectPrefetchOptions.getDouble("probabilityThreshold");
+            final Double maxPrefetchRatio = jsonObjectPrefetchOptions.getDouble("maxPrefetchRatio");
+            final Integer minObservations = jsonObjectPrefetchOptions.getInteger("minObservations");
+            final Integer decayInterval = jsonObjectPrefetchOptions.getInteger("decayInterval");
+            final String sequenceHeader = jsonObjectPrefetchOptions.getString("sequenceHeader");
+
+            if (probabilityThreshold != null) {
+                prefetchOptions.withProbabilityThreshold(probabilityThreshold);
+            }
+            if (maxPrefetchRatio != null) {
+                prefetchOptions.withMaxPrefetchRatio(maxPrefetchRatio);
+            }
+            if (minObservations != null) {
+                prefetchOptions.withMinObservations(minObservations);
+            }
+            if (decayInterval != null) {
+                prefetchOptions.withDecayInterval(decayInterval);
+            }
+            if (sequenceHeader != null) {
+                prefetchOptions.withSequenceHeader(sequenceHeader);
+            }
+            this.prefetchOptions = prefetchOptions;
+        }
         globalHeaders = new CaseInsensitiveHeaders();
         globalRequestTimeoutInMillis = json.getLong("globalRequestTimeoutInMillis", DEFAULT_GLOBAL_REQUEST_TIMEOUT_IN_MILLIS);
     }
@@ -158,6 +202,23 @@ public class RestClientOptions extends HttpClientOptions {
         return globalRequestCacheOptions;
     }
 
+    /**
+     * Enables the predictive prefetching of cached GET requests. Default is null which means it's disabled.
+     * Prefetched responses end up in the request cache, so only requests with caching enabled take part.
+     *
+     * @param prefetchOptions The prefetch config
+     * @return a reference to this so multiple method calls can be chained together
+     * @since 3.2.0
+     */
+    public RestClientOptions setPrefetchOptions(PrefetchOptions prefetchOptions) {
+        this.prefetchOptions = prefetchOptions;
+        return this;
+    }
+
+    public PrefetchOptions getPrefetchOptions() {
+        return prefetchOptions;
+    }
+
     @Override
     public RestClientOptions setSendBufferSize(int sendBufferSize) {
         super.setSendBufferSize(sendBufferSize);
@@ -60,6 +60,20 @@ public interface RestClientResponse<T> {
      */
     T getBody();
 
+    /**
+     * Converts the body into the given instance instead of creating a new one, e.g. to reuse the same object graph
+     * when polling an endpoint. Converters which can't update instances in place return a new instance, as do
+     * responses which don't support it at all, the default falls back to {@link #getBody()}.
+     * Exceptions are handled like in {@link #getBody()}.
+     *
+     * @param into The instance to update
+     * @return The updated instance or {@code into} unchanged if the body is empty
+     * @since 3.2.0
+     */
+    default T getBody(T into) {
+        return getBody();
+    }
+
     /**
      * Set an exception handler.
      * Will override the exception handler which was eventually inherited from {@link com.hubrick.vertx.rest.RestClientRequest}.
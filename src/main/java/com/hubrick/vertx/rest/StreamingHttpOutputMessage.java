@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A {@link HttpOutputMessage} which can take body segments that are only read while the request is sent, so that
+ * large bodies don't have to be held in memory.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface StreamingHttpOutputMessage extends HttpOutputMessage {
+
+    /**
+     * Appends the content of a file. The file is opened when the request is sent and closed afterwards.
+     *
+     * @param file The file to send
+     * @throws IOException if the size of the file can't be determined
+     */
+    void writeFile(Path file) throws IOException;
+
+    /**
+     * Appends the content of a stream, e.g. an {@link io.vertx.core.file.AsyncFile}. The stream is consumed when the
+     * request is sent, it's not closed afterwards.
+     *
+     * @param stream The stream to send
+     * @param length The number of bytes of the stream or -1 if unknown, which sends the request chunked
+     * @throws IOException in case of I/O Errors
+     */
+    void writeStream(ReadStream<Buffer> stream, long length) throws IOException;
+}
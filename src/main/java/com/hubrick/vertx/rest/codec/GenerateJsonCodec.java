@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO for which the {@link JsonCodecProcessor} generates a {@link JsonCodec} at build time.
+ * The codec is named after the binary name of the DTO with the suffix {@link JsonCodec#CLASS_NAME_SUFFIX},
+ * e.g. {@code com.acme.User} gets {@code com.acme.UserJsonCodec}.
+ * <p>
+ * The DTO needs a non private no-arg constructor. Its properties are the non static, non transient fields which
+ * are either non private or have a non private getter and setter. {@code @JsonProperty} renames a property and
+ * {@code @JsonIgnore} excludes it. Any other Jackson annotation on the DTO, its superclasses or the enums it uses fails
+ * the compilation. The configuration of the {@code ObjectMapper}, like its naming strategy or inclusion settings, isn't
+ * applied to the generated properties.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateJsonCodec {
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON encoder and decoder for a single type, generated by the {@link JsonCodecProcessor} for classes
+ * annotated with {@link GenerateJsonCodec}. Generated codecs are stateless and expose their instance in a
+ * {@code public static final INSTANCE} field.
+ * <p>
+ * Property types the codec doesn't handle itself are delegated to the {@link com.fasterxml.jackson.core.ObjectCodec}
+ * of the parser or generator, which therefore has to be set.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface JsonCodec<T> {
+
+    String CLASS_NAME_SUFFIX = "JsonCodec";
+
+    /**
+     * @param parser The parser positioned on the first token of the value
+     * @return The decoded value or {@code null} for a JSON null. The parser is left on the last token of the value.
+     */
+    T decode(JsonParser parser) throws IOException;
+
+    /**
+     * @param value     The value to encode, can be {@code null}
+     * @param generator The generator to write to
+     */
+    void encode(T value, JsonGenerator generator) throws IOException;
+}
@@ -0,0 +1,776 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.codec;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@link JsonCodec} for every class annotated with {@link GenerateJsonCodec}, so that the DTOs can be
+ * (de)serialized without reflective introspection and binding at runtime.
+ * <p>
+ * Primitives, their wrappers, strings, enums, other annotated classes and {@code List}, {@code Set},
+ * {@code Collection} and {@code Map} with string keys of those are encoded and decoded by the generated code.
+ * Properties of any other type are delegated to the {@link com.fasterxml.jackson.core.ObjectCodec} of the parser or
+ * generator. Unknown properties are skipped and missing properties keep the value the constructor assigned.
+ * <p>
+ * Of the Jackson annotations only the name of {@code @JsonProperty} and {@code @JsonIgnore} are applied, a class, one
+ * of its superclasses or an enum it uses carrying any other Jackson annotation fails the compilation instead of
+ * getting a codec which would silently produce different JSON. The configuration of the {@code ObjectMapper} isn't
+ * applied either: naming strategies, inclusion settings, {@code FAIL_ON_UNKNOWN_PROPERTIES} and the other features
+ * only affect the properties delegated to it.
+ * <p>
+ * The processor isn't registered as a service, so it only runs when it is enabled explicitly, e.g. with
+ * {@code -processor com.hubrick.vertx.rest.codec.JsonCodecProcessor} or the {@code annotationProcessors} option of
+ * the maven-compiler-plugin.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+@SupportedAnnotationTypes("com.hubrick.vertx.rest.codec.GenerateJsonCodec")
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String JACKSON_ANNOTATIONS_INSIDE = "com.fasterxml.jackson.annotation.JacksonAnnotationsInside";
+    private static final String[] JACKSON_ANNOTATION_PACKAGES = {
+            "com.fasterxml.jackson.annotation.",
+            "com.fasterxml.jackson.databind.annotation."
+    };
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateJsonCodec.class)) {
+            final TypeElement typeElement = (TypeElement) element;
+            if (validate(typeElement) && validateAnnotations(typeElement)) {
+                try {
+                    generate(typeElement);
+                } catch (IOException e) {
+                    error(typeElement, "Unable to write the codec: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean validate(TypeElement typeElement) {
+        if (typeElement.getKind() != ElementKind.CLASS) {
+            return error(typeElement, "@GenerateJsonCodec is only supported on classes");
+        }
+        if (typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+            return error(typeElement, "@GenerateJsonCodec is not supported on abstract classes");
+        }
+        if (!typeElement.getTypeParameters().isEmpty()) {
+            return error(typeElement, "@GenerateJsonCodec is not supported on generic classes");
+        }
+        for (Element enclosing = typeElement; enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return error(typeElement, "@GenerateJsonCodec classes must not be private");
+            }
+            if (enclosing instanceof TypeElement && ((TypeElement) enclosing).getNestingKind() == NestingKind.MEMBER
+                    && !enclosing.getModifiers().contains(Modifier.STATIC)) {
+                return error(typeElement, "@GenerateJsonCodec classes must not be inner classes");
+            }
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return error(typeElement, "@GenerateJsonCodec classes need a non private no-arg constructor");
+    }
+
+    /**
+     * Rejects Jackson annotations the generated codec wouldn't apply, on the class and its superclasses and their
+     * members.
+     */
+    private boolean validateAnnotations(TypeElement typeElement) {
+        boolean valid = true;
+        for (TypeElement current = typeElement; current != null; current = superclass(current)) {
+            valid &= validateAnnotations(current, false);
+            for (Element member : current.getEnclosedElements()) {
+                if (member.getKind().isClass() || member.getKind().isInterface()) {
+                    continue;
+                }
+                valid &= validateAnnotations(member, member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD);
+                if (member instanceof ExecutableElement) {
+                    for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+                        valid &= validateAnnotations(parameter, false);
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+
+    private boolean validateAnnotations(Element element, boolean propertyMember) {
+        boolean valid = true;
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (!isJacksonAnnotation(annotationType)) {
+                continue;
+            }
+            final String name = annotationType.getQualifiedName().toString();
+            if (propertyMember && name.equals(JSON_PROPERTY)) {
+                for (ExecutableElement attribute : annotation.getElementValues().keySet()) {
+                    if (!attribute.getSimpleName().contentEquals("value")) {
+                        valid = error(element, "@GenerateJsonCodec only supports the value of @JsonProperty, not " + attribute.getSimpleName());
+                    }
+                }
+            } else if (propertyMember && name.equals(JSON_IGNORE)) {
+                for (AnnotationValue value : annotation.getElementValues().values()) {
+                    if (Boolean.FALSE.equals(value.getValue())) {
+                        valid = error(element, "@GenerateJsonCodec doesn't support @JsonIgnore(false)");
+                    }
+                }
+            } else {
+                valid = error(element, "@GenerateJsonCodec doesn't support @" + annotationType.getSimpleName()
+                        + ", the generated codec wouldn't apply it. Remove the annotation or leave the class to Jackson");
+            }
+        }
+        return valid;
+    }
+
+    private static boolean isJacksonAnnotation(TypeElement annotationType) {
+        final String name = annotationType.getQualifiedName().toString();
+        for (String jacksonAnnotationPackage : JACKSON_ANNOTATION_PACKAGES) {
+            if (name.startsWith(jacksonAnnotationPackage)) {
+                return true;
+            }
+        }
+        // Custom annotations bundling Jackson annotations
+        return findAnnotation(annotationType, JACKSON_ANNOTATIONS_INSIDE) != null;
+    }
+
+    /**
+     * Rejects {@code @JsonProperty} on methods which aren't the getter or setter of a field, Jackson would turn them
+     * into properties of their own, and Jackson annotations on the enums the codec reads and writes by name.
+     */
+    private boolean validatePropertyAnnotations(TypeElement typeElement, List<Property> properties) {
+        final Set<Element> accessors = new HashSet<>();
+        final Set<TypeElement> enums = new HashSet<>();
+        for (Property property : properties) {
+            accessors.add(property.getterMethod);
+            accessors.add(property.setterMethod);
+            collectEnums(property.type, enums);
+        }
+
+        boolean valid = true;
+        for (TypeElement current = typeElement; current != null; current = superclass(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (findAnnotation(method, JSON_PROPERTY) != null && !accessors.contains(method)) {
+                    valid = error(method, "@GenerateJsonCodec only supports @JsonProperty on fields and their accessible getters and setters");
+                }
+            }
+        }
+        for (TypeElement enumElement : enums) {
+            final List<Element> elements = new ArrayList<>(enumElement.getEnclosedElements());
+            elements.add(enumElement);
+            for (Element element : elements) {
+                for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                    if (isJacksonAnnotation((TypeElement) annotation.getAnnotationType().asElement())) {
+                        valid = error(typeElement, "@GenerateJsonCodec reads and writes enums by name, "
+                                + enumElement.getQualifiedName() + " has Jackson annotations the generated codec wouldn't apply");
+                        break;
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+
+    private static void collectEnums(TypeMirror type, Set<TypeElement> enums) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return;
+        }
+        final DeclaredType declaredType = (DeclaredType) type;
+        if (declaredType.asElement().getKind() == ElementKind.ENUM) {
+            enums.add((TypeElement) declaredType.asElement());
+        }
+        for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+            collectEnums(typeArgument, enums);
+        }
+    }
+
+    private void generate(TypeElement typeElement) throws IOException {
+        final Elements elements = processingEnv.getElementUtils();
+        final PackageElement packageElement = elements.getPackageOf(typeElement);
+        final String codecName = codecSimpleName(typeElement);
+        final String qualifiedCodecName = packageElement.isUnnamed() ? codecName : packageElement.getQualifiedName() + "." + codecName;
+
+        final List<Property> properties = collectProperties(typeElement);
+        if (properties == null || !validatePropertyAnnotations(typeElement, properties)) {
+            return;
+        }
+
+        final CodecWriter codecWriter = new CodecWriter(typeElement, codecName, properties);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedCodecName, typeElement).openWriter()) {
+            if (!packageElement.isUnnamed()) {
+                writer.write("package " + packageElement.getQualifiedName() + ";\n\n");
+            }
+            writer.write(codecWriter.write());
+        }
+    }
+
+    private String codecSimpleName(TypeElement typeElement) {
+        final Elements elements = processingEnv.getElementUtils();
+        final String binaryName = elements.getBinaryName(typeElement).toString();
+        final PackageElement packageElement = elements.getPackageOf(typeElement);
+        final String simpleBinaryName = packageElement.isUnnamed() ? binaryName : binaryName.substring(packageElement.getQualifiedName().length() + 1);
+        return simpleBinaryName + JsonCodec.CLASS_NAME_SUFFIX;
+    }
+
+    private List<Property> collectProperties(TypeElement typeElement) {
+        // Walk from the top of the hierarchy down, so inherited properties come first like in Jackson
+        final Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        for (TypeElement current = typeElement; current != null; current = superclass(current)) {
+            hierarchy.push(current);
+        }
+
+        final List<Property> properties = new ArrayList<>();
+        final Set<String> names = new HashSet<>();
+        for (TypeElement declaringType : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT) || findAnnotation(field, JSON_IGNORE) != null) {
+                    continue;
+                }
+
+                final Property property = createProperty(typeElement, declaringType, field);
+                if (property == null) {
+                    continue;
+                }
+                if (!names.add(property.name)) {
+                    error(field, "Duplicate JSON property " + property.name);
+                    return null;
+                }
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private Property createProperty(TypeElement typeElement, TypeElement declaringType, VariableElement field) {
+        final String fieldName = field.getSimpleName().toString();
+        final String capitalized = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        final TypeMirror type = field.asType();
+
+        String getter = null;
+        String setter = null;
+        ExecutableElement getterMethod = null;
+        ExecutableElement setterMethod = null;
+        for (ExecutableElement method : ElementFilter.methodsIn(declaringType.getEnclosedElements())) {
+            if (method.getModifiers().contains(Modifier.STATIC) || !isAccessible(typeElement, method)) {
+                continue;
+            }
+            final String methodName = method.getSimpleName().toString();
+            final Types types = processingEnv.getTypeUtils();
+            if (method.getParameters().isEmpty() && types.isSameType(method.getReturnType(), type)
+                    && (methodName.equals("get" + capitalized) || type.getKind() == TypeKind.BOOLEAN && methodName.equals("is" + capitalized))) {
+                getterMethod = method;
+                getter = "value." + methodName + "()";
+            } else if (method.getParameters().size() == 1 && types.isSameType(method.getParameters().get(0).asType(), type)
+                    && methodName.equals("set" + capitalized)) {
+                setterMethod = method;
+                setter = "value." + methodName + "(%s)";
+            }
+        }
+        if (isAccessible(typeElement, field)) {
+            getter = "value." + fieldName;
+            setter = field.getModifiers().contains(Modifier.FINAL) ? setter : "value." + fieldName + " = %s";
+        }
+        if (getter == null && setter == null
+                || getterMethod != null && findAnnotation(getterMethod, JSON_IGNORE) != null
+                || setterMethod != null && findAnnotation(setterMethod, JSON_IGNORE) != null) {
+            return null;
+        }
+
+        String name = jsonPropertyName(field);
+        if (name == null && getterMethod != null) {
+            name = jsonPropertyName(getterMethod);
+        }
+        if (name == null && setterMethod != null) {
+            name = jsonPropertyName(setterMethod);
+        }
+        return new Property(name != null ? name : fieldName, type, getter, setter, getterMethod, setterMethod);
+    }
+
+    private boolean isAccessible(TypeElement typeElement, Element member) {
+        final Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        final Elements elements = processingEnv.getElementUtils();
+        return !modifiers.contains(Modifier.PRIVATE) && elements.getPackageOf(member).equals(elements.getPackageOf(typeElement));
+    }
+
+    private TypeElement superclass(TypeElement typeElement) {
+        final TypeMirror superclass = typeElement.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        final TypeElement superElement = (TypeElement) ((DeclaredType) superclass).asElement();
+        return superElement.getQualifiedName().contentEquals("java.lang.Object") ? null : superElement;
+    }
+
+    private String jsonPropertyName(Element element) {
+        final AnnotationMirror annotation = findAnnotation(element, JSON_PROPERTY);
+        if (annotation == null) {
+            return null;
+        }
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals("value")) {
+                final String value = (String) entry.getValue().getValue();
+                return value.isEmpty() ? null : value;
+            }
+        }
+        return null;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String qualifiedName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(qualifiedName)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private static final class Property {
+
+        private final String name;
+        private final TypeMirror type;
+        private final String getter;
+        private final String setter;
+        private final ExecutableElement getterMethod;
+        private final ExecutableElement setterMethod;
+
+        private Property(String name, TypeMirror type, String getter, String setter, ExecutableElement getterMethod, ExecutableElement setterMethod) {
+            this.name = name;
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.getterMethod = getterMethod;
+            this.setterMethod = setterMethod;
+        }
+    }
+
+    /**
+     * Writes the source of one codec. Collections and maps get a read and a write method each, values of other
+     * types are read and written inline.
+     */
+    private final class CodecWriter {
+
+        private final TypeElement typeElement;
+        private final String codecName;
+        private final List<Property> properties;
+        private final StringBuilder constants = new StringBuilder();
+        private final StringBuilder methods = new StringBuilder();
+        private int fallbackTypes = 0;
+        private int helperMethods = 0;
+
+        private CodecWriter(TypeElement typeElement, String codecName, List<Property> properties) {
+            this.typeElement = typeElement;
+            this.codecName = codecName;
+            this.properties = properties;
+        }
+
+        private String write() {
+            final String dtoName = typeElement.getQualifiedName().toString();
+            final StringBuilder decode = new StringBuilder();
+            final StringBuilder encode = new StringBuilder();
+            for (int i = 0; i < properties.size(); i++) {
+                final Property property = properties.get(i);
+                if (property.setter != null) {
+                    decode.append("                case ").append(literal(property.name)).append(":\n")
+                            .append("                    ").append(String.format(property.setter, readExpression(property.type))).append(";\n")
+                            .append("                    break;\n");
+                }
+                if (property.getter != null) {
+                    constants.append("    private static final SerializedString NAME_").append(i)
+                            .append(" = new SerializedString(").append(literal(property.name)).append(");\n");
+                    encode.append("        generator.writeFieldName(NAME_").append(i).append(");\n")
+                            .append("        ").append(writeStatement(property.type, property.getter)).append("\n");
+                }
+            }
+
+            return "import com.fasterxml.jackson.core.JsonGenerator;\n"
+                    + "import com.fasterxml.jackson.core.JsonParser;\n"
+                    + "import com.fasterxml.jackson.core.JsonToken;\n"
+                    + "import com.fasterxml.jackson.core.io.SerializedString;\n"
+                    + "import com.fasterxml.jackson.core.type.TypeReference;\n"
+                    + "import com.hubrick.vertx.rest.codec.JsonCodec;\n"
+                    + "import com.hubrick.vertx.rest.codec.JsonCodecs;\n"
+                    + "\n"
+                    + "import java.io.IOException;\n"
+                    + "\n"
+                    + "/**\n"
+                    + " * Generated by " + JsonCodecProcessor.class.getName() + " for {@link " + dtoName + "}.\n"
+                    + " */\n"
+                    + "public final class " + codecName + " implements JsonCodec<" + dtoName + "> {\n"
+                    + "\n"
+                    + "    public static final " + codecName + " INSTANCE = new " + codecName + "();\n"
+                    + "\n"
+                    + constants
+                    + "\n"
+                    + "    private " + codecName + "() {\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public " + dtoName + " decode(JsonParser parser) throws IOException {\n"
+                    + "        if (!JsonCodecs.startObject(parser)) {\n"
+                    + "            return null;\n"
+                    + "        }\n"
+                    + "        final " + dtoName + " value = new " + dtoName + "();\n"
+                    + "        String name;\n"
+                    + "        while ((name = parser.nextFieldName()) != null) {\n"
+                    + "            parser.nextToken();\n"
+                    + "            switch (name) {\n"
+                    + decode
+                    + "                default:\n"
+                    + "                    parser.skipChildren();\n"
+                    + "            }\n"
+                    + "        }\n"
+                    + "        return value;\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public void encode(" + dtoName + " value, JsonGenerator generator) throws IOException {\n"
+                    + "        if (value == null) {\n"
+                    + "            generator.writeNull();\n"
+                    + "            return;\n"
+                    + "        }\n"
+                    + "        generator.writeStartObject();\n"
+                    + encode
+                    + "        generator.writeEndObject();\n"
+                    + "    }\n"
+                    + methods
+                    + "}\n";
+        }
+
+        private String readExpression(TypeMirror type) {
+            final String scalar = readScalarExpression(type);
+            if (scalar != null) {
+                return scalar;
+            }
+
+            final TypeMirror elementType = collectionElementType(type);
+            if (elementType != null && readScalarExpression(elementType) != null) {
+                final String implementation = isAssignable(type, "java.util.Set") ? "java.util.LinkedHashSet" : "java.util.ArrayList";
+                final String method = "read" + helperMethods++;
+                methods.append("\n")
+                        .append("    private static ").append(type).append(" ").append(method).append("(JsonParser parser) throws IOException {\n")
+                        .append("        if (!JsonCodecs.startArray(parser)) {\n")
+                        .append("            return null;\n")
+                        .append("        }\n")
+                        .append("        final ").append(implementation).append("<").append(elementType).append("> result = new ").append(implementation).append("<>();\n")
+                        .append("        while (parser.nextToken() != JsonToken.END_ARRAY) {\n")
+                        .append("            result.add(").append(readScalarExpression(elementType)).append(");\n")
+                        .append("        }\n")
+                        .append("        return result;\n")
+                        .append("    }\n");
+                return method + "(parser)";
+            }
+
+            final TypeMirror valueType = mapValueType(type);
+            if (valueType != null && readScalarExpression(valueType) != null) {
+                final String method = "read" + helperMethods++;
+                methods.append("\n")
+                        .append("    private static ").append(type).append(" ").append(method).append("(JsonParser parser) throws IOException {\n")
+                        .append("        if (!JsonCodecs.startObject(parser)) {\n")
+                        .append("            return null;\n")
+                        .append("        }\n")
+                        .append("        final java.util.LinkedHashMap<String, ").append(valueType).append("> result = new java.util.LinkedHashMap<>();\n")
+                        .append("        String name;\n")
+                        .append("        while ((name = parser.nextFieldName()) != null) {\n")
+                        .append("            parser.nextToken();\n")
+                        .append("            result.put(name, ").append(readScalarExpression(valueType)).append(");\n")
+                        .append("        }\n")
+                        .append("        return result;\n")
+                        .append("    }\n");
+                return method + "(parser)";
+            }
+
+            return "parser.readValueAs(" + fallbackType(type) + ")";
+        }
+
+        /**
+         * @return The expression reading a value which isn't a container or {@code null} if the type is none
+         */
+        private String readScalarExpression(TypeMirror type) {
+            switch (type.getKind()) {
+                case BOOLEAN:
+                    return "JsonCodecs.readBoolean(parser)";
+                case INT:
+                    return "JsonCodecs.readInt(parser)";
+                case LONG:
+                    return "JsonCodecs.readLong(parser)";
+                case DOUBLE:
+                    return "JsonCodecs.readDouble(parser)";
+                case FLOAT:
+                    return "(float) JsonCodecs.readDouble(parser)";
+                case SHORT:
+                    return "(short) JsonCodecs.readInt(parser)";
+                case BYTE:
+                    return "(byte) JsonCodecs.readInt(parser)";
+                case CHAR:
+                    return "JsonCodecs.readChar(parser)";
+                case DECLARED:
+                    break;
+                default:
+                    return null;
+            }
+
+            final TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+            switch (element.getQualifiedName().toString()) {
+                case "java.lang.String":
+                    return "JsonCodecs.readString(parser)";
+                case "java.lang.Boolean":
+                    return "JsonCodecs.readBooleanOrNull(parser)";
+                case "java.lang.Integer":
+                    return "JsonCodecs.readIntOrNull(parser)";
+                case "java.lang.Long":
+                    return "JsonCodecs.readLongOrNull(parser)";
+                case "java.lang.Double":
+                    return "JsonCodecs.readDoubleOrNull(parser)";
+                case "java.lang.Float":
+                    return "JsonCodecs.readFloatOrNull(parser)";
+                case "java.lang.Short":
+                    return "JsonCodecs.readShortOrNull(parser)";
+                case "java.lang.Byte":
+                    return "JsonCodecs.readByteOrNull(parser)";
+                case "java.lang.Character":
+                    return "JsonCodecs.readCharOrNull(parser)";
+                default:
+                    break;
+            }
+            if (element.getKind() == ElementKind.ENUM) {
+                return "JsonCodecs.readEnum(parser, " + element.getQualifiedName() + ".class)";
+            }
+            if (element.getAnnotation(GenerateJsonCodec.class) != null) {
+                return codecReference(element) + ".INSTANCE.decode(parser)";
+            }
+            return null;
+        }
+
+        private String writeStatement(TypeMirror type, String value) {
+            final String scalar = writeScalarStatement(type, value);
+            if (scalar != null) {
+                return scalar;
+            }
+
+            final TypeMirror elementType = collectionElementType(type);
+            if (elementType != null && writeScalarStatement(elementType, "element") != null) {
+                final String method = "write" + helperMethods++;
+                methods.append("\n")
+                        .append("    private static void ").append(method).append("(").append(type).append(" value, JsonGenerator generator) throws IOException {\n")
+                        .append("        if (value == null) {\n")
+                        .append("            generator.writeNull();\n")
+                        .append("            return;\n")
+                        .append("        }\n")
+                        .append("        generator.writeStartArray();\n")
+                        .append("        for (").append(elementType).append(" element : value) {\n")
+                        .append("            ").append(writeScalarStatement(elementType, "element")).append("\n")
+                        .append("        }\n")
+                        .append("        generator.writeEndArray();\n")
+                        .append("    }\n");
+                return method + "(" + value + ", generator);";
+            }
+
+            final TypeMirror valueType = mapValueType(type);
+            if (valueType != null && writeScalarStatement(valueType, "entry.getValue()") != null) {
+                final String method = "write" + helperMethods++;
+                methods.append("\n")
+                        .append("    private static void ").append(method).append("(").append(type).append(" value, JsonGenerator generator) throws IOException {\n")
+                        .append("        if (value == null) {\n")
+                        .append("            generator.writeNull();\n")
+                        .append("            return;\n")
+                        .append("        }\n")
+                        .append("        generator.writeStartObject();\n")
+                        .append("        for (java.util.Map.Entry<String, ").append(valueType).append("> entry : value.entrySet()) {\n")
+                        .append("            generator.writeFieldName(entry.getKey());\n")
+                        .append("            ").append(writeScalarStatement(valueType, "entry.getValue()")).append("\n")
+                        .append("        }\n")
+                        .append("        generator.writeEndObject();\n")
+                        .append("    }\n");
+                return method + "(" + value + ", generator);";
+            }
+
+            return "generator.writeObject(" + value + ");";
+        }
+
+        private String writeScalarStatement(TypeMirror type, String value) {
+            switch (type.getKind()) {
+                case BOOLEAN:
+                    return "generator.writeBoolean(" + value + ");";
+                case INT:
+                case LONG:
+                case DOUBLE:
+                case FLOAT:
+                case SHORT:
+                    return "generator.writeNumber(" + value + ");";
+                case BYTE:
+                    return "generator.writeNumber((int) " + value + ");";
+                case CHAR:
+                    return "generator.writeString(String.valueOf(" + value + "));";
+                case DECLARED:
+                    break;
+                default:
+                    return null;
+            }
+
+            final TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+            switch (element.getQualifiedName().toString()) {
+                case "java.lang.String":
+                    return "JsonCodecs.writeString(generator, " + value + ");";
+                case "java.lang.Boolean":
+                    return "JsonCodecs.writeBoolean(generator, " + value + ");";
+                case "java.lang.Integer":
+                case "java.lang.Long":
+                case "java.lang.Double":
+                case "java.lang.Float":
+                case "java.lang.Short":
+                case "java.lang.Byte":
+                    return "JsonCodecs.writeNumber(generator, " + value + ");";
+                case "java.lang.Character":
+                    return "JsonCodecs.writeChar(generator, " + value + ");";
+                default:
+                    break;
+            }
+            if (element.getKind() == ElementKind.ENUM) {
+                return "JsonCodecs.writeEnum(generator, " + value + ");";
+            }
+            if (element.getAnnotation(GenerateJsonCodec.class) != null) {
+                return codecReference(element) + ".INSTANCE.encode(" + value + ", generator);";
+            }
+            return null;
+        }
+
+        /**
+         * @return The element type of a {@code List}, {@code Set} or {@code Collection} or {@code null} if the type is none
+         */
+        private TypeMirror collectionElementType(TypeMirror type) {
+            if (isOneOf(type, "java.util.List", "java.util.Set", "java.util.Collection")) {
+                final List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+                return typeArguments.size() == 1 && typeArguments.get(0).getKind() == TypeKind.DECLARED ? typeArguments.get(0) : null;
+            }
+            return null;
+        }
+
+        /**
+         * @return The value type of a {@code Map} with {@code String} keys or {@code null} if the type is none
+         */
+        private TypeMirror mapValueType(TypeMirror type) {
+            if (isOneOf(type, "java.util.Map")) {
+                final List<? extends TypeMirror> typeArguments = ((DeclaredType) type).getTypeArguments();
+                if (typeArguments.size() == 2 && typeArguments.get(0).toString().equals("java.lang.String")
+                        && typeArguments.get(1).getKind() == TypeKind.DECLARED) {
+                    return typeArguments.get(1);
+                }
+            }
+            return null;
+        }
+
+        private boolean isOneOf(TypeMirror type, String... qualifiedNames) {
+            if (type.getKind() != TypeKind.DECLARED) {
+                return false;
+            }
+            final String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+            for (String qualifiedName : qualifiedNames) {
+                if (qualifiedName.equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isAssignable(TypeMirror type, String qualifiedName) {
+            final Types types = processingEnv.getTypeUtils();
+            final TypeElement target = processingEnv.getElementUtils().getTypeElement(qualifiedName);
+            return types.isAssignable(types.erasure(type), types.erasure(target.asType()));
+        }
+
+        private String fallbackType(TypeMirror type) {
+            final String constant = "TYPE_" + fallbackTypes++;
+            final String boxed = type.getKind().isPrimitive()
+                    ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                    : type.toString();
+            constants.append("    private static final TypeReference<").append(boxed).append("> ").append(constant)
+                    .append(" = new TypeReference<").append(boxed).append(">() {\n")
+                    .append("    };\n");
+            return constant;
+        }
+
+        private String codecReference(TypeElement element) {
+            final PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(element);
+            return packageElement.isUnnamed() ? codecSimpleName(element) : packageElement.getQualifiedName() + "." + codecSimpleName(element);
+        }
+
+        private String literal(String value) {
+            final StringBuilder result = new StringBuilder("\"");
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    result.append('\\').append(c);
+                } else if (c < 0x20 || c > 0x7e) {
+                    result.append(String.format("\\u%04x", (int) c));
+                } else {
+                    result.append(c);
+                }
+            }
+            return result.append('"').toString();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Lookup of generated {@link JsonCodec}s and the helpers their generated code calls.
+ * <p>
+ * Scalars are coerced like {@link JsonParser#getValueAsInt()} and friends do, e.g. {@code "42"} reads as {@code 42}
+ * and {@code null} as {@code 0}, but objects and arrays in place of a scalar are rejected.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class JsonCodecs {
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * @param clazz The type to find the codec for
+     * @return The codec generated for the class or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> find(Class<T> clazz) {
+        checkNotNull(clazz, "clazz must not be null");
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.getName().startsWith("java.")) {
+            return null;
+        }
+
+        try {
+            final Class<?> codecClass = Class.forName(clazz.getName() + JsonCodec.CLASS_NAME_SUFFIX, true, clazz.getClassLoader());
+            if (!JsonCodec.class.isAssignableFrom(codecClass)) {
+                return null;
+            }
+            return (JsonCodec<T>) codecClass.getField("INSTANCE").get(null);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Codec for " + clazz.getName() + " has no accessible INSTANCE", e);
+        }
+    }
+
+    /**
+     * @return {@code false} if the current token is a JSON null, {@code true} if it starts an object
+     */
+    public static boolean startObject(JsonParser parser) throws IOException {
+        return start(parser, JsonToken.START_OBJECT);
+    }
+
+    /**
+     * @return {@code false} if the current token is a JSON null, {@code true} if it starts an array
+     */
+    public static boolean startArray(JsonParser parser) throws IOException {
+        return start(parser, JsonToken.START_ARRAY);
+    }
+
+    private static boolean start(JsonParser parser, JsonToken expected) throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == expected) {
+            return true;
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        throw new JsonParseException(parser, "Expected " + expected + " but got " + token);
+    }
+
+    public static boolean readBoolean(JsonParser parser) throws IOException {
+        return scalar(parser).getValueAsBoolean();
+    }
+
+    public static int readInt(JsonParser parser) throws IOException {
+        return scalar(parser).getValueAsInt();
+    }
+
+    public static long readLong(JsonParser parser) throws IOException {
+        return scalar(parser).getValueAsLong();
+    }
+
+    public static double readDouble(JsonParser parser) throws IOException {
+        return scalar(parser).getValueAsDouble();
+    }
+
+    public static String readString(JsonParser parser) throws IOException {
+        return scalar(parser).getValueAsString();
+    }
+
+    public static Boolean readBooleanOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : readBoolean(parser);
+    }
+
+    public static Integer readIntOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : readInt(parser);
+    }
+
+    public static Long readLongOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : readLong(parser);
+    }
+
+    public static Double readDoubleOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : readDouble(parser);
+    }
+
+    public static Float readFloatOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : (float) readDouble(parser);
+    }
+
+    public static Short readShortOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : (short) readInt(parser);
+    }
+
+    public static Byte readByteOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : (byte) readInt(parser);
+    }
+
+    /**
+     * Reads a string of one character or a character code like Jackson does, {@code null} reads as {@code '\0'}.
+     */
+    public static char readChar(JsonParser parser) throws IOException {
+        final JsonToken token = scalar(parser).currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return '\0';
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            final int code = parser.getIntValue();
+            if (code < Character.MIN_VALUE || code > Character.MAX_VALUE) {
+                throw new JsonParseException(parser, "Character code " + code + " is out of range");
+            }
+            return (char) code;
+        }
+        final String text = parser.getValueAsString();
+        if (text == null || text.length() != 1) {
+            throw new JsonParseException(parser, "Expected a single character but got " + token);
+        }
+        return text.charAt(0);
+    }
+
+    public static Character readCharOrNull(JsonParser parser) throws IOException {
+        return isNull(parser) ? null : readChar(parser);
+    }
+
+    public static <E extends Enum<E>> E readEnum(JsonParser parser, Class<E> enumClass) throws IOException {
+        if (isNull(parser)) {
+            return null;
+        }
+        final String name = readString(parser);
+        try {
+            return Enum.valueOf(enumClass, name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Unknown constant " + name + " of " + enumClass.getName(), e);
+        }
+    }
+
+    public static void writeString(JsonGenerator generator, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    public static void writeChar(JsonGenerator generator, Character value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(String.valueOf(value.charValue()));
+        }
+    }
+
+    public static void writeEnum(JsonGenerator generator, Enum<?> value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.name());
+        }
+    }
+
+    public static void writeBoolean(JsonGenerator generator, Boolean value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeBoolean(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator generator, Integer value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator generator, Double value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator generator, Float value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator generator, Short value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    public static void writeNumber(JsonGenerator generator, Byte value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.intValue());
+        }
+    }
+
+    private static boolean isNull(JsonParser parser) {
+        return parser.currentToken() == JsonToken.VALUE_NULL;
+    }
+
+    private static JsonParser scalar(JsonParser parser) throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == null || !token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a scalar value but got " + token);
+        }
+        return parser;
+    }
+}
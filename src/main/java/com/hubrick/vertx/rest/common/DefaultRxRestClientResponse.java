@@ -67,4 +67,9 @@ public class DefaultRxRestClientResponse<T> implements RestClientResponse<T> {
     public T getBody() {
         return decorated.getBody();
     }
+
+    @Override
+    public T getBody(T into) {
+        return decorated.getBody(into);
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.NoSuchElementException;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Base for decoders which can delimit an element by scanning the bytes. The chunks are collected in a composite
+ * buffer without copying, subclasses scan it from {@link #scanIndex} and report complete elements through
+ * {@link #elementFound(int, int)}. Consumed chunks are released as soon as the scan passed them.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public abstract class AbstractChunkDecoder<T> implements ChunkDecoder<T> {
+
+    private static final int MAX_COMPONENTS = 64;
+
+    protected final CompositeByteBuf buffer = Unpooled.compositeBuffer(MAX_COMPONENTS);
+    protected int scanIndex = 0;
+
+    private boolean ended = false;
+    private int elementStart = -1;
+    private int elementEnd = -1;
+
+    @Override
+    public void write(ByteBuf chunk) {
+        checkState(!ended, "Decoder already ended");
+        buffer.addComponent(true, chunk);
+    }
+
+    @Override
+    public void end() {
+        ended = true;
+    }
+
+    @Override
+    public boolean hasNext() throws HttpMessageConverterException {
+        return elementStart != -1 || scan(ended);
+    }
+
+    @Override
+    public T next() throws HttpMessageConverterException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            return decode(buffer.slice(elementStart, elementEnd - elementStart));
+        } finally {
+            elementStart = -1;
+            elementEnd = -1;
+            buffer.readerIndex(scanIndex);
+            buffer.discardReadComponents();
+            scanIndex = buffer.readerIndex();
+        }
+    }
+
+    /**
+     * Scans the buffer from {@link #scanIndex} for the next complete element. Everything before the scan index
+     * is dropped once the found element has been decoded.
+     *
+     * @param endOfInput true if no more chunks will arrive
+     * @return true if an element has been found
+     * @throws HttpMessageConverterException if the body is malformed
+     */
+    protected abstract boolean scan(boolean endOfInput) throws HttpMessageConverterException;
+
+    /**
+     * Decodes a single element.
+     *
+     * @param element The bytes of the element, only valid for the duration of the call
+     */
+    protected abstract T decode(ByteBuf element) throws HttpMessageConverterException;
+
+    /**
+     * Marks the bytes from start (inclusive) to end (exclusive) as the next element.
+     */
+    protected final void elementFound(int start, int end) {
+        this.elementStart = start;
+        this.elementEnd = end;
+    }
+}
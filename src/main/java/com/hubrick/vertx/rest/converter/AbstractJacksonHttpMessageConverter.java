@@ -0,0 +1,300 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Base class for converters which bind through Jackson. The data format is defined by the {@link JsonFactory}, the
+ * databinding configuration (modules, features, naming strategies, ...) is taken from the passed {@link ObjectMapper}
+ * so that all formats bind the same way.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public abstract class AbstractJacksonHttpMessageConverter<T> extends AbstractHttpMessageConverter<T> implements UpdatingHttpMessageConverter {
+
+    private static final Class<?>[] PRIMITIVE_ARRAY_TYPES = {
+            boolean[].class, byte[].class, short[].class, char[].class, int[].class, long[].class, float[].class, double[].class
+    };
+
+    private final ObjectMapper configuredObjectMapper;
+    private volatile ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final String formatName;
+    private final PayloadSizeEstimator payloadSizeEstimator = new PayloadSizeEstimator();
+    private final ConcurrentMap<Class<?>, ObjectReader> objectReaders = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> objectWriters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, JsonProjection> projections = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectReader> updatingReaders = new ConcurrentHashMap<>();
+    private volatile ObjectMapper updatingObjectMapper;
+
+    /**
+     * @param objectMapper        The mapper which provides the databinding configuration
+     * @param jsonFactory         The factory of the data format. If null the factory of the mapper is used.
+     * @param modules             Modules to register on a copy of the mapper. The passed mapper itself stays untouched.
+     * @param supportedMediaTypes The media types of the data format
+     */
+    protected AbstractJacksonHttpMessageConverter(ObjectMapper objectMapper, JsonFactory jsonFactory, Module[] modules, MediaType... supportedMediaTypes) {
+        super(supportedMediaTypes);
+        checkNotNull(objectMapper, "objectMapper must not be null");
+        checkNotNull(modules, "modules must not be null");
+
+        this.configuredObjectMapper = modules.length > 0 ? objectMapper.copy().registerModules(modules) : objectMapper;
+        this.objectMapper = configuredObjectMapper;
+        this.jsonFactory = jsonFactory != null ? jsonFactory : this.objectMapper.getFactory();
+        this.formatName = this.jsonFactory.getFormatName().toLowerCase();
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        JavaType javaType = getJavaType(clazz, null);
+        AtomicReference<Throwable> causeRef = new AtomicReference<>();
+        if (this.objectMapper.canDeserialize(javaType, causeRef) && canRead(mediaType)) {
+            return true;
+        }
+        Throwable cause = causeRef.get();
+        if (cause != null) {
+            log.warn("Failed to evaluate deserialization for type {}", javaType, cause);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        AtomicReference<Throwable> causeRef = new AtomicReference<Throwable>();
+        if (this.objectMapper.canSerialize(clazz, causeRef) && canWrite(mediaType)) {
+            return true;
+        }
+        Throwable cause = causeRef.get();
+        if (cause != null) {
+            log.warn("Failed to evaluate serialization for type [{}]", clazz, cause);
+        }
+        return false;
+    }
+
+    protected JavaType getJavaType(Type type, Class<?> contextClass) {
+        return this.objectMapper.getTypeFactory().constructType(type);
+    }
+
+    protected ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Decode string values through the given pool, so that repeated values share one instance. Meant for responses
+     * which are cached or decoded into long lived objects. The pool reports its hit rate and the heap it saved.
+     * Configure before the converter is used.
+     *
+     * @param stringPool The pool, may be shared by the converters of a client. {@code null} disables pooling.
+     * @since 3.2.0
+     */
+    public void setStringPool(StringPool stringPool) {
+        this.objectMapper = stringPool == null
+                ? configuredObjectMapper
+                : configuredObjectMapper.copy().registerModule(new SimpleModule().addDeserializer(String.class, new PooledStringDeserializer(stringPool)));
+        objectReaders.clear();
+        objectWriters.clear();
+        updatingReaders.clear();
+        updatingObjectMapper = null;
+    }
+
+    /**
+     * Decode only the values selected by the projection when reading the given class. The rest of the document is
+     * skipped without being bound and reading stops once all selected values have been found.
+     *
+     * @param clazz      The response class
+     * @param projection The values to decode, which are bound to the class afterwards
+     * @since 3.2.0
+     */
+    public void setProjection(Class<?> clazz, JsonProjection projection) {
+        checkNotNull(clazz, "clazz must not be null");
+        checkNotNull(projection, "projection must not be null");
+        projections.put(clazz, projection);
+    }
+
+    /**
+     * Decode only the properties of the given class when reading it. Values of the properties are decoded in full,
+     * everything else in the document is skipped and reading stops once all properties have been found.
+     *
+     * @param clazz The response class which declares the properties to decode
+     * @since 3.2.0
+     */
+    public void setProjection(Class<?> clazz) {
+        checkNotNull(clazz, "clazz must not be null");
+        final BeanDescription beanDescription = objectMapper.getDeserializationConfig().introspect(getJavaType(clazz, null));
+        final List<String> pointers = new ArrayList<>();
+        for (BeanPropertyDefinition property : beanDescription.findProperties()) {
+            if (property.couldDeserialize()) {
+                pointers.add("/" + property.getName().replace("~", "~0").replace("/", "~1"));
+            }
+        }
+        checkArgument(!pointers.isEmpty(), "%s has no deserializable properties", clazz.getName());
+        setProjection(clazz, JsonProjection.of(pointers));
+    }
+
+    protected JsonProjection getProjection(Class<?> clazz) {
+        return projections.isEmpty() ? null : projections.get(clazz);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // should not be called, since we override canRead/Write instead
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected T readInternal(Class<? extends T> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        // Parse the network buffers in place instead of copying the whole body into a byte array first
+        final ByteBuf body = httpInputMessage.getBody();
+        final JsonProjection projection = getProjection(clazz);
+        try {
+            if (projection != null) {
+                return readProjected(clazz, projection, body);
+            }
+            if (body.hasArray()) {
+                return getObjectReader(clazz).readValue(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes());
+            }
+            try (InputStream inputStream = new ByteBufInputStream(body)) {
+                return getObjectReader(clazz).readValue(inputStream);
+            }
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from " + formatName + ".", e);
+        }
+    }
+
+    private T readProjected(Class<? extends T> clazz, JsonProjection projection, ByteBuf body) throws IOException {
+        return getObjectReader(clazz).readValue(project(projection, body));
+    }
+
+    private JsonNode project(JsonProjection projection, ByteBuf body) throws IOException {
+        try (JsonParser parser = body.hasArray()
+                ? jsonFactory.createParser(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes())
+                : jsonFactory.createParser((InputStream) new ByteBufInputStream(body))) {
+            parser.setCodec(objectMapper);
+            return projection.project(parser);
+        }
+    }
+
+    @Override
+    public boolean canUpdate(Class<?> clazz, MediaType mediaType) {
+        return canRead(clazz, mediaType);
+    }
+
+    /**
+     * Binds the body into the target like {@link ObjectMapper#readerForUpdating(Object)} with merging enabled for all
+     * properties: nested objects are updated in place, collections and maps are cleared and refilled, arrays and
+     * values of other types are replaced. A root array is returned as a new instance.
+     */
+    @Override
+    public <V> V update(Class<V> clazz, V target, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        checkNotNull(target, "target must not be null");
+        final ByteBuf body = httpInputMessage.getBody();
+        // Arrays can't be resized in place, they are always read anew
+        final ObjectReader objectReader = clazz.isArray() ? getObjectReader(clazz) : getUpdatingObjectReader(clazz).withValueToUpdate(target);
+        final JsonProjection projection = getProjection(clazz);
+        try {
+            if (projection != null) {
+                return objectReader.readValue(project(projection, body));
+            }
+            if (body.hasArray()) {
+                return objectReader.readValue(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes());
+            }
+            try (InputStream inputStream = new ByteBufInputStream(body)) {
+                return objectReader.readValue(inputStream);
+            }
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from " + formatName + ".", e);
+        }
+    }
+
+    private ObjectReader getUpdatingObjectReader(Class<?> clazz) {
+        return updatingReaders.computeIfAbsent(clazz, key -> getUpdatingObjectMapper().readerFor(key).with(jsonFactory));
+    }
+
+    private ObjectMapper getUpdatingObjectMapper() {
+        // Merging changes how properties are bound, so it gets its own copy of the mapper. Racing threads create equal copies.
+        ObjectMapper result = updatingObjectMapper;
+        if (result == null) {
+            result = objectMapper.copy();
+            result.setDefaultMergeable(true);
+            result.registerModule(new SimpleModule().setDeserializerModifier(new ReplacingMergeModifier()));
+            // Primitive array deserializers bypass the modifier
+            for (Class<?> primitiveArrayType : PRIMITIVE_ARRAY_TYPES) {
+                result.configOverride(primitiveArrayType).setMergeable(false);
+            }
+            updatingObjectMapper = result;
+        }
+        return result;
+    }
+
+    @Override
+    protected void writeInternal(T object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        // Serialize straight into a pooled buffer. It's released by netty once the request has been flushed.
+        final ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.buffer(payloadSizeEstimator.estimate(object.getClass()));
+        try {
+            getObjectWriter(object.getClass()).writeValue((OutputStream) new ByteBufOutputStream(byteBuf), object);
+            payloadSizeEstimator.record(object.getClass(), byteBuf.readableBytes());
+            httpOutputMessage.write(byteBuf);
+        } catch (Exception e) {
+            byteBuf.release();
+            throw new HttpMessageConverterException("Error converting to " + formatName + ".", e);
+        }
+    }
+
+    /**
+     * Readers and writers are immutable and bound to their root type, so resolving them once per class skips
+     * the root type and config lookups of the mapper on every call.
+     */
+    protected ObjectReader getObjectReader(Class<?> clazz) {
+        return objectReaders.computeIfAbsent(clazz, key -> objectMapper.readerFor(key).with(jsonFactory));
+    }
+
+    protected ObjectWriter getObjectWriter(Class<?> clazz) {
+        return objectWriters.computeIfAbsent(clazz, key -> objectMapper.writerFor(key).with(jsonFactory));
+    }
+}
@@ -19,6 +19,8 @@ import com.hubrick.vertx.rest.HttpInputMessage;
 import com.hubrick.vertx.rest.HttpOutputMessage;
 import com.hubrick.vertx.rest.MediaType;
 import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 
 /**
@@ -41,9 +43,9 @@ public class ByteArrayHttpMessageConverter extends AbstractHttpMessageConverter<
     @Override
     protected byte[] readInternal(Class<? extends byte[]> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
         try {
-            byte[] bytes = new byte[httpInputMessage.getBody().readableBytes()];
-            httpInputMessage.getBody().readBytes(bytes);
-            return bytes;
+            // Hands out the backing array itself if it holds exactly the body and nobody else references the buffer
+            final ByteBuf body = httpInputMessage.getBody();
+            return ByteBufUtil.getBytes(body, body.readerIndex(), body.readableBytes(), body.refCnt() > 1 || body.isReadOnly());
         } catch (Exception e) {
             throw new HttpMessageConverterException("Read of http body failed", e);
         }
@@ -51,7 +51,8 @@ public class ByteBufHttpMessageConverter extends AbstractHttpMessageConverter<By
     @Override
     protected void writeInternal(ByteBuf object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
         try {
-            httpOutputMessage.write(Unpooled.unmodifiableBuffer(object));
+            // The buffer stays owned by the caller, sending the request must not release it
+            httpOutputMessage.write(Unpooled.unreleasableBuffer(Unpooled.unmodifiableBuffer(object)));
         } catch (Exception e) {
             throw new HttpMessageConverterException("Writing of http body failed", e);
         }
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Pull based decoder which turns the chunks of a response body into a sequence of elements while the body
+ * is still arriving. Only the bytes of the element which is currently decoded are buffered.
+ * <p>
+ * Implementations are not thread safe.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface ChunkDecoder<T> {
+
+    /**
+     * Appends a chunk of the body. The decoder takes over the ownership of the chunk and releases it once it has been consumed.
+     *
+     * @param chunk The next chunk of the body
+     */
+    void write(ByteBuf chunk);
+
+    /**
+     * Signals that no more chunks will be written. Elements which are still buffered can be pulled afterwards.
+     */
+    void end();
+
+    /**
+     * @return true if a complete element is buffered
+     * @throws HttpMessageConverterException if the body is malformed or ended in the middle of an element
+     */
+    boolean hasNext() throws HttpMessageConverterException;
+
+    /**
+     * @return The next element
+     * @throws HttpMessageConverterException if the element can't be decoded
+     * @throws java.util.NoSuchElementException if no complete element is buffered
+     */
+    T next() throws HttpMessageConverterException;
+}
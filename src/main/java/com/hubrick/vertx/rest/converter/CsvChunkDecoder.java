@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ByteProcessor;
+
+import java.nio.charset.Charset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Decodes the rows of a CSV (RFC 4180) or TSV body. Rows end with {@code \n} or {@code \r\n}, a newline inside
+ * a quoted field doesn't end the row. Empty lines are skipped, the last row doesn't need a trailing newline.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class CsvChunkDecoder extends AbstractChunkDecoder<CsvRow> {
+
+    private final byte delimiter;
+    private final boolean quoting;
+    private final Charset charset;
+    private final CsvRow reusableRow;
+    private final ByteProcessor rowEndProcessor;
+    private boolean inQuotes = false;
+    private int scanProgress = -1;
+
+    /**
+     * @param delimiter The field delimiter, e.g. {@code ,} or {@code \t}
+     * @param quoting   true if fields can be quoted with {@code "}
+     * @param charset   The charset of the body
+     * @param reuseRows true to hand out the same row instance for every row. Only safe if every row is consumed
+     *                  before the next one is pulled.
+     */
+    public CsvChunkDecoder(char delimiter, boolean quoting, Charset charset, boolean reuseRows) {
+        checkNotNull(charset, "charset must not be null");
+
+        this.delimiter = (byte) delimiter;
+        this.quoting = quoting;
+        this.charset = charset;
+        this.reusableRow = reuseRows ? new CsvRow(charset) : null;
+        this.rowEndProcessor = quoting ? value -> {
+            if (value == '"') {
+                inQuotes = !inQuotes;
+            }
+            return value != '\n' || inQuotes;
+        } : ByteProcessor.FIND_LF;
+    }
+
+    @Override
+    protected boolean scan(boolean endOfInput) throws HttpMessageConverterException {
+        while (true) {
+            final int rowStart = scanIndex;
+            final int from = Math.max(scanProgress, rowStart);
+            final int newLineIndex = from < buffer.writerIndex() ? buffer.forEachByte(from, buffer.writerIndex() - from, rowEndProcessor) : -1;
+            int rowEnd;
+            if (newLineIndex != -1) {
+                rowEnd = newLineIndex;
+                scanIndex = newLineIndex + 1;
+            } else if (endOfInput && rowStart < buffer.writerIndex()) {
+                if (inQuotes) {
+                    throw new HttpMessageConverterException("Body ended inside of a quoted field");
+                }
+                rowEnd = buffer.writerIndex();
+                scanIndex = rowEnd;
+            } else {
+                // Remember how far the incomplete row has been scanned, the quote state is kept as well
+                scanProgress = buffer.writerIndex();
+                return false;
+            }
+            scanProgress = -1;
+
+            if (rowEnd > rowStart && buffer.getByte(rowEnd - 1) == '\r') {
+                rowEnd--;
+            }
+            if (rowEnd > rowStart) {
+                elementFound(rowStart, rowEnd);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    protected CsvRow decode(ByteBuf element) throws HttpMessageConverterException {
+        final CsvRow row = reusableRow != null ? reusableRow : new CsvRow(charset);
+        row.parse(element, delimiter, quoting);
+        return row;
+    }
+}
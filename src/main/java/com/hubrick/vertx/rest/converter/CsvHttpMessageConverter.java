@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.http.HttpHeaders;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads CSV ({@code text/csv}) and TSV ({@code text/tab-separated-values}) bodies into {@link CsvRow}s. Meant for
+ * streaming with {@link CsvRow} as element class, whole bodies can be read as {@code CsvRow[]}. Writing isn't supported.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class CsvHttpMessageConverter extends AbstractHttpMessageConverter<CsvRow[]> implements StreamingHttpMessageConverter {
+
+    private boolean reuseRows = false;
+
+    public CsvHttpMessageConverter() {
+        super(MediaType.TEXT_CSV, MediaType.TEXT_TAB_SEPARATED_VALUES);
+    }
+
+    /**
+     * Hand out the same {@link CsvRow} instance for all rows of a streamed response instead of one per row.
+     * Only safe if every row is consumed in the handler it's delivered to, e.g. not with Rx operators which queue elements.
+     * <p>
+     * Default is {@code false}.
+     */
+    public void setReuseRows(boolean reuseRows) {
+        this.reuseRows = reuseRows;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CsvRow[].class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canStream(Class<?> elementClass, MediaType mediaType) {
+        return CsvRow.class == elementClass && mediaType != null && canRead(mediaType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ChunkDecoder<T> createChunkDecoder(Class<T> elementClass, MediaType mediaType) {
+        return (ChunkDecoder<T>) createCsvChunkDecoder(mediaType, reuseRows);
+    }
+
+    @Override
+    protected CsvRow[] readInternal(Class<? extends CsvRow[]> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        final String contentType = httpInputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE);
+        final ChunkDecoder<CsvRow> chunkDecoder = createCsvChunkDecoder(contentType != null ? MediaType.parseMediaType(contentType) : null, false);
+        final ByteBuf body = httpInputMessage.getBody();
+        // The body stays owned by the response
+        chunkDecoder.write(Unpooled.unreleasableBuffer(body.slice()));
+        chunkDecoder.end();
+
+        final List<CsvRow> rows = new ArrayList<>();
+        while (chunkDecoder.hasNext()) {
+            rows.add(chunkDecoder.next());
+        }
+        return rows.toArray(new CsvRow[rows.size()]);
+    }
+
+    @Override
+    protected void writeInternal(CsvRow[] object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        throw new HttpMessageConverterException("Writing CSV is not supported");
+    }
+
+    private CsvChunkDecoder createCsvChunkDecoder(MediaType mediaType, boolean reuseRows) {
+        final Charset charset = mediaType != null && mediaType.getCharSet() != null ? mediaType.getCharSet() : Charsets.UTF_8;
+        if (mediaType != null && MediaType.TEXT_TAB_SEPARATED_VALUES.includes(mediaType)) {
+            return new CsvChunkDecoder('\t', false, charset, reuseRows);
+        } else {
+            return new CsvChunkDecoder(',', true, charset, reuseRows);
+        }
+    }
+}
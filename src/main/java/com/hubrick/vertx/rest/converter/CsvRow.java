@@ -0,0 +1,222 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Joiner;
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A single row of a CSV or TSV body. The fields are views into the raw bytes of the row: quotes are removed once
+ * while the row is split, typed getters parse the bytes directly and only {@link #getString(int)} creates a String.
+ * <p>
+ * Rows handed out by a decoder which reuses rows are only valid until the next row is pulled, use {@link #copy()}
+ * to keep one.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class CsvRow {
+
+    private static final int DEFAULT_ROW_CAPACITY = 256;
+    private static final int DEFAULT_FIELD_CAPACITY = 16;
+
+    private final Charset charset;
+    private byte[] bytes;
+    private int[] fieldStarts;
+    private int[] fieldEnds;
+    private int size;
+
+    CsvRow(Charset charset) {
+        this(charset, new byte[DEFAULT_ROW_CAPACITY], new int[DEFAULT_FIELD_CAPACITY], new int[DEFAULT_FIELD_CAPACITY], 0);
+    }
+
+    private CsvRow(Charset charset, byte[] bytes, int[] fieldStarts, int[] fieldEnds, int size) {
+        checkNotNull(charset, "charset must not be null");
+
+        this.charset = charset;
+        this.bytes = bytes;
+        this.fieldStarts = fieldStarts;
+        this.fieldEnds = fieldEnds;
+        this.size = size;
+    }
+
+    /**
+     * Copies the row and splits it into fields. Quoted fields are unescaped in place, which never needs more
+     * space than the raw field.
+     */
+    void parse(ByteBuf row, byte delimiter, boolean quoting) {
+        final int length = row.readableBytes();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        row.getBytes(row.readerIndex(), bytes, 0, length);
+
+        size = 0;
+        int readIndex = 0;
+        int writeIndex = 0;
+        while (true) {
+            final int fieldStart = writeIndex;
+            if (quoting && readIndex < length && bytes[readIndex] == '"') {
+                readIndex++;
+                while (readIndex < length) {
+                    final byte b = bytes[readIndex++];
+                    if (b == '"') {
+                        if (readIndex < length && bytes[readIndex] == '"') {
+                            readIndex++;
+                        } else {
+                            break;
+                        }
+                    }
+                    bytes[writeIndex++] = b;
+                }
+            }
+            while (readIndex < length && bytes[readIndex] != delimiter) {
+                bytes[writeIndex++] = bytes[readIndex++];
+            }
+            addField(fieldStart, writeIndex);
+
+            if (readIndex >= length) {
+                return;
+            }
+            readIndex++;
+        }
+    }
+
+    private void addField(int start, int end) {
+        if (size == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, size * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, size * 2);
+        }
+        fieldStarts[size] = start;
+        fieldEnds[size] = end;
+        size++;
+    }
+
+    /**
+     * @return The number of fields
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the field has no content
+     */
+    public boolean isEmpty(int index) {
+        checkElementIndex(index, size);
+        return fieldStarts[index] == fieldEnds[index];
+    }
+
+    public String getString(int index) {
+        checkElementIndex(index, size);
+        return new String(bytes, fieldStarts[index], fieldEnds[index] - fieldStarts[index], charset);
+    }
+
+    /**
+     * @throws NumberFormatException if the field isn't an int
+     */
+    public int getInt(int index) {
+        final long value = getLong(index);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range in field " + index + ": " + getString(index));
+        }
+        return (int) value;
+    }
+
+    /**
+     * @throws NumberFormatException if the field isn't a long
+     */
+    public long getLong(int index) {
+        checkElementIndex(index, size);
+        int position = fieldStarts[index];
+        final int end = fieldEnds[index];
+        final boolean negative = position < end && bytes[position] == '-';
+        if (negative || (position < end && bytes[position] == '+')) {
+            position++;
+        }
+        if (position == end) {
+            throw new NumberFormatException("Not a number in field " + index + ": " + getString(index));
+        }
+
+        // Accumulate negatively like Long.parseLong, so Long.MIN_VALUE doesn't overflow
+        long result = 0;
+        for (; position < end; position++) {
+            final int digit = bytes[position] - '0';
+            if (digit < 0 || digit > 9 || result < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException("Not a long in field " + index + ": " + getString(index));
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                throw new NumberFormatException("Not a long in field " + index + ": " + getString(index));
+            }
+            return -result;
+        }
+        return result;
+    }
+
+    /**
+     * @throws NumberFormatException if the field isn't a double
+     */
+    public double getDouble(int index) {
+        return Double.parseDouble(getString(index));
+    }
+
+    /**
+     * @return true if the field is {@code true} ignoring case
+     */
+    public boolean getBoolean(int index) {
+        checkElementIndex(index, size);
+        final int start = fieldStarts[index];
+        if (fieldEnds[index] - start != 4) {
+            return false;
+        }
+        return (bytes[start] | 0x20) == 't' && (bytes[start + 1] | 0x20) == 'r' && (bytes[start + 2] | 0x20) == 'u' && (bytes[start + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * @return A detached copy which stays valid if the decoder reuses this row
+     */
+    public CsvRow copy() {
+        final int length = size == 0 ? 0 : fieldEnds[size - 1];
+        return new CsvRow(charset, Arrays.copyOf(bytes, length), Arrays.copyOf(fieldStarts, size), Arrays.copyOf(fieldEnds, size), size);
+    }
+
+    /**
+     * @return All fields as strings
+     */
+    public List<String> toList() {
+        final List<String> fields = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            fields.add(getString(i));
+        }
+        return fields;
+    }
+
+    @Override
+    public String toString() {
+        return Joiner.on(", ").join(toList());
+    }
+}
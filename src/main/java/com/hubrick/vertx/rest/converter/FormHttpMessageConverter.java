@@ -16,8 +16,6 @@
 package com.hubrick.vertx.rest.converter;
 
 import com.google.common.base.Charsets;
-import com.google.common.base.Splitter;
-import com.google.common.collect.FluentIterable;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
@@ -32,12 +30,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URLDecoder;
-import java.net.URLEncoder;
 import java.nio.charset.Charset;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Emir Dizdarevic
@@ -49,34 +44,36 @@ public class FormHttpMessageConverter implements HttpMessageConverter<Multimap<S
 
     private static final Charset charset = Charsets.UTF_8;
     private static final List<MediaType> supportedMediaTypes = ImmutableList.of(MediaType.APPLICATION_FORM_URLENCODED);
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(Charsets.US_ASCII);
+
+    private final PayloadSizeEstimator payloadSizeEstimator = new PayloadSizeEstimator(128, 1024 * 1024);
 
     @Override
     public Multimap<String, Object> read(Class<? extends Multimap<String, Object>> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
-        byte[] bytes = new byte[httpInputMessage.getBody().readableBytes()];
-        httpInputMessage.getBody().readBytes(bytes);
-
         final MediaType mediaType = MediaType.parseMediaType(httpInputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE));
         final Charset charset = (mediaType.getCharSet() != null ? mediaType.getCharSet() : this.charset);
-        final String body = new String(bytes, charset);
-
-        try {
-            String[] pairs = FluentIterable.from(Splitter.on("&").split(body)).toArray(String.class);
-            Multimap<String, Object> result = HashMultimap.create();
-            for (String pair : pairs) {
-                int idx = pair.indexOf('=');
+        final ByteBuf body = httpInputMessage.getBody();
+
+        // Names and values are decoded straight from the body, only the decoded strings are allocated
+        final Multimap<String, Object> result = HashMultimap.create();
+        int pairStart = body.readerIndex();
+        while (pairStart <= body.writerIndex()) {
+            int pairEnd = body.indexOf(pairStart, body.writerIndex(), (byte) '&');
+            if (pairEnd == -1) {
+                pairEnd = body.writerIndex();
+            }
+            if (pairEnd > pairStart) {
+                final int idx = body.indexOf(pairStart, pairEnd, (byte) '=');
                 if (idx == -1) {
-                    result.put(URLDecoder.decode(pair, charset.name()), null);
+                    result.put(decode(body, pairStart, pairEnd, charset), null);
                 } else {
-                    String name = URLDecoder.decode(pair.substring(0, idx), charset.name());
-                    String value = URLDecoder.decode(pair.substring(idx + 1), charset.name());
-                    result.put(name, value);
+                    result.put(decode(body, pairStart, idx, charset), decode(body, idx + 1, pairEnd, charset));
                 }
             }
-
-            return result;
-        } catch (UnsupportedEncodingException e) {
-            throw new HttpMessageConverterException(e);
+            pairStart = pairEnd + 1;
         }
+
+        return result;
     }
 
     @Override
@@ -136,26 +133,93 @@ public class FormHttpMessageConverter implements HttpMessageConverter<Multimap<S
             charset = this.charset;
         }
 
-        final ByteBuf bodyByteBuf = Unpooled.buffer(128);
-        for (Iterator<String> nameIterator = form.keySet().iterator(); nameIterator.hasNext(); ) {
-            String name = nameIterator.next();
-            for (Iterator<Object> valueIterator = form.get(name).iterator(); valueIterator.hasNext(); ) {
-                Object value = valueIterator.next();
-                bodyByteBuf.writeBytes(URLEncoder.encode(name, charset.name()).getBytes());
-                if (value != null) {
-                    bodyByteBuf.writeBytes("=".getBytes(charset));
-                    bodyByteBuf.writeBytes(URLEncoder.encode(String.valueOf(value), charset.name()).getBytes());
-                    if (valueIterator.hasNext()) {
-                        bodyByteBuf.writeBytes("&".getBytes(charset));
-                    }
-                }
+        // Sized after the forms written so far, so that most forms fit without growing the buffer
+        final ByteBuf bodyByteBuf = Unpooled.buffer(payloadSizeEstimator.estimate(form.getClass()));
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : form.entries()) {
+            if (!first) {
+                bodyByteBuf.writeByte('&');
             }
-            if (nameIterator.hasNext()) {
-                bodyByteBuf.writeBytes("&".getBytes(charset));
+            first = false;
+            encode(entry.getKey(), charset, bodyByteBuf);
+            if (entry.getValue() != null) {
+                bodyByteBuf.writeByte('=');
+                encode(String.valueOf(entry.getValue()), charset, bodyByteBuf);
             }
         }
 
+        payloadSizeEstimator.record(form.getClass(), bodyByteBuf.readableBytes());
         httpOutputMessage.getHeaders().set(HttpHeaders.CONTENT_LENGTH, String.valueOf(bodyByteBuf.readableBytes()));
         httpOutputMessage.write(Unpooled.unmodifiableBuffer(bodyByteBuf));
     }
+
+    /**
+     * Percent-encodes like {@link java.net.URLEncoder} but writes straight into the buffer. Only runs of non ASCII
+     * characters have to be encoded with the charset first.
+     */
+    private static void encode(String value, Charset charset, ByteBuf byteBuf) {
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (isUnreserved(c)) {
+                byteBuf.writeByte(c);
+            } else if (c == ' ') {
+                byteBuf.writeByte('+');
+            } else if (c < 0x80) {
+                writePercentEncoded(byteBuf, (byte) c);
+            } else {
+                int end = i + 1;
+                while (end < length && value.charAt(end) >= 0x80) {
+                    end++;
+                }
+                for (byte b : value.substring(i, end).getBytes(charset)) {
+                    writePercentEncoded(byteBuf, b);
+                }
+                i = end - 1;
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '-' || c == '*' || c == '_';
+    }
+
+    private static void writePercentEncoded(ByteBuf byteBuf, byte b) {
+        byteBuf.writeByte('%');
+        byteBuf.writeByte(HEX_DIGITS[(b >> 4) & 0xF]);
+        byteBuf.writeByte(HEX_DIGITS[b & 0xF]);
+    }
+
+    /**
+     * Decodes like {@link java.net.URLDecoder}. Values without escapes are decoded from the body directly.
+     */
+    private static String decode(ByteBuf body, int start, int end, Charset charset) {
+        if (body.indexOf(start, end, (byte) '%') == -1 && body.indexOf(start, end, (byte) '+') == -1) {
+            return body.toString(start, end - start, charset);
+        }
+
+        final byte[] bytes = new byte[end - start];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            final byte b = body.getByte(i);
+            if (b == '+') {
+                bytes[length++] = ' ';
+            } else if (b == '%') {
+                if (i + 2 >= end) {
+                    throw new HttpMessageConverterException("Incomplete trailing escape pattern in form data");
+                }
+                final int high = Character.digit(body.getByte(i + 1), 16);
+                final int low = Character.digit(body.getByte(i + 2), 16);
+                if (high == -1 || low == -1) {
+                    throw new HttpMessageConverterException("Illegal hex characters in escape pattern in form data");
+                }
+                bytes[length++] = (byte) ((high << 4) + low);
+                i += 2;
+            } else {
+                bytes[length++] = b;
+            }
+        }
+        return new String(bytes, 0, length, charset);
+    }
 }
@@ -35,4 +35,15 @@ public interface HttpMessageConverter<T> {
 
     boolean canRead(Class<?> clazz, MediaType mediaType);
     boolean canWrite(Class<?> clazz, MediaType mediaType);
+
+    /**
+     * Media types of preferred converters are ranked above the ones of all other converters in the default Accept header.
+     * Meant for compact or faster wire formats which should win whenever the server supports them.
+     *
+     * @return true if the supported media types should be preferred
+     * @since 3.2.0
+     */
+    default boolean isPreferredForAccept() {
+        return false;
+    }
 }
@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Push based decoder which parses the chunks of a response body into a single object while the body is still arriving,
+ * so that parsing overlaps with the network transfer instead of starting after the last byte.
+ * <p>
+ * Implementations are not thread safe.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface IncrementalDecoder<T> {
+
+    /**
+     * Parses a chunk of the body. The chunk is only read, the caller keeps its ownership.
+     *
+     * @param chunk The next chunk of the body
+     */
+    void write(ByteBuf chunk);
+
+    /**
+     * Signals that no more chunks will be written and builds the object.
+     *
+     * @return The decoded object
+     * @throws HttpMessageConverterException if the body is malformed or incomplete
+     */
+    T end() throws HttpMessageConverterException;
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.MediaType;
+
+import javax.annotation.Nullable;
+
+/**
+ * A converter which can decode a response body incrementally while it is still arriving.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface IncrementalHttpMessageConverter {
+
+    /**
+     * @param clazz     The class of the response body
+     * @param mediaType The content type of the response
+     * @return true if the body should be decoded incrementally
+     */
+    boolean canReadIncrementally(Class<?> clazz, @Nullable MediaType mediaType);
+
+    /**
+     * @param clazz     The class of the response body
+     * @param mediaType The content type of the response
+     * @return A new decoder for a single response
+     */
+    <T> IncrementalDecoder<T> createIncrementalDecoder(Class<T> clazz, @Nullable MediaType mediaType);
+}
@@ -15,128 +15,71 @@
  */
 package com.hubrick.vertx.rest.converter;
 
-import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Charsets;
-import com.hubrick.vertx.rest.HttpInputMessage;
-import com.hubrick.vertx.rest.HttpOutputMessage;
 import com.hubrick.vertx.rest.MediaType;
-import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
-import io.netty.buffer.Unpooled;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.IOException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Type;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
-
-import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * @author Emir Dizdarevic
  * @since 1.0.0
  */
-public class JacksonJsonHttpMessageConverter<T extends Object> extends AbstractHttpMessageConverter<T> {
-
-    private static final Logger log = LoggerFactory.getLogger(JacksonJsonHttpMessageConverter.class);
-    private final ObjectMapper objectMapper;
+public class JacksonJsonHttpMessageConverter<T extends Object> extends AbstractJacksonHttpMessageConverter<T> implements StreamingHttpMessageConverter, IncrementalHttpMessageConverter {
 
-    // Check for Jackson 2.3's overloaded canDeserialize/canSerialize variants with cause reference
-    private static final boolean jackson23Available = getMethodIfAvailable(ObjectMapper.class, "canDeserialize", JavaType.class, AtomicReference.class) != null;
+    private boolean incrementalParsing = false;
 
     public JacksonJsonHttpMessageConverter(ObjectMapper objectMapper) {
-        super(new MediaType("application", "json", Charsets.UTF_8), new MediaType("application", "*+json", Charsets.UTF_8));
-        this.objectMapper = objectMapper;
+        this(objectMapper, new Module[0]);
     }
 
-    private static Method getMethodIfAvailable(Class<?> clazz, String methodName, Class<?>... paramTypes) {
-        checkNotNull(clazz, "Class must not be null");
-        checkNotNull(methodName, "Method name must not be null");
-        if (paramTypes != null) {
-            try {
-                return clazz.getMethod(methodName, paramTypes);
-            } catch (NoSuchMethodException ex) {
-                return null;
-            }
-        } else {
-            Set<Method> candidates = new HashSet<>(1);
-            Method[] methods = clazz.getMethods();
-            for (Method method : methods) {
-                if (methodName.equals(method.getName())) {
-                    candidates.add(method);
-                }
-            }
-            if (candidates.size() == 1) {
-                return candidates.iterator().next();
-            }
-            return null;
-        }
+    /**
+     * @param objectMapper The mapper used for (de)serialization
+     * @param modules      Modules to register on a copy of the mapper, e.g. Afterburner to replace reflection with generated bytecode.
+     *                     The passed mapper itself stays untouched.
+     * @since 3.2.0
+     */
+    public JacksonJsonHttpMessageConverter(ObjectMapper objectMapper, Module... modules) {
+        super(objectMapper, null, modules, new MediaType("application", "json", Charsets.UTF_8), new MediaType("application", "*+json", Charsets.UTF_8));
     }
 
-    @Override
-    public boolean canRead(Class<?> clazz, MediaType mediaType) {
-        JavaType javaType = getJavaType(clazz, null);
-        if (!jackson23Available) {
-            return (this.objectMapper.canDeserialize(javaType) && canRead(mediaType));
-        }
-        AtomicReference<Throwable> causeRef = new AtomicReference<>();
-        if (this.objectMapper.canDeserialize(javaType, causeRef) && canRead(mediaType)) {
-            return true;
-        }
-        Throwable cause = causeRef.get();
-        if (cause != null) {
-            log.warn("Failed to evaluate deserialization for type {}", javaType, cause);
-        }
-        return false;
+    /**
+     * Parse response bodies with a non-blocking parser while the chunks are still arriving instead of in one go after
+     * the last chunk. Pays off for large bodies which arrive in many chunks.
+     * <p>
+     * Default is {@code false}.
+     *
+     * @since 3.2.0
+     */
+    public void setIncrementalParsing(boolean incrementalParsing) {
+        this.incrementalParsing = incrementalParsing;
     }
 
+    /**
+     * Elements of top level JSON arrays and newline delimited JSON ({@code application/x-ndjson}) can be streamed.
+     */
     @Override
-    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
-        if (!jackson23Available) {
-            return (this.objectMapper.canSerialize(clazz) && canWrite(mediaType));
-        }
-        AtomicReference<Throwable> causeRef = new AtomicReference<Throwable>();
-        if (this.objectMapper.canSerialize(clazz, causeRef) && canWrite(mediaType)) {
-            return true;
-        }
-        Throwable cause = causeRef.get();
-        if (cause != null) {
-            log.warn("Failed to evaluate serialization for type [{}]", clazz, cause);
-        }
-        return false;
-    }
-
-    protected JavaType getJavaType(Type type, Class<?> contextClass) {
-        return this.objectMapper.getTypeFactory().constructType(type, contextClass);
+    public boolean canStream(Class<?> elementClass, MediaType mediaType) {
+        return (mediaType == null || MediaType.APPLICATION_NDJSON.includes(mediaType) || canRead(mediaType))
+                && getObjectMapper().canDeserialize(getJavaType(elementClass, null));
     }
 
     @Override
-    protected boolean supports(Class<?> clazz) {
-        // should not be called, since we override canRead/Write instead
-        throw new UnsupportedOperationException();
+    public <E> ChunkDecoder<E> createChunkDecoder(Class<E> elementClass, MediaType mediaType) {
+        if (mediaType != null && MediaType.APPLICATION_NDJSON.includes(mediaType)) {
+            return new JsonLinesChunkDecoder<>(getObjectReader(elementClass));
+        } else {
+            return new JsonArrayChunkDecoder<>(getObjectReader(elementClass));
+        }
     }
 
     @Override
-    protected T readInternal(Class<? extends T> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
-        try {
-            byte[] bytes = new byte[httpInputMessage.getBody().readableBytes()];
-            httpInputMessage.getBody().readBytes(bytes);
-            return objectMapper.readValue(bytes, clazz);
-        } catch (IOException e) {
-            throw new HttpMessageConverterException("Error converting from json.", e);
-        }
+    public boolean canReadIncrementally(Class<?> clazz, MediaType mediaType) {
+        // Projections stop reading early, tokenizing every chunk on arrival would defeat that
+        return incrementalParsing && getProjection(clazz) == null && canRead(clazz, mediaType);
     }
 
     @Override
-    protected void writeInternal(T object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
-        try {
-            httpOutputMessage.write(Unpooled.unmodifiableBuffer(Unpooled.wrappedBuffer(objectMapper.writeValueAsBytes(object))));
-        } catch (Exception e) {
-            throw new HttpMessageConverterException("Error converting to json.", e);
-        }
-
+    public <E> IncrementalDecoder<E> createIncrementalDecoder(Class<E> clazz, MediaType mediaType) {
+        return new JsonIncrementalDecoder<>(getObjectReader(clazz));
     }
 }
@@ -0,0 +1,50 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.hubrick.vertx.rest.MediaType;
+
+/**
+ * Reads and writes Smile, Jackson's binary JSON format. Binds with the configuration of the passed {@link ObjectMapper}, so the same mapper as for
+ * the {@link JacksonJsonHttpMessageConverter} can be used. Requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile}.
+ * <p>
+ * The media type is preferred over JSON in the default Accept header.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JacksonSmileHttpMessageConverter<T extends Object> extends AbstractJacksonHttpMessageConverter<T> {
+
+    public JacksonSmileHttpMessageConverter(ObjectMapper objectMapper) {
+        this(objectMapper, new Module[0]);
+    }
+
+    /**
+     * @param objectMapper The mapper which provides the databinding configuration
+     * @param modules      Modules to register on a copy of the mapper. The passed mapper itself stays untouched.
+     */
+    public JacksonSmileHttpMessageConverter(ObjectMapper objectMapper, Module... modules) {
+        super(objectMapper, new SmileFactory(), modules, MediaType.APPLICATION_SMILE);
+    }
+
+    @Override
+    public boolean isPreferredForAccept() {
+        return true;
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes the elements of a top level JSON array one by one. The element boundaries are found with a structural scan
+ * which only tracks nesting and strings, the elements themselves are bound by the given {@link ObjectReader}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JsonArrayChunkDecoder<T> extends AbstractChunkDecoder<T> {
+
+    private final ObjectReader objectReader;
+
+    private boolean arrayStarted = false;
+    private boolean arrayEnded = false;
+    private int elementStart = -1;
+    private int depth = 0;
+    private boolean inString = false;
+    private boolean escaped = false;
+
+    public JsonArrayChunkDecoder(ObjectReader objectReader) {
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    protected boolean scan(boolean endOfInput) throws HttpMessageConverterException {
+        final int writerIndex = buffer.writerIndex();
+        while (scanIndex < writerIndex) {
+            final byte b = buffer.getByte(scanIndex);
+            if (elementStart == -1) {
+                if (!isWhitespace(b)) {
+                    if (!arrayStarted) {
+                        if (b != '[') {
+                            throw new HttpMessageConverterException("Error converting from json. Expected a JSON array but found '" + (char) b + "'");
+                        }
+                        arrayStarted = true;
+                    } else if (arrayEnded) {
+                        throw new HttpMessageConverterException("Error converting from json. Unexpected content after the end of the JSON array");
+                    } else if (b == ']') {
+                        arrayEnded = true;
+                    } else if (b != ',') {
+                        elementStart = scanIndex;
+                        continue;
+                    }
+                }
+                scanIndex++;
+            } else if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    if (depth == 0) {
+                        return completeElement(scanIndex + 1);
+                    }
+                }
+                scanIndex++;
+            } else if (b == '"') {
+                inString = true;
+                scanIndex++;
+            } else if (b == '{' || b == '[') {
+                depth++;
+                scanIndex++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    // Closing bracket of the array itself terminates a scalar element
+                    return completeElement(scanIndex);
+                }
+                scanIndex++;
+                if (--depth == 0) {
+                    return completeElement(scanIndex);
+                }
+            } else if (depth == 0 && (b == ',' || isWhitespace(b))) {
+                return completeElement(scanIndex);
+            } else {
+                scanIndex++;
+            }
+        }
+
+        if (endOfInput) {
+            if (elementStart != -1 && depth == 0 && !inString) {
+                return completeElement(scanIndex);
+            }
+            if (arrayStarted && !arrayEnded) {
+                throw new HttpMessageConverterException("Error converting from json. Unexpected end of the JSON array");
+            }
+        }
+        return false;
+    }
+
+    private boolean completeElement(int end) {
+        elementFound(elementStart, end);
+        scanIndex = end;
+        elementStart = -1;
+        return true;
+    }
+
+    @Override
+    protected T decode(ByteBuf element) throws HttpMessageConverterException {
+        try (InputStream inputStream = new ByteBufInputStream(element)) {
+            return objectReader.readValue(inputStream);
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from json.", e);
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.codec.GenerateJsonCodec;
+import com.hubrick.vertx.rest.codec.JsonCodec;
+import com.hubrick.vertx.rest.codec.JsonCodecs;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads and writes JSON with the codecs generated at build time for classes annotated with {@link GenerateJsonCodec}.
+ * Classes without a generated codec aren't supported, so register this converter before the
+ * {@link JacksonJsonHttpMessageConverter}, which then handles everything else.
+ * <p>
+ * Properties the generated codecs don't handle themselves are delegated to the passed mapper.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JsonCodecHttpMessageConverter<T> extends AbstractHttpMessageConverter<T> {
+
+    private final ConcurrentMap<Class<?>, Optional<JsonCodec<?>>> codecs = new ConcurrentHashMap<>();
+    private final PayloadSizeEstimator payloadSizeEstimator = new PayloadSizeEstimator();
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    public JsonCodecHttpMessageConverter(ObjectMapper objectMapper) {
+        super(new MediaType("application", "json", Charsets.UTF_8), new MediaType("application", "*+json", Charsets.UTF_8));
+        checkNotNull(objectMapper, "objectMapper must not be null");
+
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return getCodec(clazz) != null;
+    }
+
+    @Override
+    protected T readInternal(Class<? extends T> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        final ByteBuf body = httpInputMessage.getBody();
+        try (JsonParser parser = body.hasArray()
+                ? jsonFactory.createParser(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes())
+                : jsonFactory.createParser((InputStream) new ByteBufInputStream(body))) {
+            parser.setCodec(objectMapper);
+            parser.nextToken();
+            return this.<T>getCodec(clazz).decode(parser);
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from json.", e);
+        }
+    }
+
+    @Override
+    protected void writeInternal(T object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        // Encode straight into a pooled buffer. It's released by netty once the request has been flushed.
+        final ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.buffer(payloadSizeEstimator.estimate(object.getClass()));
+        try {
+            try (JsonGenerator generator = jsonFactory.createGenerator((OutputStream) new ByteBufOutputStream(byteBuf))) {
+                generator.setCodec(objectMapper);
+                this.<T>getCodec(object.getClass()).encode(object, generator);
+            }
+            payloadSizeEstimator.record(object.getClass(), byteBuf.readableBytes());
+            httpOutputMessage.write(byteBuf);
+        } catch (Exception e) {
+            byteBuf.release();
+            throw new HttpMessageConverterException("Error converting to json.", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> JsonCodec<V> getCodec(Class<?> clazz) {
+        // Looking a codec up loads classes, so misses are cached as well
+        return (JsonCodec<V>) codecs.computeIfAbsent(clazz, key -> Optional.ofNullable(JsonCodecs.find(key))).orElse(null);
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Feeds every chunk to Jackson's non-blocking parser and records the tokens, so that only the binding of the
+ * already tokenized body is left once the last chunk arrived.
+ * <p>
+ * A failure is remembered and rethrown by {@link #end()}, the remaining chunks are skipped.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JsonIncrementalDecoder<T> implements IncrementalDecoder<T> {
+
+    private static final int SCRATCH_BUFFER_SIZE = 8192;
+
+    private final ObjectReader objectReader;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokenBuffer;
+    private byte[] scratchBuffer;
+    private IOException failure;
+    private boolean ended;
+
+    public JsonIncrementalDecoder(ObjectReader objectReader) {
+        checkNotNull(objectReader, "objectReader must not be null");
+
+        this.objectReader = objectReader;
+        try {
+            this.parser = objectReader.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error creating non-blocking json parser.", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokenBuffer = new TokenBuffer(parser);
+        this.tokenBuffer.forceUseOfBigDecimal(objectReader.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS));
+    }
+
+    @Override
+    public void write(ByteBuf chunk) {
+        checkNotNull(chunk, "chunk must not be null");
+        checkState(!ended, "Decoder has already ended");
+        if (failure != null) {
+            return;
+        }
+
+        try {
+            // Every chunk is parsed completely before returning, so the parser never holds on to the fed array
+            if (chunk.hasArray()) {
+                feed(chunk.array(), chunk.arrayOffset() + chunk.readerIndex(), chunk.readableBytes());
+            } else {
+                for (int offset = chunk.readerIndex(); offset < chunk.writerIndex(); offset += SCRATCH_BUFFER_SIZE) {
+                    final int length = Math.min(SCRATCH_BUFFER_SIZE, chunk.writerIndex() - offset);
+                    if (scratchBuffer == null) {
+                        scratchBuffer = new byte[SCRATCH_BUFFER_SIZE];
+                    }
+                    chunk.getBytes(offset, scratchBuffer, 0, length);
+                    feed(scratchBuffer, 0, length);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    @Override
+    public T end() throws HttpMessageConverterException {
+        checkState(!ended, "Decoder has already ended");
+        ended = true;
+
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            feeder.endOfInput();
+            drain();
+            return objectReader.readValue(tokenBuffer.asParser());
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from json.", e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void feed(byte[] bytes, int offset, int length) throws IOException {
+        if (length > 0) {
+            feeder.feedInput(bytes, offset, offset + length);
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokenBuffer.copyCurrentEvent(parser);
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // Nothing to clean up for an in memory parser
+        }
+    }
+}
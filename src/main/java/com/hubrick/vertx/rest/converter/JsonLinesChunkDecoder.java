@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes newline delimited JSON (one value per line). Blank lines are skipped, the last line doesn't need
+ * a trailing newline.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JsonLinesChunkDecoder<T> extends AbstractChunkDecoder<T> {
+
+    private final ObjectReader objectReader;
+
+    public JsonLinesChunkDecoder(ObjectReader objectReader) {
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    protected boolean scan(boolean endOfInput) throws HttpMessageConverterException {
+        while (true) {
+            final int lineStart = scanIndex;
+            final int newLineIndex = buffer.indexOf(lineStart, buffer.writerIndex(), (byte) '\n');
+            final int lineEnd;
+            if (newLineIndex != -1) {
+                lineEnd = newLineIndex;
+                scanIndex = newLineIndex + 1;
+            } else if (endOfInput && lineStart < buffer.writerIndex()) {
+                lineEnd = buffer.writerIndex();
+                scanIndex = lineEnd;
+            } else {
+                return false;
+            }
+
+            if (!isBlank(lineStart, lineEnd)) {
+                elementFound(lineStart, lineEnd);
+                return true;
+            }
+        }
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            final byte b = buffer.getByte(i);
+            if (b != ' ' && b != '\r' && b != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected T decode(ByteBuf element) throws HttpMessageConverterException {
+        try (InputStream inputStream = new ByteBufInputStream(element)) {
+            return objectReader.readValue(inputStream);
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from json.", e);
+        }
+    }
+}
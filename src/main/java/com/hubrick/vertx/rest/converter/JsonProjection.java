@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A set of JSON pointers (RFC 6901) which selects the parts of a document to decode.
+ * <p>
+ * {@link #project(JsonParser)} streams the tokens of the document and builds a sparse tree which contains only the
+ * selected values. Subtrees on no selected path are skipped by the parser without being materialized, and reading
+ * stops as soon as every selected value has been found, so the remainder of a large document is never tokenized.
+ * Elements of an array before a selected index are kept as {@code null} so that indexes stay intact.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class JsonProjection {
+
+    private final List<String> pointers;
+    private final Node root = new Node();
+    private final int leafCount;
+
+    private JsonProjection(List<String> pointers) {
+        this.pointers = ImmutableList.copyOf(pointers);
+        for (String pointer : pointers) {
+            add(JsonPointer.compile(pointer));
+        }
+        this.leafCount = countLeaves(root);
+    }
+
+    /**
+     * @param pointers The JSON pointers of the values to decode, e.g. {@code /user/name} or {@code /items/0/id}
+     * @throws IllegalArgumentException if a pointer is malformed
+     */
+    public static JsonProjection of(String... pointers) {
+        checkNotNull(pointers, "pointers must not be null");
+        return of(ImmutableList.copyOf(pointers));
+    }
+
+    /**
+     * @param pointers The JSON pointers of the values to decode, e.g. {@code /user/name} or {@code /items/0/id}
+     * @throws IllegalArgumentException if a pointer is malformed
+     */
+    public static JsonProjection of(List<String> pointers) {
+        checkNotNull(pointers, "pointers must not be null");
+        checkArgument(!pointers.isEmpty(), "pointers must not be empty");
+        return new JsonProjection(pointers);
+    }
+
+    public List<String> getPointers() {
+        return pointers;
+    }
+
+    /**
+     * Reads the selected values from the parser. The parser must not have been advanced yet and needs a codec
+     * to read the selected values as trees.
+     *
+     * @return The sparse tree of the selected values or a {@link MissingNode} if the document is empty
+     * or none of the pointers matches
+     */
+    public JsonNode project(JsonParser parser) throws IOException {
+        if (parser.nextToken() == null) {
+            return MissingNode.getInstance();
+        }
+        final JsonNode result = project(parser, root, new int[]{leafCount});
+        return result != null ? result : MissingNode.getInstance();
+    }
+
+    private JsonNode project(JsonParser parser, Node node, int[] remaining) throws IOException {
+        if (node.leaf) {
+            remaining[0]--;
+            return parser.readValueAsTree();
+        }
+
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT && node.properties != null) {
+            final ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
+            String fieldName;
+            while ((fieldName = parser.nextFieldName()) != null) {
+                final Node child = node.properties.get(fieldName);
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                final JsonNode value = project(parser, child, remaining);
+                if (value != null) {
+                    objectNode.set(fieldName, value);
+                }
+                if (remaining[0] == 0) {
+                    // Everything has been found, the rest of the document is left unread
+                    break;
+                }
+            }
+            return objectNode.size() > 0 ? objectNode : null;
+        } else if (token == JsonToken.START_ARRAY && node.indexes != null) {
+            final ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final Node child = index <= node.maxIndex ? node.indexes.get(index) : null;
+                final JsonNode value = child != null ? project(parser, child, remaining) : null;
+                if (value != null) {
+                    while (arrayNode.size() < index) {
+                        arrayNode.addNull();
+                    }
+                    arrayNode.add(value);
+                } else {
+                    parser.skipChildren();
+                }
+                if (remaining[0] == 0) {
+                    break;
+                }
+                index++;
+            }
+            return arrayNode.size() > 0 ? arrayNode : null;
+        } else {
+            // Type mismatch, the selected path doesn't exist in this document
+            parser.skipChildren();
+            return null;
+        }
+    }
+
+    private void add(JsonPointer pointer) {
+        Node node = root;
+        while (!pointer.matches()) {
+            node = node.child(pointer);
+            pointer = pointer.tail();
+        }
+        node.leaf = true;
+    }
+
+    private static int countLeaves(Node node) {
+        // A selected value includes all values selected below it
+        if (node.leaf) {
+            return 1;
+        }
+        int count = 0;
+        // Children addressed by index are registered as properties as well
+        if (node.properties != null) {
+            for (Node child : node.properties.values()) {
+                count += countLeaves(child);
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonProjection" + pointers;
+    }
+
+    private static final class Node {
+
+        private boolean leaf;
+        private Map<String, Node> properties;
+        private Map<Integer, Node> indexes;
+        private int maxIndex = -1;
+
+        private Node child(JsonPointer pointer) {
+            // A segment like "0" may address an array element or an object property, the document decides
+            if (properties == null) {
+                properties = new HashMap<>();
+            }
+            final Node child = properties.computeIfAbsent(pointer.getMatchingProperty(), key -> new Node());
+            final int index = pointer.getMatchingIndex();
+            if (index >= 0) {
+                if (indexes == null) {
+                    indexes = new HashMap<>();
+                }
+                indexes.put(index, child);
+                maxIndex = Math.max(maxIndex, index);
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Read-only view of a JSON value backed by the raw bytes of the document. Reading a document only builds a
+ * structural index of it (offsets of all keys and values), nothing is decoded until it's accessed: field lookups
+ * compare the raw key bytes, strings and numbers are decoded on the getter call and no tree or POJO is materialized.
+ * <p>
+ * Views share the buffer of the document, which therefore must not be modified while they are in use.
+ * {@link #raw()} hands out the bytes of a value as they arrived, e.g. to forward them.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class LazyJson {
+
+    public enum Type {
+        OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL
+    }
+
+    private final LazyJsonIndex index;
+    private final int entry;
+
+    private LazyJson(LazyJsonIndex index, int entry) {
+        this.index = index;
+        this.entry = entry;
+    }
+
+    /**
+     * Indexes the readable bytes of the buffer.
+     *
+     * @throws com.hubrick.vertx.rest.exception.HttpMessageConverterException if the structure of the document is malformed
+     */
+    public static LazyJson parse(ByteBuf buffer) {
+        checkNotNull(buffer, "buffer must not be null");
+        return new LazyJson(new LazyJsonIndex(buffer), 0);
+    }
+
+    public Type getType() {
+        switch (index.type(entry)) {
+            case LazyJsonIndex.OBJECT:
+                return Type.OBJECT;
+            case LazyJsonIndex.ARRAY:
+                return Type.ARRAY;
+            case LazyJsonIndex.STRING:
+                return Type.STRING;
+            case LazyJsonIndex.NUMBER:
+                return Type.NUMBER;
+            case LazyJsonIndex.TRUE:
+            case LazyJsonIndex.FALSE:
+                return Type.BOOLEAN;
+            default:
+                return Type.NULL;
+        }
+    }
+
+    public boolean isObject() {
+        return index.type(entry) == LazyJsonIndex.OBJECT;
+    }
+
+    public boolean isArray() {
+        return index.type(entry) == LazyJsonIndex.ARRAY;
+    }
+
+    public boolean isNull() {
+        return index.type(entry) == LazyJsonIndex.NULL;
+    }
+
+    /**
+     * @return the number of properties of an object or elements of an array, {@code 0} for any other value
+     */
+    public int size() {
+        int size = 0;
+        for (int child = entry + 1; child < index.next(entry); child = index.next(child)) {
+            size++;
+        }
+        return size;
+    }
+
+    public boolean has(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * @return the property of this object with the given name or {@code null} if there is none or this isn't an object
+     */
+    public LazyJson get(String name) {
+        checkNotNull(name, "name must not be null");
+        if (!isObject()) {
+            return null;
+        }
+        final boolean ascii = isAscii(name);
+        for (int child = entry + 1; child < index.next(entry); child = index.next(child)) {
+            if (keyEquals(child, name, ascii)) {
+                return new LazyJson(index, child);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Elements are found by skipping their preceding siblings, so iterate with {@link #getElements()} instead of
+     * indexes for large arrays.
+     *
+     * @return the element of this array at the given index or {@code null} if there is none or this isn't an array
+     */
+    public LazyJson get(int position) {
+        if (!isArray() || position < 0) {
+            return null;
+        }
+        int child = entry + 1;
+        for (int i = 0; i < position && child < index.next(entry); i++) {
+            child = index.next(child);
+        }
+        return child < index.next(entry) ? new LazyJson(index, child) : null;
+    }
+
+    /**
+     * @return the elements of an array or the values of an object, empty for any other value
+     */
+    public List<LazyJson> getElements() {
+        final List<LazyJson> elements = new ArrayList<>();
+        for (int child = entry + 1; child < index.next(entry); child = index.next(child)) {
+            elements.add(new LazyJson(index, child));
+        }
+        return elements;
+    }
+
+    /**
+     * @return the property names of an object in document order, empty for any other value
+     */
+    public List<String> getFieldNames() {
+        final List<String> fieldNames = new ArrayList<>();
+        if (isObject()) {
+            for (int child = entry + 1; child < index.next(entry); child = index.next(child)) {
+                fieldNames.add(decodeString(index.keyStart(child), index.keyEnd(child), index.isKeyEscaped(child)));
+            }
+        }
+        return fieldNames;
+    }
+
+    /**
+     * @return the decoded string, {@code null} for {@code null} and the JSON text of any other value
+     */
+    public String asString() {
+        switch (index.type(entry)) {
+            case LazyJsonIndex.STRING:
+                return decodeString(index.start(entry), index.end(entry), index.isValueEscaped(entry));
+            case LazyJsonIndex.NULL:
+                return null;
+            default:
+                return toString();
+        }
+    }
+
+    /**
+     * @throws NumberFormatException if the value isn't an integral number in the int range
+     */
+    public int asInt() {
+        final long value = asLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of int range: " + this);
+        }
+        return (int) value;
+    }
+
+    /**
+     * @throws NumberFormatException if the value isn't an integral number in the long range
+     */
+    public long asLong() {
+        final ByteBuf buffer = index.buffer();
+        int position = index.start(entry);
+        final int end = index.end(entry);
+        final boolean negative = buffer.getByte(position) == '-';
+        if (index.type(entry) != LazyJsonIndex.NUMBER || (negative && ++position == end)) {
+            throw new NumberFormatException("Not a number: " + this);
+        }
+
+        // Accumulate negatively like Long.parseLong, so Long.MIN_VALUE doesn't overflow
+        long result = 0;
+        for (; position < end; position++) {
+            final int digit = buffer.getByte(position) - '0';
+            if (digit < 0 || digit > 9 || result < (Long.MIN_VALUE + digit) / 10) {
+                throw new NumberFormatException("Not a long: " + this);
+            }
+            result = result * 10 - digit;
+        }
+        if (!negative) {
+            if (result == Long.MIN_VALUE) {
+                throw new NumberFormatException("Not a long: " + this);
+            }
+            return -result;
+        }
+        return result;
+    }
+
+    /**
+     * @throws NumberFormatException if the value isn't a number
+     */
+    public double asDouble() {
+        if (index.type(entry) != LazyJsonIndex.NUMBER) {
+            throw new NumberFormatException("Not a number: " + this);
+        }
+        return Double.parseDouble(toString());
+    }
+
+    /**
+     * @throws IllegalStateException if the value isn't a boolean
+     */
+    public boolean asBoolean() {
+        switch (index.type(entry)) {
+            case LazyJsonIndex.TRUE:
+                return true;
+            case LazyJsonIndex.FALSE:
+                return false;
+            default:
+                throw new IllegalStateException("Not a boolean: " + this);
+        }
+    }
+
+    /**
+     * @return a read-only slice of the bytes of this value as they appear in the document
+     */
+    public ByteBuf raw() {
+        return index.buffer().slice(index.start(entry), index.end(entry) - index.start(entry)).asReadOnly();
+    }
+
+    /**
+     * @return the JSON text of this value as it appears in the document
+     */
+    @Override
+    public String toString() {
+        return index.buffer().toString(index.start(entry), index.end(entry) - index.start(entry), Charsets.UTF_8);
+    }
+
+    private boolean keyEquals(int child, String name, boolean ascii) {
+        // Both offsets include the quotes
+        final int keyStart = index.keyStart(child) + 1;
+        final int keyEnd = index.keyEnd(child) - 1;
+        if (!ascii || index.isKeyEscaped(child)) {
+            return name.equals(decodeString(keyStart - 1, keyEnd + 1, index.isKeyEscaped(child)));
+        }
+        if (keyEnd - keyStart != name.length()) {
+            return false;
+        }
+        final ByteBuf buffer = index.buffer();
+        for (int i = 0; i < name.length(); i++) {
+            if (buffer.getByte(keyStart + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param start offset of the opening quote
+     * @param end   offset after the closing quote
+     */
+    private String decodeString(int start, int end, boolean escaped) {
+        final String raw = index.buffer().toString(start + 1, end - start - 2, Charsets.UTF_8);
+        if (!escaped) {
+            return raw;
+        }
+
+        final StringBuilder builder = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            final char c = raw.charAt(i);
+            if (c != '\\' || i + 1 == raw.length()) {
+                builder.append(c);
+                continue;
+            }
+            final char escape = raw.charAt(++i);
+            switch (escape) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= raw.length()) {
+                        throw new IllegalStateException("Invalid unicode escape in string: " + raw);
+                    }
+                    builder.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    i += 4;
+                    break;
+                default:
+                    // \" \\ \/
+                    builder.append(escape);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+
+import java.io.IOException;
+
+/**
+ * Reads JSON bodies into a {@link LazyJson} view without binding them. Writing a {@link LazyJson} sends its raw bytes,
+ * so a received document or a part of it can be forwarded as is.
+ * <p>
+ * Register before the {@link JacksonJsonHttpMessageConverter}, which would otherwise try to bind {@link LazyJson}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class LazyJsonHttpMessageConverter extends AbstractHttpMessageConverter<LazyJson> {
+
+    public LazyJsonHttpMessageConverter() {
+        super(new MediaType("application", "json", Charsets.UTF_8), new MediaType("application", "*+json", Charsets.UTF_8));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return LazyJson.class == clazz;
+    }
+
+    @Override
+    protected LazyJson readInternal(Class<? extends LazyJson> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        // The body is a read-only view which stays owned by the response, so it's indexed in place
+        return LazyJson.parse(httpInputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(LazyJson object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        // The request releases what it wrote, retain to keep the source document intact
+        final ByteBuf raw = object.raw().retain();
+        try {
+            httpOutputMessage.write(raw);
+        } catch (IOException e) {
+            raw.release();
+            throw new HttpMessageConverterException("Error converting to json.", e);
+        }
+    }
+}
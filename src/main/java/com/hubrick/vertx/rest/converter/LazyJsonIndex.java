@@ -0,0 +1,290 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ByteProcessor;
+
+import java.util.Arrays;
+
+/**
+ * Structural index of a JSON document, built in a single pass over the buffer. Every value gets an entry in
+ * document order with its type, the offsets of its bytes, the offsets of its key in the enclosing object and the
+ * entry following its subtree. The children of a container are the entries between the container and its
+ * {@code next} entry, so siblings are found by jumping from one {@code next} to the other.
+ * <p>
+ * Only the structure is checked, scalars aren't validated until they are decoded.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class LazyJsonIndex implements ByteProcessor {
+
+    static final byte OBJECT = 0;
+    static final byte ARRAY = 1;
+    static final byte STRING = 2;
+    static final byte NUMBER = 3;
+    static final byte TRUE = 4;
+    static final byte FALSE = 5;
+    static final byte NULL = 6;
+
+    private static final byte TYPE_MASK = 0x0F;
+    private static final byte VALUE_ESCAPED = 0x10;
+    private static final byte KEY_ESCAPED = 0x20;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_INITIAL_CAPACITY = 256;
+
+    private final ByteBuf buffer;
+
+    private byte[] types;
+    private int[] starts;
+    private int[] ends;
+    private int[] next;
+    private int[] keyStarts;
+    private int[] keyEnds;
+    private int count;
+
+    // Scanner state
+    private int position;
+    private int[] stack = new int[16];
+    private int depth;
+    private boolean expectKey;
+    private boolean inString;
+    private boolean escape;
+    private boolean stringEscaped;
+    private int stringStart;
+    private int stringValue = -1;
+    private int scalar = -1;
+    private int pendingKeyStart = -1;
+    private int pendingKeyEnd;
+    private boolean pendingKeyEscaped;
+    private String error;
+
+    LazyJsonIndex(ByteBuf buffer) {
+        this.buffer = buffer;
+        // Starts small and doubles, the entries take about 21 bytes each, so sizing them from the body up front would
+        // allocate a multiple of the body for documents with few, long values
+        final int capacity = Math.max(MIN_CAPACITY, Math.min(MAX_INITIAL_CAPACITY, buffer.readableBytes() / 64));
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.next = new int[capacity];
+        this.keyStarts = new int[capacity];
+        this.keyEnds = new int[capacity];
+
+        this.position = buffer.readerIndex();
+        buffer.forEachByte(buffer.readerIndex(), buffer.readableBytes(), this);
+        finish();
+    }
+
+    @Override
+    public boolean process(byte value) {
+        final int current = position++;
+        if (inString) {
+            if (escape) {
+                escape = false;
+            } else if (value == '\\') {
+                escape = true;
+                stringEscaped = true;
+            } else if (value == '"') {
+                endString(current);
+            }
+            return true;
+        }
+
+        if (scalar != -1) {
+            if (!isScalarEnd(value)) {
+                return true;
+            }
+            ends[scalar] = current;
+            scalar = -1;
+        }
+
+        switch (value) {
+            case ' ':
+            case '\t':
+            case '\n':
+            case '\r':
+            case ':':
+                return true;
+            case '{':
+                push(add(OBJECT, current));
+                expectKey = true;
+                return error == null;
+            case '[':
+                push(add(ARRAY, current));
+                expectKey = false;
+                return error == null;
+            case '}':
+                return pop(OBJECT, current);
+            case ']':
+                return pop(ARRAY, current);
+            case ',':
+                expectKey = depth > 0 && type(stack[depth - 1]) == OBJECT;
+                return true;
+            case '"':
+                inString = true;
+                stringEscaped = false;
+                stringStart = current;
+                if (expectKey) {
+                    stringValue = -1;
+                    expectKey = false;
+                } else {
+                    stringValue = add(STRING, current);
+                }
+                return error == null;
+            case 't':
+                scalar = add(TRUE, current);
+                return error == null;
+            case 'f':
+                scalar = add(FALSE, current);
+                return error == null;
+            case 'n':
+                scalar = add(NULL, current);
+                return error == null;
+            default:
+                if (value == '-' || (value >= '0' && value <= '9')) {
+                    scalar = add(NUMBER, current);
+                    return error == null;
+                }
+                error = "Unexpected character '" + (char) value + "' at offset " + current;
+                return false;
+        }
+    }
+
+    private static boolean isScalarEnd(byte value) {
+        return value == ',' || value == '}' || value == ']' || value == ' ' || value == '\n' || value == '\r' || value == '\t' || value == ':';
+    }
+
+    private void endString(int current) {
+        inString = false;
+        if (stringValue == -1) {
+            pendingKeyStart = stringStart;
+            pendingKeyEnd = current + 1;
+            pendingKeyEscaped = stringEscaped;
+        } else {
+            ends[stringValue] = current + 1;
+            if (stringEscaped) {
+                types[stringValue] |= VALUE_ESCAPED;
+            }
+        }
+    }
+
+    private int add(byte type, int start) {
+        if (depth == 0 && count > 0) {
+            error = "Unexpected value after the end of the document at offset " + start;
+            return -1;
+        }
+        if (count == types.length) {
+            grow();
+        }
+        final int entry = count++;
+        types[entry] = pendingKeyEscaped && pendingKeyStart != -1 ? (byte) (type | KEY_ESCAPED) : type;
+        starts[entry] = start;
+        ends[entry] = -1;
+        next[entry] = entry + 1;
+        keyStarts[entry] = pendingKeyStart;
+        keyEnds[entry] = pendingKeyEnd;
+        pendingKeyStart = -1;
+        return entry;
+    }
+
+    private void push(int entry) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = entry;
+    }
+
+    private boolean pop(byte type, int current) {
+        if (depth == 0 || type(stack[depth - 1]) != type) {
+            error = "Unexpected '" + (type == OBJECT ? '}' : ']') + "' at offset " + current;
+            return false;
+        }
+        final int entry = stack[--depth];
+        ends[entry] = current + 1;
+        next[entry] = count;
+        expectKey = false;
+        return true;
+    }
+
+    private void grow() {
+        final int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        next = Arrays.copyOf(next, capacity);
+        keyStarts = Arrays.copyOf(keyStarts, capacity);
+        keyEnds = Arrays.copyOf(keyEnds, capacity);
+    }
+
+    private void finish() {
+        if (scalar != -1) {
+            ends[scalar] = position;
+            scalar = -1;
+        }
+        if (error == null) {
+            if (count == 0) {
+                error = "Empty document";
+            } else if (inString || depth > 0) {
+                error = "Unexpected end of the document";
+            }
+        }
+        if (error != null) {
+            throw new HttpMessageConverterException("Error converting from json. " + error + ".");
+        }
+    }
+
+    ByteBuf buffer() {
+        return buffer;
+    }
+
+    byte type(int entry) {
+        return (byte) (types[entry] & TYPE_MASK);
+    }
+
+    boolean isValueEscaped(int entry) {
+        return (types[entry] & VALUE_ESCAPED) != 0;
+    }
+
+    boolean isKeyEscaped(int entry) {
+        return (types[entry] & KEY_ESCAPED) != 0;
+    }
+
+    int start(int entry) {
+        return starts[entry];
+    }
+
+    int end(int entry) {
+        return ends[entry];
+    }
+
+    int next(int entry) {
+        return next[entry];
+    }
+
+    /**
+     * @return the offset of the opening quote of the key or {@code -1} if the value isn't a property of an object
+     */
+    int keyStart(int entry) {
+        return keyStarts[entry];
+    }
+
+    int keyEnd(int entry) {
+        return keyEnds[entry];
+    }
+}
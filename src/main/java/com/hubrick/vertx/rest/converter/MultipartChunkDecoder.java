@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.converter.model.Part;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+
+import java.util.List;
+
+/**
+ * Decodes the parts of a multipart body while it's arriving. The body of a decoded part is composed of retained slices
+ * of the received chunks, so it isn't copied but has to be released by whoever consumes the part.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class MultipartChunkDecoder extends AbstractChunkDecoder<Part<ByteBuf>> {
+
+    private final MultipartScanner scanner;
+
+    public MultipartChunkDecoder(String boundary, int maxHeaderSize, int maxPartSize) {
+        this.scanner = new MultipartScanner(boundary, maxHeaderSize, maxPartSize);
+    }
+
+    @Override
+    protected boolean scan(boolean endOfInput) throws HttpMessageConverterException {
+        if (!scanner.scan(buffer, scanIndex, endOfInput)) {
+            return false;
+        }
+
+        elementFound(scanner.getPartStart(), scanner.getBodyEnd());
+        scanIndex = scanner.getNextIndex();
+        return true;
+    }
+
+    @Override
+    protected Part<ByteBuf> decode(ByteBuf element) throws HttpMessageConverterException {
+        final int bodyStart = scanner.getBodyStart();
+        final int bodyLength = scanner.getBodyEnd() - bodyStart;
+        final MultiMap headers = MultipartScanner.parseHeaders(buffer, scanner.getPartStart(), bodyStart);
+        final ByteBuf body;
+        if (bodyLength == 0) {
+            body = Unpooled.EMPTY_BUFFER;
+        } else {
+            // The chunks are released once the scan passed them, the slices keep them alive for the consumer
+            final List<ByteBuf> slices = buffer.decompose(bodyStart, bodyLength);
+            for (ByteBuf slice : slices) {
+                slice.retain();
+            }
+            body = Unpooled.wrappedBuffer(slices.toArray(new ByteBuf[slices.size()]));
+        }
+        return MultipartHttpMessageConverter.createPart(headers, body);
+    }
+}
@@ -16,22 +16,28 @@
 package com.hubrick.vertx.rest.converter;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 import com.hubrick.vertx.rest.HttpInputMessage;
 import com.hubrick.vertx.rest.HttpOutputMessage;
 import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.StreamingHttpOutputMessage;
 import com.hubrick.vertx.rest.converter.model.Part;
 import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
 import com.hubrick.vertx.rest.message.MultipartHttpOutputMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.streams.ReadStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,7 +51,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * @author Emir Dizdarevic
  * @since 1.3.0
  */
-public class MultipartHttpMessageConverter implements HttpMessageConverter<Multimap<String, Part>> {
+public class MultipartHttpMessageConverter implements HttpMessageConverter<Multimap<String, Part>>, StreamingHttpMessageConverter {
 
     private static final Logger log = LoggerFactory.getLogger(MultipartHttpMessageConverter.class);
 
@@ -53,6 +59,8 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
     private static final byte[] TWO_DASHES = "--".getBytes(Charsets.US_ASCII);
 
     private static final String CONTENT_DISPOSITION = "Content-Disposition";
+    private static final MediaType MULTIPART_ALL = new MediaType("multipart", "*");
+    private static final int DEFAULT_MAX_PART_HEADER_SIZE = 8 * 1024;
     private static final byte[] BOUNDARY_CHARS =
             new byte[]{'-', '_', '1', '2', '3', '4', '5', '6', '7', '8', '9', '0', 'a', 'b', 'c', 'd', 'e', 'f', 'g',
                     'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', 'A',
@@ -65,6 +73,8 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
 
     private final List<MediaType> supportedMediaTypes = new ArrayList<>();
     private List<HttpMessageConverter> partConverters = new ArrayList<>();
+    private int maxPartHeaderSize = DEFAULT_MAX_PART_HEADER_SIZE;
+    private int maxPartSize = Integer.MAX_VALUE;
 
     public MultipartHttpMessageConverter() {
         this.supportedMediaTypes.add(MediaType.MULTIPART_FORM_DATA);
@@ -112,9 +122,133 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
         this.partConverters.add(partConverter);
     }
 
+    /**
+     * Limits the size of the headers of a single part when reading.
+     * <p>
+     * Default is 8 KB.
+     *
+     * @since 3.2.0
+     */
+    public void setMaxPartHeaderSize(int maxPartHeaderSize) {
+        checkArgument(maxPartHeaderSize > 0, "maxPartHeaderSize must be greater then 0");
+        this.maxPartHeaderSize = maxPartHeaderSize;
+    }
+
+    /**
+     * Limits the size of the body of a single part when reading. Streamed parts are buffered until they are complete,
+     * so this also bounds the memory a streamed response takes.
+     * <p>
+     * Default is {@link Integer#MAX_VALUE}.
+     *
+     * @since 3.2.0
+     */
+    public void setMaxPartSize(int maxPartSize) {
+        checkArgument(maxPartSize >= 0, "maxPartSize must be greater or equal to 0");
+        this.maxPartSize = maxPartSize;
+    }
+
+    /**
+     * Reads any multipart type into parts keyed by the name of their {@code Content-Disposition}, or an empty string
+     * if they have none. The body of a part is a read-only {@link ByteBuf} slice of the response body.
+     */
     @Override
     public Multimap<String, Part> read(Class<? extends Multimap<String, Part>> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
-        throw new UnsupportedOperationException("The multipart read operation is currently not supported.");
+        final String contentType = httpInputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            throw new HttpMessageConverterException("Multipart response without Content-Type");
+        }
+        final MultipartScanner scanner = new MultipartScanner(getBoundary(MediaType.parseMediaType(contentType)), maxPartHeaderSize, maxPartSize);
+
+        // The body is a read-only view which stays owned by the response, so the parts slice it without copying
+        final ByteBuf body = httpInputMessage.getBody();
+        final Multimap<String, Part> result = LinkedListMultimap.create();
+        int index = body.readerIndex();
+        while (scanner.scan(body, index, true)) {
+            final MultiMap headers = MultipartScanner.parseHeaders(body, scanner.getPartStart(), scanner.getBodyStart());
+            final Part<ByteBuf> part = createPart(headers, body.slice(scanner.getBodyStart(), scanner.getBodyEnd() - scanner.getBodyStart()));
+            final String name = getDispositionParameter(headers, "name");
+            result.put(name != null ? name : "", part);
+            index = scanner.getNextIndex();
+        }
+        return result;
+    }
+
+    /**
+     * Streams the parts of any multipart type as {@link Part}s with a {@link ByteBuf} body, which has to be released by
+     * the consumer.
+     */
+    @Override
+    public boolean canStream(Class<?> elementClass, MediaType mediaType) {
+        return Part.class.equals(elementClass) && mediaType != null && MULTIPART_ALL.includes(mediaType) && mediaType.getParameter("boundary") != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> ChunkDecoder<T> createChunkDecoder(Class<T> elementClass, MediaType mediaType) {
+        return (ChunkDecoder<T>) new MultipartChunkDecoder(getBoundary(mediaType), maxPartHeaderSize, maxPartSize);
+    }
+
+    static Part<ByteBuf> createPart(MultiMap headers, ByteBuf body) {
+        return new Part<>(body, headers, getDispositionParameter(headers, "filename"));
+    }
+
+    private static String getBoundary(MediaType contentType) {
+        final String boundary = contentType.getParameter("boundary");
+        if (boundary == null || boundary.isEmpty()) {
+            throw new HttpMessageConverterException("Multipart Content-Type without boundary: " + contentType);
+        }
+        return unquote(boundary);
+    }
+
+    /**
+     * @return The unquoted value of a parameter of the {@code Content-Disposition} header or {@code null} if it's absent
+     */
+    private static String getDispositionParameter(MultiMap headers, String parameter) {
+        final String disposition = headers.get(CONTENT_DISPOSITION);
+        if (disposition == null) {
+            return null;
+        }
+
+        int start = disposition.indexOf(';');
+        while (start != -1) {
+            // Semicolons within quoted values don't separate parameters
+            int end = start + 1;
+            boolean quoted = false;
+            while (end < disposition.length() && (quoted || disposition.charAt(end) != ';')) {
+                final char c = disposition.charAt(end);
+                if (c == '\\' && quoted) {
+                    end++;
+                } else if (c == '"') {
+                    quoted = !quoted;
+                }
+                end++;
+            }
+
+            final String pair = disposition.substring(start + 1, Math.min(end, disposition.length()));
+            final int equals = pair.indexOf('=');
+            if (equals != -1 && pair.substring(0, equals).trim().equalsIgnoreCase(parameter)) {
+                return unquote(pair.substring(equals + 1).trim());
+            }
+            start = end < disposition.length() ? end : -1;
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return value;
+        }
+        final StringBuilder result = new StringBuilder(value.length() - 2);
+        for (int i = 1; i < value.length() - 1; i++) {
+            final char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length() - 1) {
+                i++;
+                result.append(value.charAt(i));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
     }
 
     @Override
@@ -156,15 +290,7 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
         if (!Multimap.class.isAssignableFrom(clazz)) {
             return false;
         }
-        if (mediaType == null) {
-            return true;
-        }
-        for (MediaType supportedMediaType : getSupportedMediaTypes()) {
-            if (supportedMediaType.includes(mediaType)) {
-                return true;
-            }
-        }
-        return false;
+        return mediaType == null || MULTIPART_ALL.includes(mediaType);
     }
 
     @Override
@@ -190,33 +316,32 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
         final MediaType contentType = new MediaType(MediaType.MULTIPART_FORM_DATA, parameters);
         httpOutputMessage.getHeaders().set(HttpHeaders.CONTENT_TYPE, contentType.toString());
 
-        writeParts(httpOutputMessage, parts, boundary);
-        writeEnd(httpOutputMessage, boundary);
+        // The delimiter lines are encoded once per message and shared by all parts, each is exactly as large as needed
+        final byte[] boundaryBytes = boundary.getBytes(Charsets.US_ASCII);
+        final byte[] delimiter = new byte[TWO_DASHES.length + boundaryBytes.length + NEW_LINE.length];
+        System.arraycopy(TWO_DASHES, 0, delimiter, 0, TWO_DASHES.length);
+        System.arraycopy(boundaryBytes, 0, delimiter, TWO_DASHES.length, boundaryBytes.length);
+        System.arraycopy(NEW_LINE, 0, delimiter, TWO_DASHES.length + boundaryBytes.length, NEW_LINE.length);
+
+        writeParts(httpOutputMessage, parts, delimiter);
+        writeEnd(httpOutputMessage, boundaryBytes);
     }
 
-    private void writeParts(HttpOutputMessage httpOutputMessage, Multimap<String, Part> parts, String boundary) throws IOException {
+    private void writeParts(HttpOutputMessage httpOutputMessage, Multimap<String, Part> parts, byte[] delimiter) throws IOException {
         for (Map.Entry<String, Part> entry : parts.entries()) {
             String name = entry.getKey();
             if (entry.getValue() != null) {
-                writeBoundary(httpOutputMessage, boundary);
+                httpOutputMessage.write(Unpooled.unmodifiableBuffer(Unpooled.wrappedBuffer(delimiter)));
                 writePart(name, entry.getValue(), httpOutputMessage);
                 httpOutputMessage.write(Unpooled.unmodifiableBuffer(Unpooled.wrappedBuffer(NEW_LINE)));
             }
         }
     }
 
-    private void writeBoundary(HttpOutputMessage httpOutputMessage, String boundary) throws IOException {
-        final ByteBuf byteBuf = Unpooled.buffer(64);
+    private void writeEnd(HttpOutputMessage httpOutputMessage, byte[] boundaryBytes) throws IOException {
+        final ByteBuf byteBuf = Unpooled.buffer(TWO_DASHES.length + boundaryBytes.length + TWO_DASHES.length + NEW_LINE.length);
         byteBuf.writeBytes(TWO_DASHES);
-        byteBuf.writeBytes(boundary.getBytes(Charsets.US_ASCII));
-        byteBuf.writeBytes(NEW_LINE);
-        httpOutputMessage.write(Unpooled.unmodifiableBuffer(byteBuf));
-    }
-
-    private void writeEnd(HttpOutputMessage httpOutputMessage, String boundary) throws IOException {
-        final ByteBuf byteBuf = Unpooled.buffer(64);
-        byteBuf.writeBytes(TWO_DASHES);
-        byteBuf.writeBytes(boundary.getBytes(Charsets.US_ASCII));
+        byteBuf.writeBytes(boundaryBytes);
         byteBuf.writeBytes(TWO_DASHES);
         byteBuf.writeBytes(NEW_LINE);
         httpOutputMessage.write(Unpooled.unmodifiableBuffer(byteBuf));
@@ -229,6 +354,11 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
         final MultiMap partHeaders = part.getHeaders();
         final String fileName = part.getFileName();
 
+        if (partBody instanceof Path || partBody instanceof File || partBody instanceof ReadStream) {
+            writeStreamedPart(name, part, httpOutputMessage);
+            return;
+        }
+
         if (!partHeaders.contains(HttpHeaders.CONTENT_TYPE)) {
             throw new IllegalStateException("Parts headers don't contain Content-Type");
         }
@@ -251,6 +381,43 @@ public class MultipartHttpMessageConverter implements HttpMessageConverter<Multi
                 "found for request type [" + partType.getName() + "]");
     }
 
+    /**
+     * Files and streams aren't read into memory, only the part headers are written and the body is sent from the
+     * source when the request goes out. The length of a stream is taken from the Content-Length header of the part, a
+     * stream without it sends the request chunked.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeStreamedPart(String name, Part part, HttpOutputMessage httpOutputMessage) throws IOException {
+        if (!(httpOutputMessage instanceof StreamingHttpOutputMessage)) {
+            throw new HttpMessageConverterException("Could not write request: " + part.getObject().getClass().getName() + " parts can't be streamed into " + httpOutputMessage.getClass().getName());
+        }
+        final StreamingHttpOutputMessage streamingHttpOutputMessage = (StreamingHttpOutputMessage) httpOutputMessage;
+        final Object partBody = part.getObject();
+        final Path file = partBody instanceof File ? ((File) partBody).toPath() : partBody instanceof Path ? (Path) partBody : null;
+
+        final MultipartHttpOutputMessage multipartHttpOutputMessage = new MultipartHttpOutputMessage();
+        final String fileName = part.getFileName() == null && file != null ? String.valueOf(file.getFileName()) : part.getFileName();
+        setContentDispositionFormData(name, fileName, multipartHttpOutputMessage.getHeaders());
+        multipartHttpOutputMessage.putAllHeaders(part.getHeaders());
+        if (!multipartHttpOutputMessage.getHeaders().contains(HttpHeaders.CONTENT_TYPE)) {
+            multipartHttpOutputMessage.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        }
+        // Forces the headers to be written
+        multipartHttpOutputMessage.write(Unpooled.EMPTY_BUFFER);
+        httpOutputMessage.write(multipartHttpOutputMessage.getBody());
+
+        if (file != null) {
+            streamingHttpOutputMessage.writeFile(file);
+        } else {
+            final String contentLength = part.getHeaders().get(HttpHeaders.CONTENT_LENGTH);
+            try {
+                streamingHttpOutputMessage.writeStream((ReadStream<Buffer>) partBody, contentLength != null ? Long.parseLong(contentLength) : -1);
+            } catch (NumberFormatException e) {
+                throw new HttpMessageConverterException("Invalid Content-Length of part " + name + ": " + contentLength, e);
+            }
+        }
+    }
+
     private void setContentDispositionFormData(String name, String filename, MultiMap multiMap) {
         checkNotNull(name, "name must not be null");
         checkArgument(!name.isEmpty(), "name must not be empty");
@@ -0,0 +1,329 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.MultiMap;
+
+/**
+ * Finds the parts of a multipart body. The delimiter is searched with Boyer-Moore-Horspool, which compares the last
+ * byte of the delimiter first and skips ahead by up to the length of the delimiter on a mismatch, so most of the body
+ * is never looked at.
+ * <p>
+ * The scanner works on absolute indexes and can be resumed when the buffer grew, so it serves complete bodies as well
+ * as bodies which are still arriving. The indexes of a found part stay valid until the next call of
+ * {@link #scan(ByteBuf, int, boolean)}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class MultipartScanner {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte DASH = '-';
+
+    /**
+     * CRLF followed by two dashes and the boundary
+     */
+    private final byte[] delimiter;
+    private final int[] shifts = new int[256];
+    private final int maxHeaderSize;
+    private final int maxPartSize;
+
+    private boolean started = false;
+    private boolean closed = false;
+    private int partStart = -1;
+    private int bodyStart = -1;
+    private int bodyEnd = -1;
+    private int searchFrom = -1;
+    private int nextIndex = -1;
+
+    MultipartScanner(String boundary, int maxHeaderSize, int maxPartSize) {
+        final byte[] boundaryBytes = boundary.getBytes(Charsets.US_ASCII);
+        this.delimiter = new byte[boundaryBytes.length + 4];
+        this.delimiter[0] = CR;
+        this.delimiter[1] = LF;
+        this.delimiter[2] = DASH;
+        this.delimiter[3] = DASH;
+        System.arraycopy(boundaryBytes, 0, this.delimiter, 4, boundaryBytes.length);
+        this.maxHeaderSize = maxHeaderSize;
+        this.maxPartSize = maxPartSize;
+
+        final int last = delimiter.length - 1;
+        for (int i = 0; i < shifts.length; i++) {
+            shifts[i] = delimiter.length;
+        }
+        for (int i = 0; i < last; i++) {
+            shifts[delimiter[i] & 0xFF] = last - i;
+        }
+    }
+
+    /**
+     * @param buffer     The body
+     * @param index      Where the next part starts, the reader index of the body for the first call. Ignored while
+     *                   a part is pending, whose start is known already.
+     * @param endOfInput true if the buffer holds the complete rest of the body
+     * @return true if a part has been found, false if more input is needed or the close delimiter has been reached
+     * @throws HttpMessageConverterException if the body is malformed, truncated or a part exceeds the limits
+     */
+    boolean scan(ByteBuf buffer, int index, boolean endOfInput) throws HttpMessageConverterException {
+        if (closed) {
+            return false;
+        }
+        if (bodyEnd != -1) {
+            // The previous part has been consumed
+            partStart = -1;
+            bodyStart = -1;
+            bodyEnd = -1;
+        }
+
+        if (!started) {
+            final int firstIndex = findFirstDelimiter(buffer, index, endOfInput);
+            if (firstIndex == -1) {
+                return false;
+            }
+            started = true;
+            searchFrom = -1;
+            if (closed) {
+                return false;
+            }
+            // The caller only learns where the first part starts once it has been found
+            partStart = firstIndex;
+        }
+
+        if (bodyStart == -1) {
+            if (partStart == -1) {
+                partStart = index;
+            }
+            bodyStart = findBodyStart(buffer, partStart, endOfInput);
+            if (bodyStart == -1) {
+                return false;
+            }
+            searchFrom = bodyStart;
+        }
+
+        final int found = indexOf(buffer, searchFrom, buffer.writerIndex());
+        if (found == -1) {
+            if (buffer.writerIndex() - bodyStart > (long) maxPartSize + delimiter.length) {
+                throw new HttpMessageConverterException("Multipart part exceeds the maximum size of " + maxPartSize + " bytes");
+            }
+            if (endOfInput) {
+                throw new HttpMessageConverterException("Multipart body ended in the middle of a part");
+            }
+            // The delimiter may start within the bytes which have been searched already
+            searchFrom = Math.max(bodyStart, buffer.writerIndex() - delimiter.length + 1);
+            return false;
+        }
+        if (found - bodyStart > maxPartSize) {
+            throw new HttpMessageConverterException("Multipart part exceeds the maximum size of " + maxPartSize + " bytes");
+        }
+
+        final int lineEnd = findDelimiterLineEnd(buffer, found + delimiter.length, endOfInput);
+        if (lineEnd == -1) {
+            searchFrom = found;
+            return false;
+        }
+
+        bodyEnd = found;
+        nextIndex = lineEnd;
+        searchFrom = -1;
+        return true;
+    }
+
+    /**
+     * @return The start of the headers of the found part
+     */
+    int getPartStart() {
+        return partStart;
+    }
+
+    /**
+     * @return The start of the body of the found part
+     */
+    int getBodyStart() {
+        return bodyStart;
+    }
+
+    /**
+     * @return The end (exclusive) of the body of the found part
+     */
+    int getBodyEnd() {
+        return bodyEnd;
+    }
+
+    /**
+     * @return Where the part after the found one starts
+     */
+    int getNextIndex() {
+        return nextIndex;
+    }
+
+    /**
+     * @return true if the close delimiter has been reached
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Parses the header lines of a part.
+     *
+     * @param buffer     The body
+     * @param partStart  Where the part starts
+     * @param bodyStart  Where the body of the part starts, right after the empty line terminating the headers
+     */
+    static MultiMap parseHeaders(ByteBuf buffer, int partStart, int bodyStart) {
+        final MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+        // Without headers the part starts with the empty line
+        final int headersEnd = bodyStart - partStart == 2 ? partStart : bodyStart - 4;
+        int lineStart = partStart;
+        while (lineStart < headersEnd) {
+            int lineEnd = buffer.indexOf(lineStart, headersEnd, LF);
+            lineEnd = lineEnd == -1 ? headersEnd : lineEnd - 1;
+            final int colon = buffer.indexOf(lineStart, lineEnd, (byte) ':');
+            if (colon == -1) {
+                throw new HttpMessageConverterException("Malformed multipart header line");
+            }
+            headers.add(
+                    buffer.toString(lineStart, colon - lineStart, Charsets.UTF_8).trim(),
+                    buffer.toString(colon + 1, lineEnd - colon - 1, Charsets.UTF_8).trim()
+            );
+            lineStart = lineEnd + 2;
+        }
+        return headers;
+    }
+
+    /**
+     * The first delimiter has no leading CRLF if the body doesn't start with a preamble.
+     *
+     * @return Where the first part starts or -1 if more input is needed
+     */
+    private int findFirstDelimiter(ByteBuf buffer, int index, boolean endOfInput) {
+        final int dashBoundaryLength = delimiter.length - 2;
+        if (buffer.writerIndex() - index < dashBoundaryLength) {
+            if (endOfInput) {
+                throw new HttpMessageConverterException("Multipart body doesn't contain the boundary");
+            }
+            return -1;
+        }
+
+        int delimiterEnd = -1;
+        if (regionMatches(buffer, index, 2, dashBoundaryLength)) {
+            delimiterEnd = index + dashBoundaryLength;
+        } else {
+            final int found = indexOf(buffer, searchFrom == -1 ? index : searchFrom, buffer.writerIndex());
+            if (found != -1) {
+                delimiterEnd = found + delimiter.length;
+            } else if (endOfInput) {
+                throw new HttpMessageConverterException("Multipart body doesn't contain the boundary");
+            } else {
+                searchFrom = Math.max(index, buffer.writerIndex() - delimiter.length + 1);
+                return -1;
+            }
+        }
+        return findDelimiterLineEnd(buffer, delimiterEnd, endOfInput);
+    }
+
+    /**
+     * @return Where the body of the part starts or -1 if more input is needed
+     */
+    private int findBodyStart(ByteBuf buffer, int partStart, boolean endOfInput) {
+        final int end = (int) Math.min(buffer.writerIndex(), partStart + (long) maxHeaderSize + 4);
+        if (end - partStart >= 2 && buffer.getByte(partStart) == CR && buffer.getByte(partStart + 1) == LF) {
+            return partStart + 2;
+        }
+
+        int lf = partStart;
+        while ((lf = buffer.indexOf(lf, end, LF)) != -1) {
+            if (lf - partStart >= 3 && buffer.getByte(lf - 1) == CR && buffer.getByte(lf - 2) == LF && buffer.getByte(lf - 3) == CR) {
+                return lf + 1;
+            }
+            lf++;
+        }
+
+        if (end - partStart >= maxHeaderSize + 4) {
+            throw new HttpMessageConverterException("Multipart part headers exceed the maximum size of " + maxHeaderSize + " bytes");
+        }
+        if (endOfInput) {
+            throw new HttpMessageConverterException("Multipart body ended in the part headers");
+        }
+        return -1;
+    }
+
+    /**
+     * A delimiter is followed by two dashes if it closes the body, otherwise by optional whitespace and CRLF.
+     *
+     * @return Where the next part starts, or the end of the body if it has been closed, or -1 if more input is needed
+     */
+    private int findDelimiterLineEnd(ByteBuf buffer, int delimiterEnd, boolean endOfInput) {
+        if (buffer.writerIndex() - delimiterEnd < 2) {
+            if (endOfInput) {
+                throw new HttpMessageConverterException("Multipart body ended without the close delimiter");
+            }
+            return -1;
+        }
+        if (buffer.getByte(delimiterEnd) == DASH && buffer.getByte(delimiterEnd + 1) == DASH) {
+            closed = true;
+            return buffer.writerIndex();
+        }
+
+        for (int i = delimiterEnd; i < buffer.writerIndex(); i++) {
+            final byte b = buffer.getByte(i);
+            if (b == LF && i > delimiterEnd && buffer.getByte(i - 1) == CR) {
+                return i + 1;
+            }
+            if (b != ' ' && b != '\t' && b != CR) {
+                throw new HttpMessageConverterException("Malformed multipart delimiter line");
+            }
+        }
+
+        if (endOfInput) {
+            throw new HttpMessageConverterException("Multipart body ended without the close delimiter");
+        }
+        return -1;
+    }
+
+    /**
+     * Boyer-Moore-Horspool search for the delimiter.
+     *
+     * @return The index of the delimiter within from (inclusive) and to (exclusive) or -1 if it's not found
+     */
+    private int indexOf(ByteBuf buffer, int from, int to) {
+        final int last = delimiter.length - 1;
+        final byte lastByte = delimiter[last];
+        int i = from;
+        while (i + last < to) {
+            final byte b = buffer.getByte(i + last);
+            if (b == lastByte && regionMatches(buffer, i, 0, last)) {
+                return i;
+            }
+            i += shifts[b & 0xFF];
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(ByteBuf buffer, int index, int delimiterOffset, int length) {
+        for (int j = 0; j < length; j++) {
+            if (buffer.getByte(index + j) != delimiter[delimiterOffset + j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Reads JSON arrays of numbers straight into {@code double[]}, {@code long[]}, {@code int[]} or a {@link NumericColumn},
+ * and JSON arrays of objects into {@link NumericColumns}, one column per numeric property. Numbers are parsed from
+ * the bytes of the body and never boxed. Writing isn't supported.
+ * <p>
+ * Register before the {@link JacksonJsonHttpMessageConverter}, which would otherwise bind the primitive arrays.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class NumericArrayHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private PrimitiveArrayPool arrayPool;
+
+    public NumericArrayHttpMessageConverter() {
+        super(new MediaType("application", "json", Charsets.UTF_8), new MediaType("application", "*+json", Charsets.UTF_8));
+    }
+
+    /**
+     * Keep up to the given number of arrays per primitive type to back the columns of the next responses. The arrays
+     * behind {@code double[]}, {@code long[]} and {@code int[]} results are recycled right away, {@link NumericColumn}s
+     * and {@link NumericColumns} hand theirs back once they are released.
+     * <p>
+     * Default is {@code 0}, which disables pooling.
+     */
+    public void setArrayPoolSize(int arrayPoolSize) {
+        checkArgument(arrayPoolSize >= 0, "arrayPoolSize must not be negative");
+        this.arrayPool = arrayPoolSize > 0 ? new PrimitiveArrayPool(arrayPoolSize) : null;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return double[].class == clazz || long[].class == clazz || int[].class == clazz
+                || NumericColumn.class == clazz || NumericColumns.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        final PrimitiveArrayPool arrayPool = this.arrayPool;
+        if (NumericColumns.class == clazz) {
+            return NumericArrayParser.parseColumns(httpInputMessage.getBody(), arrayPool);
+        }
+
+        final NumericColumn column = NumericArrayParser.parseValues(httpInputMessage.getBody(), arrayPool);
+        if (NumericColumn.class == clazz) {
+            return column;
+        }
+        try {
+            if (double[].class == clazz) {
+                return column.toDoubleArray();
+            } else if (long[].class == clazz) {
+                return column.toLongArray();
+            } else {
+                return column.toIntArray();
+            }
+        } catch (ArithmeticException e) {
+            throw new HttpMessageConverterException("Error converting from json.", e);
+        } finally {
+            column.release();
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        throw new UnsupportedOperationException("Writing numeric arrays is not supported");
+    }
+}
@@ -0,0 +1,558 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ByteProcessor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass parser for JSON arrays of numbers or of objects with numeric properties. Numbers are accumulated from
+ * the bytes while they are scanned, without any intermediate String: integers with up to 18 digits are read exactly
+ * as longs, decimals whose significant digits stay below 2^53 (all with up to 15 digits, some with 16) and whose decimal
+ * exponent is within +-22 are converted with a single correctly rounded operation. Other numbers fall back to the JDK
+ * parser.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class NumericArrayParser implements ByteProcessor {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private static final int START = 0;
+    private static final int ELEMENT = 1;
+    private static final int NUMBER = 2;
+    private static final int AFTER_ELEMENT = 3;
+    private static final int KEY_OR_END = 4;
+    private static final int KEY = 5;
+    private static final int COLON = 6;
+    private static final int FIELD_VALUE = 7;
+    private static final int AFTER_FIELD = 8;
+    private static final int SKIP = 9;
+    private static final int END = 10;
+
+    private final ByteBuf buffer;
+    private final PrimitiveArrayPool pool;
+    private final boolean rows;
+
+    private int state = START;
+    private int position;
+    private String error;
+
+    // Arrays of numbers
+    private NumericColumn values;
+
+    // Arrays of objects
+    private final List<NumericColumn> columns = new ArrayList<>();
+    private final List<byte[]> columnKeys = new ArrayList<>();
+    private final Map<String, NumericColumn> columnsByName = new LinkedHashMap<>();
+    private int rowCount;
+    private int fieldIndex;
+    private int keyStart;
+    private int keyEnd;
+    private boolean keyEscaped;
+    private boolean escape;
+
+    // Number being parsed
+    private NumericColumn target;
+    private int numberStart;
+    private int numberReturn;
+    private boolean negative;
+    private long mantissa;
+    private int significantDigits;
+    private int digits;
+    private int digitsBeforeDot;
+    private int scale;
+    private boolean integral;
+    private boolean dot;
+    private boolean exponentPart;
+    private boolean exponentSign;
+    private boolean exponentNegative;
+    private int exponent;
+    private int exponentDigits;
+    private boolean overflow;
+    private boolean invalid;
+
+    // Value being skipped
+    private int skipReturn;
+    private int skipDepth;
+    private boolean skipInString;
+
+    private NumericArrayParser(ByteBuf buffer, PrimitiveArrayPool pool, boolean rows) {
+        this.buffer = buffer;
+        this.pool = pool;
+        this.rows = rows;
+        this.position = buffer.readerIndex();
+        if (!rows) {
+            values = new NumericColumn(pool);
+        }
+    }
+
+    /**
+     * Parses a JSON array of numbers.
+     */
+    static NumericColumn parseValues(ByteBuf buffer, PrimitiveArrayPool pool) {
+        final NumericArrayParser parser = new NumericArrayParser(buffer, pool, false);
+        parser.parse();
+        return parser.values;
+    }
+
+    /**
+     * Parses a JSON array of objects into one column per numeric property.
+     */
+    static NumericColumns parseColumns(ByteBuf buffer, PrimitiveArrayPool pool) {
+        final NumericArrayParser parser = new NumericArrayParser(buffer, pool, true);
+        parser.parse();
+        return new NumericColumns(parser.columnsByName, parser.rowCount);
+    }
+
+    private void parse() {
+        buffer.forEachByte(buffer.readerIndex(), buffer.readableBytes(), this);
+        if (error == null && state == NUMBER) {
+            endNumber();
+        }
+        if (error == null && state != END) {
+            error = "Unexpected end of the document";
+        }
+        if (error != null) {
+            if (values != null) {
+                values.release();
+            }
+            for (NumericColumn column : columnsByName.values()) {
+                column.release();
+            }
+            throw new HttpMessageConverterException("Error converting from json. " + error + ".");
+        }
+    }
+
+    @Override
+    public boolean process(byte value) {
+        final boolean result = process(value, position);
+        position++;
+        return result;
+    }
+
+    private boolean process(byte value, int current) {
+        while (true) {
+            switch (state) {
+                case START:
+                    if (isWhitespace(value)) {
+                        return true;
+                    }
+                    return expect(value == '[', ELEMENT, value, current);
+                case ELEMENT:
+                    if (isWhitespace(value)) {
+                        return true;
+                    } else if (value == ']') {
+                        state = END;
+                        return true;
+                    } else if (rows && value == '{') {
+                        fieldIndex = 0;
+                        state = KEY_OR_END;
+                        return true;
+                    } else if (!rows && isNumberStart(value)) {
+                        startNumber(values, current, AFTER_ELEMENT);
+                        continue;
+                    } else if (!rows && value == 'n') {
+                        values.addMissing();
+                        startSkip(AFTER_ELEMENT);
+                        continue;
+                    }
+                    return fail(value, current);
+                case NUMBER:
+                    if (number(value)) {
+                        return true;
+                    }
+                    if (!endNumber()) {
+                        return false;
+                    }
+                    state = numberReturn;
+                    continue;
+                case AFTER_ELEMENT:
+                    if (isWhitespace(value)) {
+                        return true;
+                    } else if (value == ',') {
+                        state = ELEMENT;
+                        return true;
+                    }
+                    return expect(value == ']', END, value, current);
+                case KEY_OR_END:
+                    if (isWhitespace(value)) {
+                        return true;
+                    } else if (value == '}') {
+                        endRow();
+                        state = AFTER_ELEMENT;
+                        return true;
+                    } else if (value == '"') {
+                        keyStart = current + 1;
+                        keyEscaped = false;
+                        escape = false;
+                        state = KEY;
+                        return true;
+                    }
+                    return fail(value, current);
+                case KEY:
+                    if (escape) {
+                        escape = false;
+                    } else if (value == '\\') {
+                        escape = true;
+                        keyEscaped = true;
+                    } else if (value == '"') {
+                        keyEnd = current;
+                        state = COLON;
+                    }
+                    return true;
+                case COLON:
+                    if (isWhitespace(value)) {
+                        return true;
+                    }
+                    return expect(value == ':', FIELD_VALUE, value, current);
+                case FIELD_VALUE:
+                    if (isWhitespace(value)) {
+                        return true;
+                    } else if (isNumberStart(value)) {
+                        startNumber(column(), current, AFTER_FIELD);
+                    } else {
+                        startSkip(AFTER_FIELD);
+                    }
+                    continue;
+                case AFTER_FIELD:
+                    if (isWhitespace(value)) {
+                        return true;
+                    } else if (value == ',') {
+                        fieldIndex++;
+                        state = KEY_OR_END;
+                        return true;
+                    } else if (value == '}') {
+                        endRow();
+                        state = AFTER_ELEMENT;
+                        return true;
+                    }
+                    return fail(value, current);
+                case SKIP:
+                    if (skip(value)) {
+                        return true;
+                    }
+                    state = skipReturn;
+                    continue;
+                default:
+                    if (isWhitespace(value)) {
+                        return true;
+                    }
+                    return fail(value, current);
+            }
+        }
+    }
+
+    private boolean expect(boolean matches, int nextState, byte value, int current) {
+        if (!matches) {
+            return fail(value, current);
+        }
+        state = nextState;
+        return true;
+    }
+
+    private boolean fail(byte value, int current) {
+        error = "Unexpected character '" + (char) value + "' at offset " + current;
+        return false;
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value == '\n' || value == '\r' || value == '\t';
+    }
+
+    private static boolean isNumberStart(byte value) {
+        return value == '-' || (value >= '0' && value <= '9');
+    }
+
+    private void startNumber(NumericColumn target, int current, int numberReturn) {
+        this.target = target;
+        this.numberStart = current;
+        this.numberReturn = numberReturn;
+        this.state = NUMBER;
+        this.negative = false;
+        this.mantissa = 0;
+        this.significantDigits = 0;
+        this.digits = 0;
+        this.digitsBeforeDot = -1;
+        this.scale = 0;
+        this.integral = true;
+        this.dot = false;
+        this.exponentPart = false;
+        this.exponentSign = false;
+        this.exponentNegative = false;
+        this.exponent = 0;
+        this.exponentDigits = 0;
+        this.overflow = false;
+        this.invalid = false;
+    }
+
+    /**
+     * @return {@code false} if the byte isn't part of the number anymore
+     */
+    private boolean number(byte value) {
+        if (value >= '0' && value <= '9') {
+            final int digit = value - '0';
+            if (exponentPart) {
+                // Anything above is out of the double range anyway, the JDK parser takes care of it
+                if (exponent < 10000) {
+                    exponent = exponent * 10 + digit;
+                }
+                exponentDigits++;
+            } else {
+                if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) {
+                        significantDigits++;
+                    }
+                    if (dot) {
+                        scale++;
+                    }
+                } else if (!dot) {
+                    overflow = true;
+                } else if (digit != 0) {
+                    // Further decimals only matter for the rounding, leave them to the JDK parser
+                    overflow = true;
+                }
+                digits++;
+            }
+            return true;
+        }
+        switch (value) {
+            case '-':
+                if (position == numberStart) {
+                    negative = true;
+                } else {
+                    exponentNegative = true;
+                    checkExponentSign();
+                }
+                return true;
+            case '+':
+                checkExponentSign();
+                return true;
+            case '.':
+                invalid |= dot || exponentPart || digits == 0;
+                dot = true;
+                integral = false;
+                digitsBeforeDot = digits;
+                return true;
+            case 'e':
+            case 'E':
+                invalid |= exponentPart || digits == 0 || digits == digitsBeforeDot;
+                exponentPart = true;
+                integral = false;
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void checkExponentSign() {
+        invalid |= !exponentPart || exponentSign || exponentDigits > 0;
+        exponentSign = true;
+    }
+
+    private boolean endNumber() {
+        final NumericColumn column = target;
+        if (invalid || digits == 0 || digits == digitsBeforeDot || (exponentPart && exponentDigits == 0)) {
+            error = "Invalid number '" + buffer.toString(numberStart, position - numberStart, Charsets.US_ASCII)
+                    + "' at offset " + numberStart;
+            return false;
+        }
+        try {
+            if (integral && !overflow) {
+                if (column != null) {
+                    column.addLong(negative ? -mantissa : mantissa);
+                }
+                return true;
+            }
+
+            final int decimalExponent = (exponentNegative ? -exponent : exponent) - scale;
+            if (!overflow && mantissa < MAX_EXACT_DOUBLE && decimalExponent >= -22 && decimalExponent <= 22) {
+                // Both the mantissa and the power of ten are exact doubles, so a single operation rounds correctly
+                final double result = decimalExponent < 0
+                        ? mantissa / POWERS_OF_TEN[-decimalExponent]
+                        : mantissa * POWERS_OF_TEN[decimalExponent];
+                if (column != null) {
+                    column.addDouble(negative ? -result : result);
+                }
+                return true;
+            }
+
+            final String text = buffer.toString(numberStart, position - numberStart, Charsets.US_ASCII);
+            if (column != null) {
+                if (integral && text.length() <= 20) {
+                    try {
+                        column.addLong(Long.parseLong(text));
+                        return true;
+                    } catch (NumberFormatException e) {
+                        // Out of the long range
+                    }
+                }
+                column.addDouble(Double.parseDouble(text));
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            error = "Invalid number '" + buffer.toString(numberStart, position - numberStart, Charsets.US_ASCII)
+                    + "' at offset " + numberStart;
+            return false;
+        }
+    }
+
+    private void startSkip(int skipReturn) {
+        this.skipReturn = skipReturn;
+        this.skipDepth = 0;
+        this.skipInString = false;
+        this.escape = false;
+        this.state = SKIP;
+    }
+
+    /**
+     * @return {@code false} if the byte terminates the skipped value
+     */
+    private boolean skip(byte value) {
+        if (skipInString) {
+            if (escape) {
+                escape = false;
+            } else if (value == '\\') {
+                escape = true;
+            } else if (value == '"') {
+                skipInString = false;
+            }
+            return true;
+        }
+        switch (value) {
+            case '"':
+                skipInString = true;
+                return true;
+            case '{':
+            case '[':
+                skipDepth++;
+                return true;
+            case '}':
+            case ']':
+                if (skipDepth == 0) {
+                    return false;
+                }
+                skipDepth--;
+                return true;
+            case ',':
+                return skipDepth > 0;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Resolves the column of the current key. Objects usually list their properties in the same order, so the
+     * column at the same position is tried first and the key bytes are only decoded for a new column.
+     *
+     * @return the column or {@code null} if the key already had a value in this object
+     */
+    private NumericColumn column() {
+        NumericColumn column = null;
+        if (keyEscaped) {
+            column = columnsByName.get(unescape(buffer.toString(keyStart, keyEnd - keyStart, Charsets.UTF_8)));
+        } else {
+            if (fieldIndex < columns.size() && keyEquals(columnKeys.get(fieldIndex))) {
+                column = columns.get(fieldIndex);
+            } else {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (keyEquals(columnKeys.get(i))) {
+                        column = columns.get(i);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (column == null) {
+            final String name = buffer.toString(keyStart, keyEnd - keyStart, Charsets.UTF_8);
+            column = new NumericColumn(pool);
+            for (int i = 0; i < rowCount; i++) {
+                column.addMissing();
+            }
+            columnsByName.put(keyEscaped ? unescape(name) : name, column);
+            if (!keyEscaped) {
+                final byte[] key = new byte[keyEnd - keyStart];
+                buffer.getBytes(keyStart, key);
+                columns.add(column);
+                columnKeys.add(key);
+            }
+        }
+        // A duplicate key must not shift the values of the column
+        return column.size() == rowCount ? column : null;
+    }
+
+    private boolean keyEquals(byte[] key) {
+        if (key.length != keyEnd - keyStart) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.getByte(keyStart + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unescape(String key) {
+        final StringBuilder builder = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '\\' && i + 1 < key.length()) {
+                c = key.charAt(++i);
+                if (c == 'u' && i + 4 < key.length()) {
+                    c = (char) Integer.parseInt(key.substring(i + 1, i + 5), 16);
+                    i += 4;
+                } else if (c == 'n') {
+                    c = '\n';
+                } else if (c == 't') {
+                    c = '\t';
+                } else if (c == 'r') {
+                    c = '\r';
+                } else if (c == 'b') {
+                    c = '\b';
+                } else if (c == 'f') {
+                    c = '\f';
+                }
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    private void endRow() {
+        rowCount++;
+        for (NumericColumn column : columnsByName.values()) {
+            if (column.size() < rowCount) {
+                column.addMissing();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * Growable column of numbers backed by a primitive array. Values are kept in a {@code long[]} as long as all of them
+ * are integral, the first fractional or missing value switches the column to a {@code double[]}. Missing values
+ * ({@code null} or non-numeric values) are stored as {@link Double#NaN}.
+ * <p>
+ * Columns read by a converter with array pooling enabled should be {@linkplain #release() released} once they are
+ * no longer needed, so their arrays can be reused by the next response.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class NumericColumn {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final PrimitiveArrayPool pool;
+    private long[] longs;
+    private double[] doubles;
+    private int size;
+
+    NumericColumn(PrimitiveArrayPool pool) {
+        this.pool = pool;
+        this.longs = pool != null ? pool.acquireLongs(INITIAL_CAPACITY) : new long[INITIAL_CAPACITY];
+    }
+
+    void addLong(long value) {
+        if (longs == null) {
+            addDouble(value);
+            return;
+        }
+        if (size == longs.length) {
+            final long[] grown = pool != null ? pool.acquireLongs(size * 2) : new long[size * 2];
+            System.arraycopy(longs, 0, grown, 0, size);
+            releaseArray(longs);
+            longs = grown;
+        }
+        longs[size++] = value;
+    }
+
+    void addDouble(double value) {
+        if (doubles == null) {
+            switchToDoubles();
+        }
+        if (size == doubles.length) {
+            final double[] grown = pool != null ? pool.acquireDoubles(size * 2) : new double[size * 2];
+            System.arraycopy(doubles, 0, grown, 0, size);
+            releaseArray(doubles);
+            doubles = grown;
+        }
+        doubles[size++] = value;
+    }
+
+    void addMissing() {
+        addDouble(Double.NaN);
+    }
+
+    private void switchToDoubles() {
+        doubles = pool != null ? pool.acquireDoubles(longs.length) : new double[longs.length];
+        for (int i = 0; i < size; i++) {
+            doubles[i] = longs[i];
+        }
+        releaseArray(longs);
+        longs = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if all values are integral and none is missing
+     */
+    public boolean isIntegral() {
+        return longs != null;
+    }
+
+    public double getDouble(int index) {
+        checkElementIndex(index, size);
+        return longs != null ? longs[index] : doubles[index];
+    }
+
+    /**
+     * @throws ArithmeticException if the value is fractional or missing
+     */
+    public long getLong(int index) {
+        checkElementIndex(index, size);
+        return longs != null ? longs[index] : toLong(doubles[index], index);
+    }
+
+    public double[] toDoubleArray() {
+        if (doubles != null) {
+            return Arrays.copyOf(doubles, size);
+        }
+        final double[] result = new double[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = longs[i];
+        }
+        return result;
+    }
+
+    /**
+     * @throws ArithmeticException if a value is fractional or missing
+     */
+    public long[] toLongArray() {
+        if (longs != null) {
+            return Arrays.copyOf(longs, size);
+        }
+        final long[] result = new long[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = toLong(doubles[i], i);
+        }
+        return result;
+    }
+
+    /**
+     * @throws ArithmeticException if a value is fractional, missing or out of the int range
+     */
+    public int[] toIntArray() {
+        final int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            final long value = longs != null ? longs[i] : toLong(doubles[i], i);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw new ArithmeticException("Value out of int range at index " + i + ": " + value);
+            }
+            result[i] = (int) value;
+        }
+        return result;
+    }
+
+    /**
+     * Hands the backing arrays back to the pool of the converter. The column must not be used afterwards.
+     */
+    public void release() {
+        releaseArray(longs);
+        releaseArray(doubles);
+        longs = null;
+        doubles = null;
+        size = 0;
+    }
+
+    private void releaseArray(long[] array) {
+        if (pool != null && array != null) {
+            pool.release(array);
+        }
+    }
+
+    private void releaseArray(double[] array) {
+        if (pool != null && array != null) {
+            pool.release(array);
+        }
+    }
+
+    private static long toLong(double value, int index) {
+        final long result = (long) value;
+        if (result != value) {
+            throw new ArithmeticException("Not an integral value at index " + index + ": " + value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The numeric properties of a JSON array of objects, one {@link NumericColumn} per property name. All columns have
+ * one value per object, objects without a numeric value for a property have a missing value in its column.
+ * Properties which never have a numeric value don't get a column.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class NumericColumns {
+
+    private final Map<String, NumericColumn> columns;
+    private final int rowCount;
+
+    NumericColumns(Map<String, NumericColumn> columns, int rowCount) {
+        this.columns = ImmutableMap.copyOf(columns);
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * @return the number of objects in the array
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the property names in the order of their first appearance
+     */
+    public Set<String> getNames() {
+        return columns.keySet();
+    }
+
+    /**
+     * @return the column of the property or {@code null} if it never had a numeric value
+     */
+    public NumericColumn get(String name) {
+        return columns.get(name);
+    }
+
+    /**
+     * @see NumericColumn#release()
+     */
+    public void release() {
+        for (NumericColumn column : columns.values()) {
+            column.release();
+        }
+    }
+}
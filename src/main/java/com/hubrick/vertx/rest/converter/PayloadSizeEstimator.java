@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Keeps a running estimate of the serialized payload size per type, so that converters can allocate
+ * output buffers which are large enough for most payloads without growing and copying.
+ * <p>
+ * The estimate is an exponentially weighted moving average of the recorded sizes with some headroom.
+ * Lost updates between concurrent writers only make the estimate slightly less accurate.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class PayloadSizeEstimator {
+
+    private static final int DEFAULT_INITIAL_SIZE_IN_BYTES = 256;
+    private static final int DEFAULT_MAX_SIZE_IN_BYTES = 1024 * 1024;
+    private static final int MAX_TRACKED_TYPES = 1024;
+
+    private final ConcurrentMap<Class<?>, Integer> averageSizes = new ConcurrentHashMap<>();
+    private final int initialSizeInBytes;
+    private final int maxSizeInBytes;
+
+    public PayloadSizeEstimator() {
+        this(DEFAULT_INITIAL_SIZE_IN_BYTES, DEFAULT_MAX_SIZE_IN_BYTES);
+    }
+
+    /**
+     * @param initialSizeInBytes The estimate for types which have not been seen yet
+     * @param maxSizeInBytes     The upper bound of any estimate. Larger payloads still work, the buffer just grows.
+     */
+    public PayloadSizeEstimator(int initialSizeInBytes, int maxSizeInBytes) {
+        checkArgument(initialSizeInBytes > 0, "initialSizeInBytes must be greater then 0");
+        checkArgument(maxSizeInBytes >= initialSizeInBytes, "maxSizeInBytes must be greater or equal to initialSizeInBytes");
+
+        this.initialSizeInBytes = initialSizeInBytes;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * @param type The type which is about to be serialized
+     * @return The number of bytes a buffer for the type should initially have
+     */
+    public int estimate(Class<?> type) {
+        final Integer averageSize = averageSizes.get(type);
+        if (averageSize == null) {
+            return initialSizeInBytes;
+        }
+        return (int) Math.min(maxSizeInBytes, averageSize + (averageSize >> 2) + 16L);
+    }
+
+    /**
+     * @param type         The serialized type
+     * @param sizeInBytes  The actual size of the serialized payload
+     */
+    public void record(Class<?> type, int sizeInBytes) {
+        final Integer averageSize = averageSizes.get(type);
+        if (averageSize != null) {
+            averageSizes.put(type, averageSize + ((sizeInBytes - averageSize) >> 2));
+        } else if (averageSizes.size() < MAX_TRACKED_TYPES) {
+            averageSizes.put(type, sizeInBytes);
+        }
+    }
+}
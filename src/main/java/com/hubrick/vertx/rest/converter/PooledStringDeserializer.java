@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Decodes string values through a {@link StringPool}. Everything but plain string tokens is left to Jackson's
+ * {@link StringDeserializer}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class PooledStringDeserializer extends StdScalarDeserializer<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final StringPool stringPool;
+
+    PooledStringDeserializer(StringPool stringPool) {
+        super(String.class);
+        this.stringPool = stringPool;
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            if (p.hasTextCharacters()) {
+                return stringPool.get(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            }
+            return stringPool.get(p.getText());
+        }
+        return StringDeserializer.instance.deserialize(p, ctxt);
+    }
+
+    @Override
+    public boolean isCachable() {
+        return true;
+    }
+}
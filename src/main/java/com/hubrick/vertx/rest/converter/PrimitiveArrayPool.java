@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of the backing arrays of {@link NumericColumn}s, so that decoding one large numeric response after the
+ * other doesn't allocate and grow fresh arrays every time. Arrays are handed out with their old content.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class PrimitiveArrayPool {
+
+    private final int maxArrays;
+    private final Queue<long[]> longArrays = new ConcurrentLinkedQueue<>();
+    private final Queue<double[]> doubleArrays = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger longArrayCount = new AtomicInteger();
+    private final AtomicInteger doubleArrayCount = new AtomicInteger();
+
+    PrimitiveArrayPool(int maxArrays) {
+        this.maxArrays = maxArrays;
+    }
+
+    long[] acquireLongs(int minLength) {
+        final long[] array = longArrays.poll();
+        if (array != null) {
+            longArrayCount.decrementAndGet();
+            if (array.length >= minLength) {
+                return array;
+            }
+        }
+        return new long[minLength];
+    }
+
+    double[] acquireDoubles(int minLength) {
+        final double[] array = doubleArrays.poll();
+        if (array != null) {
+            doubleArrayCount.decrementAndGet();
+            if (array.length >= minLength) {
+                return array;
+            }
+        }
+        return new double[minLength];
+    }
+
+    void release(long[] array) {
+        if (longArrayCount.incrementAndGet() <= maxArrays) {
+            longArrays.offer(array);
+        } else {
+            longArrayCount.decrementAndGet();
+        }
+    }
+
+    void release(double[] array) {
+        if (doubleArrayCount.incrementAndGet() <= maxArrays) {
+            doubleArrays.offer(array);
+        } else {
+            doubleArrayCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads and writes generated Protocol Buffers messages. Requires {@code com.google.protobuf:protobuf-java}.
+ * <p>
+ * Messages are parsed straight from the NIO buffers of the body and serialized into pooled buffers of the exact size.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class ProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Message> {
+
+    private final ConcurrentMap<Class<?>, Parser<? extends Message>> parsers = new ConcurrentHashMap<>();
+
+    public ProtobufHttpMessageConverter() {
+        super(MediaType.APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Message.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Message readInternal(Class<? extends Message> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        final ByteBuf body = httpInputMessage.getBody();
+        try {
+            final Parser<? extends Message> parser = getParser(clazz);
+            if (body.hasArray()) {
+                return parser.parseFrom(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes());
+            }
+            if (body.nioBufferCount() == 1) {
+                return parser.parseFrom(body.nioBuffer());
+            }
+            try (InputStream inputStream = new ByteBufInputStream(body)) {
+                return parser.parseFrom(inputStream);
+            }
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from protobuf.", e);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Message message, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        // The size is memoized by the message, so the buffer never has to grow. It's released by netty once the request has been flushed.
+        final int size = message.getSerializedSize();
+        final ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.buffer(size, size);
+        try {
+            final CodedOutputStream codedOutputStream = CodedOutputStream.newInstance(byteBuf.nioBuffer(0, size));
+            message.writeTo(codedOutputStream);
+            codedOutputStream.flush();
+            codedOutputStream.checkNoSpaceLeft();
+            byteBuf.writerIndex(size);
+            httpOutputMessage.write(byteBuf);
+        } catch (Exception e) {
+            byteBuf.release();
+            throw new HttpMessageConverterException("Error converting to protobuf.", e);
+        }
+    }
+
+    /**
+     * The parser is looked up reflectively once per class, later calls are plain map lookups.
+     */
+    private Parser<? extends Message> getParser(Class<? extends Message> clazz) {
+        return parsers.computeIfAbsent(clazz, key -> {
+            try {
+                return ((Message) key.getMethod("getDefaultInstance").invoke(null)).getParserForType();
+            } catch (ReflectiveOperationException e) {
+                throw new HttpMessageConverterException("Class " + key.getName() + " is not a generated protobuf message", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.MediaType;
+
+import javax.annotation.Nullable;
+
+/**
+ * Implemented by {@link HttpMessageConverter}s which can decode a response body as a sequence of elements while it's
+ * still arriving, see {@link com.hubrick.vertx.rest.RestClient#stream}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface StreamingHttpMessageConverter {
+
+    /**
+     * @param elementClass The class of a single element
+     * @param mediaType    The content type of the response
+     * @return true if the converter can decode the elements
+     */
+    boolean canStream(Class<?> elementClass, @Nullable MediaType mediaType);
+
+    /**
+     * @param elementClass The class of a single element
+     * @param mediaType    The content type of the response
+     * @return A new decoder for a single response
+     */
+    <T> ChunkDecoder<T> createChunkDecoder(Class<T> elementClass, @Nullable MediaType mediaType);
+}
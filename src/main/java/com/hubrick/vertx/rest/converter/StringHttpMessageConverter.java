@@ -17,17 +17,24 @@ package com.hubrick.vertx.rest.converter;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.hubrick.vertx.rest.HttpInputMessage;
 import com.hubrick.vertx.rest.HttpOutputMessage;
 import com.hubrick.vertx.rest.MediaType;
 import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.vertx.core.http.HttpHeaders;
 
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.List;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * @author Emir Dizdarevic
  * @since 1.0.0
@@ -37,8 +44,10 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
     private static final Charset DEFAULT_CHARSET = Charsets.UTF_8;
 
     private final Charset defaultCharset;
-    private final List<Charset> availableCharsets;
+    private List<Charset> acceptedCharsets;
     private boolean writeAcceptCharset = true;
+    private final boolean acceptedCharsetsOverridden = overridesGetAcceptedCharsets(getClass());
+    private volatile String acceptCharsetHeader;
 
     public StringHttpMessageConverter() {
         this(DEFAULT_CHARSET);
@@ -47,7 +56,7 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
     public StringHttpMessageConverter(Charset defaultCharset) {
         super(new MediaType("text", "plain", defaultCharset), MediaType.ALL);
         this.defaultCharset = defaultCharset;
-        this.availableCharsets = new ArrayList<Charset>(Charset.availableCharsets().values());
+        this.acceptedCharsets = ImmutableList.copyOf(ImmutableSet.of(defaultCharset, Charsets.UTF_8, Charsets.ISO_8859_1));
     }
 
     /**
@@ -60,6 +69,20 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
         this.writeAcceptCharset = writeAcceptCharset;
     }
 
+    /**
+     * Sets the charsets listed in the {@code Accept-Charset} header.
+     * <p>Default is the default charset, UTF-8 and ISO-8859-1. Pass {@link Charset#availableCharsets()} for the
+     * complete list of the JVM, which adds several KB to every request.
+     *
+     * @param acceptedCharsets The accepted charsets in the order of preference
+     * @since 3.2.0
+     */
+    public void setAcceptedCharsets(List<Charset> acceptedCharsets) {
+        checkNotNull(acceptedCharsets, "acceptedCharsets must not be null");
+        this.acceptedCharsets = ImmutableList.copyOf(acceptedCharsets);
+        this.acceptCharsetHeader = null;
+    }
+
     @Override
     protected boolean supports(Class<?> clazz) {
         return String.class.equals(clazz);
@@ -69,9 +92,8 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
     protected String readInternal(Class<? extends String> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
         try {
             final Charset charset = getContentTypeCharset(MediaType.parseMediaType(httpInputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE)));
-            byte[] bytes = new byte[httpInputMessage.getBody().readableBytes()];
-            httpInputMessage.getBody().readBytes(bytes);
-            return new String(bytes, charset);
+            // Decodes over the NIO buffers of the body, no intermediate byte array
+            return httpInputMessage.getBody().toString(charset);
         } catch (Exception e) {
             throw new HttpMessageConverterException("Failed to read http body", e);
         }
@@ -81,10 +103,10 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
     protected void writeInternal(String object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
         try {
             if (this.writeAcceptCharset) {
-                httpOutputMessage.getHeaders().set(HttpHeaders.ACCEPT_CHARSET, Joiner.on(",").join(getAcceptedCharsets()));
+                httpOutputMessage.getHeaders().set(HttpHeaders.ACCEPT_CHARSET, getAcceptCharsetHeader());
             }
             final Charset charset = getContentTypeCharset(MediaType.parseMediaType(httpOutputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE)));
-            httpOutputMessage.write(Unpooled.unmodifiableBuffer(Unpooled.wrappedBuffer(object.getBytes(charset))));
+            httpOutputMessage.write(encode(object, charset));
         } catch (Exception e) {
             throw new HttpMessageConverterException("Failed to write http body", e);
         }
@@ -92,12 +114,66 @@ public class StringHttpMessageConverter extends AbstractHttpMessageConverter<Str
 
     /**
      * Return the list of supported {@link Charset}s.
-     * <p>By default, returns {@link Charset#availableCharsets()}.
+     * <p>By default, returns the charsets set with {@link #setAcceptedCharsets(List)}.
      * Can be overridden in subclasses.
      * @return the list of accepted charsets
      */
     protected List<Charset> getAcceptedCharsets() {
-        return this.availableCharsets;
+        return this.acceptedCharsets;
+    }
+
+    /**
+     * The header value is joined once instead of on every write, unless a subclass overrides
+     * {@link #getAcceptedCharsets()} and may return different charsets over time.
+     */
+    private String getAcceptCharsetHeader() {
+        if (acceptedCharsetsOverridden) {
+            return Joiner.on(",").join(getAcceptedCharsets());
+        }
+        String acceptCharsetHeader = this.acceptCharsetHeader;
+        if (acceptCharsetHeader == null) {
+            acceptCharsetHeader = Joiner.on(",").join(getAcceptedCharsets());
+            this.acceptCharsetHeader = acceptCharsetHeader;
+        }
+        return acceptCharsetHeader;
+    }
+
+    private static boolean overridesGetAcceptedCharsets(Class<?> clazz) {
+        for (Class<?> current = clazz; current != StringHttpMessageConverter.class; current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("getAcceptedCharsets");
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared on this level
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Encodes straight into the body buffer instead of going through {@link String#getBytes(Charset)}.
+     */
+    private ByteBuf encode(String object, Charset charset) {
+        if (Charsets.UTF_8.equals(charset)) {
+            final ByteBuf byteBuf = Unpooled.buffer(utf8Length(object));
+            ByteBufUtil.writeUtf8(byteBuf, object);
+            return byteBuf;
+        }
+        return ByteBufUtil.encodeString(UnpooledByteBufAllocator.DEFAULT, CharBuffer.wrap(object), charset);
+    }
+
+    private static int utf8Length(String string) {
+        int length = string.length();
+        for (int i = 0; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            if (c >= 0x800) {
+                length += 2;
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        // Surrogate pairs are counted with 6 bytes but only take 4, so this is an upper bound
+        return length;
     }
 
     private Charset getContentTypeCharset(MediaType contentType) {
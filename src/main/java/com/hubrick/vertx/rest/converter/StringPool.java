@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Bounded pool which canonicalizes decoded string values, so that repeated values like codes, country or currency
+ * names share one instance across all responses decoded with the pool instead of one per occurrence.
+ * <p>
+ * The pool is a fixed size hash table without chaining: a string which hashes to an occupied slot replaces the
+ * previous one, so memory stays bounded and frequent values win over time. Lookups compare the characters in the
+ * parser's buffer, a hit doesn't create a String at all. Strings longer than the configured maximum are never pooled.
+ * <p>
+ * Instances are thread safe and meant to be shared by the converters of one client.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public final class StringPool {
+
+    // Object header plus fields of String and header of its char[] on a 64 bit JVM with compressed oops
+    private static final int STRING_OVERHEAD_BYTES = 24 + 16;
+
+    private final String[] slots;
+    private final int mask;
+    private final int maxLength;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * Creates a pool of 4096 slots for strings of up to 64 characters.
+     */
+    public StringPool() {
+        this(4096, 64);
+    }
+
+    /**
+     * @param capacity  The number of slots, rounded up to the next power of two
+     * @param maxLength The maximal length of the pooled strings
+     */
+    public StringPool(int capacity, int maxLength) {
+        checkArgument(capacity > 0 && capacity <= 1 << 30, "capacity must be between 1 and 2^30");
+        checkArgument(maxLength > 0, "maxLength must be positive");
+
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return The pooled instance equal to the given characters, created from them if there is none
+     */
+    public String get(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        final int slot = spread(hash) & mask;
+        final String pooled = slots[slot];
+        if (pooled != null && matches(pooled, chars, offset, length)) {
+            recordHit(length);
+            return pooled;
+        }
+
+        misses.increment();
+        final String value = new String(chars, offset, length);
+        // Strings are safely published through their final fields, a lost race only costs a miss
+        slots[slot] = value;
+        return value;
+    }
+
+    /**
+     * @return The pooled instance equal to the given string, which becomes the pooled one if there is none
+     */
+    public String get(String value) {
+        checkNotNull(value, "value must not be null");
+        if (value.length() > maxLength) {
+            return value;
+        }
+
+        final int slot = spread(value.hashCode()) & mask;
+        final String pooled = slots[slot];
+        if (pooled != null && pooled.equals(value)) {
+            recordHit(value.length());
+            return pooled;
+        }
+
+        misses.increment();
+        slots[slot] = value;
+        return value;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The share of lookups answered with a pooled instance, {@code 0} if there weren't any lookups yet
+     */
+    public double getHitRate() {
+        final long hitCount = hits.sum();
+        final long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0D : (double) hitCount / lookups;
+    }
+
+    /**
+     * @return An estimate of the heap not allocated because of hits, assuming a 64 bit JVM with compressed oops
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    private void recordHit(int length) {
+        hits.increment();
+        bytesSaved.add(STRING_OVERHEAD_BYTES + ((2L * length + 7) & ~7));
+    }
+
+    private static boolean matches(String pooled, char[] chars, int offset, int length) {
+        if (pooled.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (pooled.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool{hitRate=" + getHitRate() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", bytesSaved=" + getBytesSaved() + "}";
+    }
+}
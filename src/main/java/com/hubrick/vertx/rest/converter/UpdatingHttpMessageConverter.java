@@ -0,0 +1,46 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A converter which can read a response body into an existing instance instead of creating a new one.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public interface UpdatingHttpMessageConverter {
+
+    /**
+     * @param clazz     The class of the response body
+     * @param mediaType The content type of the response
+     * @return true if instances of the class can be updated in place
+     */
+    boolean canUpdate(Class<?> clazz, @Nullable MediaType mediaType);
+
+    /**
+     * @param clazz            The class of the response body
+     * @param target           The instance to update
+     * @param httpInputMessage The response
+     * @return The updated instance, which is the target unless it couldn't be updated in place
+     */
+    <T> T update(Class<T> clazz, T target, HttpInputMessage httpInputMessage) throws HttpMessageConverterException;
+}
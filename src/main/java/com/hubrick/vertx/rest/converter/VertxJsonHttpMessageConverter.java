@@ -0,0 +1,127 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads and writes Vert.x {@link JsonObject}s and {@link JsonArray}s straight from and into the body buffers. The body
+ * is parsed once into the maps and lists backing the JSON types, without an intermediate String and without POJO binding.
+ * <p>
+ * Register it before the {@link JacksonJsonHttpMessageConverter}, which would otherwise bind the JSON types as beans.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class VertxJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final PayloadSizeEstimator payloadSizeEstimator = new PayloadSizeEstimator();
+    private final ObjectReader jsonObjectReader;
+    private final ObjectReader jsonArrayReader;
+    private final ObjectWriter objectWriter;
+
+    /**
+     * Uses {@link Json#mapper}, so the JSON types are (de)serialized exactly like by Vert.x itself.
+     * The mapper must be configured before the converter is created.
+     */
+    public VertxJsonHttpMessageConverter() {
+        this(Json.mapper);
+    }
+
+    /**
+     * @param objectMapper The mapper used for parsing and writing. It must be able to serialize {@link JsonObject}
+     *                     and {@link JsonArray}, like {@link Json#mapper}.
+     */
+    public VertxJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(new MediaType("application", "json", Charsets.UTF_8), new MediaType("application", "*+json", Charsets.UTF_8));
+        checkNotNull(objectMapper, "objectMapper must not be null");
+
+        this.jsonObjectReader = objectMapper.readerFor(new TypeReference<Map<String, Object>>() {
+        });
+        this.jsonArrayReader = objectMapper.readerFor(new TypeReference<List<Object>>() {
+        });
+        this.objectWriter = objectMapper.writer();
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonObject.class == clazz || JsonArray.class == clazz;
+    }
+
+    /**
+     * @return The {@link JsonObject} or {@link JsonArray} of the body or null if the body is the JSON {@code null}
+     */
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage httpInputMessage) throws HttpMessageConverterException {
+        try {
+            if (JsonObject.class == clazz) {
+                final Map<String, Object> map = readValue(jsonObjectReader, httpInputMessage.getBody());
+                return map != null ? new JsonObject(map) : null;
+            } else {
+                final List<Object> list = readValue(jsonArrayReader, httpInputMessage.getBody());
+                return list != null ? new JsonArray(list) : null;
+            }
+        } catch (IOException e) {
+            throw new HttpMessageConverterException("Error converting from json.", e);
+        }
+    }
+
+    private static <T> T readValue(ObjectReader objectReader, ByteBuf body) throws IOException {
+        if (body.hasArray()) {
+            return objectReader.readValue(body.array(), body.arrayOffset() + body.readerIndex(), body.readableBytes());
+        }
+        try (InputStream inputStream = new ByteBufInputStream(body)) {
+            return objectReader.readValue(inputStream);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, HttpOutputMessage httpOutputMessage) throws HttpMessageConverterException {
+        // Serialize straight into a pooled buffer. It's released by netty once the request has been flushed.
+        final ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.buffer(payloadSizeEstimator.estimate(object.getClass()));
+        try {
+            objectWriter.writeValue((OutputStream) new ByteBufOutputStream(byteBuf), object);
+            payloadSizeEstimator.record(object.getClass(), byteBuf.readableBytes());
+            httpOutputMessage.write(byteBuf);
+        } catch (Exception e) {
+            byteBuf.release();
+            throw new HttpMessageConverterException("Error converting to json.", e);
+        }
+    }
+}
@@ -119,8 +119,6 @@ public abstract class HttpStatusCodeException extends RestClientException {
     public String getResponseBodyAsString() {
         final ByteBuf bodyByteBuf = httpInputMessage.getBody();
         final String contentEncoding = httpInputMessage.getHeaders().get(HttpHeaders.CONTENT_ENCODING);
-        byte[] bytes = new byte[bodyByteBuf.readableBytes()];
-        bodyByteBuf.readBytes(bytes);
-        return new String(bytes, contentEncoding != null ? Charset.forName(contentEncoding) : Charset.forName(DEFAULT_CHARSET));
+        return bodyByteBuf.toString(contentEncoding != null ? Charset.forName(contentEncoding) : Charset.forName(DEFAULT_CHARSET));
     }
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.google.common.base.Joiner;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.converter.HttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Formats the values of the Accept header. The default value only depends on the converters, so it's
+ * computed once per client instead of on every request.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class AcceptHeaders {
+
+    private static final double NOT_PREFERRED_QUALITY_VALUE = 0.9;
+
+    private AcceptHeaders() {
+    }
+
+    static String format(List<MediaType> mediaTypes) {
+        final List<MediaType> formattedMediaTypes = stripDownCharset(mediaTypes);
+        MediaType.sortBySpecificity(formattedMediaTypes);
+        return Joiner.on(",").join(formattedMediaTypes);
+    }
+
+    /**
+     * Lists the media types of all converters. If a converter is {@link HttpMessageConverter#isPreferredForAccept() preferred},
+     * the media types of all others get a lower quality value.
+     */
+    static String formatDefault(List<HttpMessageConverter> httpMessageConverters) {
+        final boolean preferredPresent = httpMessageConverters.stream().anyMatch(HttpMessageConverter::isPreferredForAccept);
+        final List<MediaType> formattedMediaTypes = new LinkedList<>();
+        for (HttpMessageConverter httpMessageConverter : httpMessageConverters) {
+            final List<MediaType> mediaTypes = stripDownCharset(httpMessageConverter.getSupportedMediaTypes());
+            if (preferredPresent && !httpMessageConverter.isPreferredForAccept()) {
+                formattedMediaTypes.addAll(lowerQualityValue(mediaTypes));
+            } else {
+                formattedMediaTypes.addAll(mediaTypes);
+            }
+        }
+
+        MediaType.sortBySpecificity(formattedMediaTypes);
+        // Stable, so the order by specificity is kept among media types of the same quality
+        formattedMediaTypes.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        return Joiner.on(",").join(formattedMediaTypes);
+    }
+
+    private static List<MediaType> stripDownCharset(List<MediaType> mediaTypes) {
+        final List<MediaType> result = new ArrayList<MediaType>(mediaTypes.size());
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.getCharSet() != null) {
+                mediaType = new MediaType(mediaType.getType(), mediaType.getSubtype());
+            }
+            result.add(mediaType);
+        }
+        return result;
+    }
+
+    private static List<MediaType> lowerQualityValue(List<MediaType> mediaTypes) {
+        final List<MediaType> result = new ArrayList<MediaType>(mediaTypes.size());
+        for (MediaType mediaType : mediaTypes) {
+            result.add(new MediaType(mediaType.getType(), mediaType.getSubtype(), NOT_PREFERRED_QUALITY_VALUE));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.RequestCacheOptions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps an exponentially weighted moving average of the upstream latency and error rate per cache partition
+ * and derives the adaptive time to live for new cache entries from it.
+ * <p>
+ * Like the rest of the request cache it's only accessed from the context of the {@link DefaultRestClient}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+class AdaptiveTtlTracker {
+
+    private static final double SMOOTHING_FACTOR = 0.2;
+    private static final int MAX_PARTITIONS = 1024;
+
+    private final Map<String, PartitionStats> partitions = new LinkedHashMap<String, PartitionStats>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PartitionStats> eldest) {
+            return size() > MAX_PARTITIONS;
+        }
+    };
+
+    void record(String partition, long latencyMillis, boolean failed) {
+        final PartitionStats partitionStats = partitions.get(partition);
+        if (partitionStats == null) {
+            partitions.put(partition, new PartitionStats(latencyMillis, failed ? 1D : 0D));
+        } else {
+            partitionStats.latencyMillis += SMOOTHING_FACTOR * (latencyMillis - partitionStats.latencyMillis);
+            partitionStats.errorRate += SMOOTHING_FACTOR * ((failed ? 1D : 0D) - partitionStats.errorRate);
+        }
+    }
+
+    int getExpiresAfterWriteMillis(String partition, RequestCacheOptions requestCacheOptions) {
+        final int minTtl = requestCacheOptions.getMinExpiresAfterWriteMillis();
+        final int maxTtl = requestCacheOptions.getMaxExpiresAfterWriteMillis();
+        final PartitionStats partitionStats = partitions.get(partition);
+        if (partitionStats == null) {
+            return minTtl;
+        }
+
+        final double healthyLatency = requestCacheOptions.getAdaptiveHealthyLatencyMillis();
+        final double degradedLatency = requestCacheOptions.getAdaptiveDegradedLatencyMillis();
+        final double latencyLoad = clamp((partitionStats.latencyMillis - healthyLatency) / (degradedLatency - healthyLatency));
+        final double errorLoad = clamp(partitionStats.errorRate / requestCacheOptions.getAdaptiveErrorRateThreshold());
+
+        return minTtl + (int) Math.round((maxTtl - minTtl) * Math.max(latencyLoad, errorLoad));
+    }
+
+    private static double clamp(double value) {
+        return Math.min(1D, Math.max(0D, value));
+    }
+
+    private static class PartitionStats {
+
+        private double latencyMillis;
+        private double errorRate;
+
+        private PartitionStats(double latencyMillis, double errorRate) {
+            this.latencyMillis = latencyMillis;
+            this.errorRate = errorRate;
+        }
+    }
+}
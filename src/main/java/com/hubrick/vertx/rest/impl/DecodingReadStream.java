@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.converter.ChunkDecoder;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.streams.ReadStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+/**
+ * A {@link ReadStream} of the elements decoded from a response body while it's arriving. Pausing the stream
+ * pauses the underlying response, so at most the elements of the chunks which are already in flight are buffered.
+ * The response stays paused until a handler is set.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+class DecodingReadStream<T> implements ReadStream<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(DecodingReadStream.class);
+
+    private final HttpClientResponse httpClientResponse;
+    private final ChunkDecoder<T> chunkDecoder;
+    private Handler<Throwable> exceptionHandler;
+    private Handler<T> handler;
+    private Handler<Void> endHandler;
+
+    // Status variables
+    private boolean paused = false;
+    private boolean responseEnded = false;
+    private boolean ended = false;
+    private boolean failed = false;
+    private boolean draining = false;
+
+    DecodingReadStream(HttpClientResponse httpClientResponse, ChunkDecoder<T> chunkDecoder, @Nullable Handler<Throwable> exceptionHandler) {
+        this.httpClientResponse = httpClientResponse;
+        this.chunkDecoder = chunkDecoder;
+        this.exceptionHandler = exceptionHandler;
+
+        httpClientResponse.pause();
+        httpClientResponse.handler(buffer -> {
+            if (!failed) {
+                chunkDecoder.write(buffer.getByteBuf());
+                drain();
+            }
+        });
+        httpClientResponse.endHandler(aVoid -> {
+            responseEnded = true;
+            chunkDecoder.end();
+            drain();
+        });
+        httpClientResponse.exceptionHandler(this::fail);
+    }
+
+    @Override
+    public ReadStream<T> exceptionHandler(Handler<Throwable> handler) {
+        this.exceptionHandler = handler;
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> handler(Handler<T> handler) {
+        this.handler = handler;
+        if (handler != null) {
+            resumeResponse();
+        } else if (!responseEnded) {
+            httpClientResponse.pause();
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> pause() {
+        paused = true;
+        if (!responseEnded) {
+            httpClientResponse.pause();
+        }
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> resume() {
+        paused = false;
+        resumeResponse();
+        return this;
+    }
+
+    @Override
+    public ReadStream<T> endHandler(Handler<Void> endHandler) {
+        this.endHandler = endHandler;
+        return this;
+    }
+
+    private void resumeResponse() {
+        drain();
+        if (!paused && !failed && !responseEnded && handler != null) {
+            httpClientResponse.resume();
+        }
+    }
+
+    private void drain() {
+        if (draining) {
+            return;
+        }
+
+        draining = true;
+        try {
+            while (!paused && !failed && !ended && handler != null) {
+                if (chunkDecoder.hasNext()) {
+                    handler.handle(chunkDecoder.next());
+                } else {
+                    if (responseEnded) {
+                        ended = true;
+                        if (endHandler != null) {
+                            endHandler.handle(null);
+                        }
+                    }
+                    break;
+                }
+            }
+        } catch (Throwable t) {
+            fail(t);
+        } finally {
+            draining = false;
+        }
+    }
+
+    private void fail(Throwable t) {
+        if (failed || ended) {
+            return;
+        }
+
+        failed = true;
+        if (exceptionHandler != null) {
+            exceptionHandler.handle(t);
+        } else {
+            log.error("No exceptionHandler found to handler exception.", t);
+        }
+    }
+}
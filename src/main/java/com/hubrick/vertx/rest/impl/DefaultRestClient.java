@@ -16,15 +16,20 @@
 package com.hubrick.vertx.rest.impl;
 
 import com.google.common.collect.LinkedListMultimap;
+import com.hubrick.vertx.rest.PrefetchOptions;
+import com.hubrick.vertx.rest.RequestCacheOptions;
 import com.hubrick.vertx.rest.RestClient;
 import com.hubrick.vertx.rest.RestClientOptions;
 import com.hubrick.vertx.rest.RestClientRequest;
 import com.hubrick.vertx.rest.RestClientResponse;
 import com.hubrick.vertx.rest.converter.HttpMessageConverter;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
 import org.apache.commons.collections4.keyvalue.MultiKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,10 +51,14 @@ public class DefaultRestClient implements RestClient {
     private final Map<MultiKey, RestClientResponse> requestCache = new HashMap<>();
     private final Map<MultiKey, Long> evictionTimersCache = new HashMap<>();
     private final LinkedListMultimap<MultiKey, DefaultRestClientRequest> runningRequests = LinkedListMultimap.create();
+    private final AdaptiveTtlTracker adaptiveTtlTracker = new AdaptiveTtlTracker();
+    private final RequestPrefetcher requestPrefetcher;
 
     private final Vertx vertx;
     private final HttpClient httpClient;
     private final List<HttpMessageConverter> httpMessageConverters;
+    private final HttpMessageConverterResolver httpMessageConverterResolver;
+    private final CharSequence defaultAcceptHeader;
     private final RestClientOptions options;
     private Handler<Throwable> exceptionHandler;
 
@@ -60,8 +69,11 @@ public class DefaultRestClient implements RestClient {
     public DefaultRestClient(Vertx vertx, final RestClientOptions clientOptions, List<HttpMessageConverter> httpMessageConverters) {
         this.vertx = vertx;
         this.httpMessageConverters = httpMessageConverters;
+        this.httpMessageConverterResolver = new HttpMessageConverterResolver(httpMessageConverters);
+        this.defaultAcceptHeader = HttpHeaders.createOptimized(AcceptHeaders.formatDefault(httpMessageConverters));
         this.httpClient = vertx.createHttpClient(clientOptions);
         this.options = new RestClientOptions(clientOptions);
+        this.requestPrefetcher = options.getPrefetchOptions() != null ? new RequestPrefetcher(options.getPrefetchOptions()) : null;
     }
 
     Map<MultiKey, RestClientResponse> getRequestCache() {
@@ -76,6 +88,52 @@ public class DefaultRestClient implements RestClient {
         return runningRequests;
     }
 
+    HttpMessageConverterResolver getHttpMessageConverterResolver() {
+        return httpMessageConverterResolver;
+    }
+
+    /**
+     * @return The pre-encoded Accept header for requests which don't set one
+     */
+    CharSequence getDefaultAcceptHeader() {
+        return defaultAcceptHeader;
+    }
+
+    AdaptiveTtlTracker getAdaptiveTtlTracker() {
+        return adaptiveTtlTracker;
+    }
+
+    /**
+     * Feeds a cacheable GET request to the {@link RequestPrefetcher} and issues the predicted follow-up requests
+     * with the same headers. The prefetched responses end up in the request cache only.
+     */
+    void prefetchFollowUps(String uri, MultiMap headers, Class<?> responseClass, RequestCacheOptions requestCacheOptions) {
+        if (requestPrefetcher == null) {
+            return;
+        }
+
+        final PrefetchOptions prefetchOptions = requestPrefetcher.getPrefetchOptions();
+        final String sequence = prefetchOptions.getSequenceHeader() != null ? headers.get(prefetchOptions.getSequenceHeader()) : null;
+        final List<RequestPrefetcher.Prediction> predictions = requestPrefetcher.onRequest(uri, sequence, responseClass, requestCacheOptions);
+        if (predictions.isEmpty()) {
+            return;
+        }
+
+        final MultiMap prefetchHeaders = MultiMap.caseInsensitiveMultiMap().addAll(headers);
+        for (RequestPrefetcher.Prediction prediction : predictions) {
+            vertx.runOnContext(aVoid -> {
+                log.debug("Prefetching {}", prediction.getUri());
+                final DefaultRestClientRequest<?> restClientRequest = handleRequest(HttpMethod.GET, prediction.getUri(), prediction.getResponseClass(), restClientResponse -> {
+                });
+                restClientRequest.markAsPrefetch();
+                restClientRequest.setRequestCache(prediction.getRequestCacheOptions());
+                restClientRequest.headers().addAll(prefetchHeaders);
+                restClientRequest.exceptionHandler(t -> log.debug("Prefetching {} failed: {}", prediction.getUri(), t.getMessage()));
+                restClientRequest.end();
+            });
+        }
+    }
+
     @Override
     public RestClient exceptionHandler(Handler<Throwable> handler) {
         this.exceptionHandler = handler;
@@ -137,6 +195,14 @@ public class DefaultRestClient implements RestClient {
         return handleRequest(method, uri, responseClass, responseHandler);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> RestClientRequest<ReadStream<T>> stream(HttpMethod method, String uri, Class<T> elementClass, Handler<RestClientResponse<ReadStream<T>>> responseHandler) {
+        final DefaultRestClientRequest<ReadStream<T>> restClientRequest = handleRequest(method, uri, (Class<ReadStream<T>>) (Class) ReadStream.class, responseHandler);
+        restClientRequest.streamElementsOf(elementClass);
+        return restClientRequest;
+    }
+
     private <T> DefaultRestClientRequest<T> handleRequest(HttpMethod method, String uri, Class<T> responseClass, Handler<RestClientResponse<T>> responseHandler) {
         return new DefaultRestClientRequest<>(
                 vertx,
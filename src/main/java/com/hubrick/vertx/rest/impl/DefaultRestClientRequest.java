@@ -16,7 +16,6 @@
 package com.hubrick.vertx.rest.impl;
 
 import com.google.common.base.Charsets;
-import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
@@ -26,7 +25,11 @@ import com.hubrick.vertx.rest.MediaType;
 import com.hubrick.vertx.rest.RequestCacheOptions;
 import com.hubrick.vertx.rest.RestClientRequest;
 import com.hubrick.vertx.rest.RestClientResponse;
+import com.hubrick.vertx.rest.converter.ChunkDecoder;
 import com.hubrick.vertx.rest.converter.HttpMessageConverter;
+import com.hubrick.vertx.rest.converter.IncrementalDecoder;
+import com.hubrick.vertx.rest.converter.IncrementalHttpMessageConverter;
+import com.hubrick.vertx.rest.converter.StreamingHttpMessageConverter;
 import com.hubrick.vertx.rest.exception.HttpClientErrorException;
 import com.hubrick.vertx.rest.exception.HttpServerErrorException;
 import com.hubrick.vertx.rest.exception.RestClientException;
@@ -42,17 +45,18 @@ import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
 import org.apache.commons.collections4.keyvalue.MultiKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -77,6 +81,7 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
     private final List<HttpMessageConverter> httpMessageConverters;
     private final HttpClientRequest httpClientRequest;
     private final MultiMap globalHeaders;
+    private final Class<T> responseClass;
     private final Handler<RestClientResponse<T>> responseHandler;
     private Handler<Throwable> exceptionHandler;
 
@@ -87,6 +92,11 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
     private boolean headersCopied = false;
     private boolean globalHeadersPopulated = false;
     private MultiKey cacheKey;
+    private boolean requestStarted = false;
+    private long requestStartedAtNanos;
+    private boolean upstreamResultRecorded = false;
+    private boolean prefetch = false;
+    private Class<?> streamElementClass;
 
     DefaultRestClientRequest(Vertx vertx,
                              DefaultRestClient restClient,
@@ -113,6 +123,7 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
         this.method = method;
         this.uri = uri;
         this.httpMessageConverters = httpMessageConverters;
+        this.responseClass = responseClass;
         this.responseHandler = responseHandler;
         this.globalHeaders = globalHeaders;
 
@@ -221,13 +232,17 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
 
     @Override
     public RestClientRequest<T> setRequestCache(RequestCacheOptions requestCacheOptions) {
+        if (streamElementClass != null) {
+            log.debug("Ignoring request cache options for streaming request to {}", uri);
+            return this;
+        }
         this.requestCacheOptions = requestCacheOptions;
         return this;
     }
 
     @Override
     public void setAcceptHeader(List<MediaType> mediaTypes) {
-        bufferedHttpOutputMessage.getHeaders().set(HttpHeaders.ACCEPT, formatForAcceptHeader(mediaTypes));
+        bufferedHttpOutputMessage.getHeaders().set(HttpHeaders.ACCEPT, AcceptHeaders.format(mediaTypes));
     }
 
     @Override
@@ -263,10 +278,30 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
         };
 
         this.exceptionHandler = wrapped;
-        httpClientRequest.exceptionHandler(wrapped);
+        httpClientRequest.exceptionHandler(t -> {
+            recordUpstreamResult(true);
+            wrapped.handle(t);
+        });
         return this;
     }
 
+    /**
+     * Marks this request as issued by the {@link RequestPrefetcher}. Prefetches only populate the cache, they are
+     * dropped if the response is already cached or in flight and they are not learned from.
+     */
+    void markAsPrefetch() {
+        this.prefetch = true;
+    }
+
+    /**
+     * Turns this request into a streaming request. A successful response body is decoded element by element while it
+     * arrives instead of being buffered. Streaming responses are never cached.
+     */
+    void streamElementsOf(Class<?> elementClass) {
+        this.streamElementClass = elementClass;
+        this.requestCacheOptions = null;
+    }
+
     private void handleRequest(Object requestObject, Boolean endRequest) {
         try {
             if (requestObject == null) {
@@ -275,19 +310,19 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
                 }
             } else {
                 final Class<?> requestType = requestObject.getClass();
-                final MediaType requestContentType = getContentType();
+                final String requestContentTypeHeader = bufferedHttpOutputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE);
 
-                for (HttpMessageConverter httpMessageConverter : httpMessageConverters) {
-                    if (httpMessageConverter.canWrite(requestType, requestContentType)) {
-                        httpMessageConverter.write(requestObject, requestContentType, bufferedHttpOutputMessage);
+                final HttpMessageConverter httpMessageConverter = restClient.getHttpMessageConverterResolver().resolveWriter(requestType, requestContentTypeHeader);
+                if (httpMessageConverter != null) {
+                    httpMessageConverter.write(requestObject, getContentType(), bufferedHttpOutputMessage);
 
-                        if (endRequest) {
-                            endRequest();
-                        }
-                        return;
+                    if (endRequest) {
+                        endRequest();
                     }
+                    return;
                 }
 
+                final MediaType requestContentType = getContentType();
                 String message = "Could not write request: no suitable HttpMessageConverter found for request type [" + requestType.getName() + "]";
                 if (requestContentType != null) {
                     message += " and content type [" + requestContentType + "]";
@@ -296,6 +331,9 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
                 throw new RestClientException(message);
             }
         } catch (Throwable t) {
+            if (!requestStarted) {
+                bufferedHttpOutputMessage.release();
+            }
             if (exceptionHandler != null) {
                 exceptionHandler.handle(t);
             } else {
@@ -320,8 +358,22 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
                     finishRequest(Optional.of(cacheKey));
                 } else {
                     final RestClientResponse cachedRestClientResponse = restClient.getRequestCache().get(cacheKey);
+                    final boolean running = restClient.getRunningRequests().containsKey(cacheKey) && !restClient.getRunningRequests().get(cacheKey).isEmpty();
+                    if (prefetch) {
+                        if (cachedRestClientResponse == null && !running) {
+                            log.debug("Cache PREFETCH. Proceeding with request for key {}", cacheKey);
+                            exceptionHandler(createExceptionPropagatingHandler());
+                            finishRequest(Optional.of(cacheKey));
+                        } else {
+                            bufferedHttpOutputMessage.release();
+                        }
+                        return;
+                    }
+
+                    restClient.prefetchFollowUps(uri, bufferedHttpOutputMessage.getHeaders(), responseClass, requestCacheOptions);
                     if (cachedRestClientResponse != null) {
                         log.debug("Cache HIT. Retrieving entry from cache for key {}", cacheKey);
+                        bufferedHttpOutputMessage.release();
                         resetExpires(cacheKey);
                         vertx.runOnContext(aVoid -> {
                             try {
@@ -335,8 +387,9 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
                                 }
                             }
                         });
-                    } else if (restClient.getRunningRequests().containsKey(cacheKey) && !restClient.getRunningRequests().get(cacheKey).isEmpty()) {
+                    } else if (running) {
                         log.debug("Cache FUTURE HIT for key {}", cacheKey);
+                        bufferedHttpOutputMessage.release();
                         restClient.getRunningRequests().put(cacheKey, this);
                     } else {
                         log.debug("Cache MISS. Proceeding with request for key {}", cacheKey);
@@ -378,6 +431,7 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
 
     private void handleResponse(HttpClientResponse httpClientResponse, Class clazz) {
         final Integer firstStatusDigit = httpClientResponse.statusCode() / 100;
+        recordUpstreamResult(firstStatusDigit == 5);
         if (firstStatusDigit == 4 || firstStatusDigit == 5) {
             httpClientResponse.bodyHandler((buffer) -> {
                 httpClientResponse.exceptionHandler(null);
@@ -397,8 +451,11 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
                 }
                 handleException(exception);
             });
+        } else if (streamElementClass != null) {
+            handleStreamingResponse(httpClientResponse, streamElementClass);
         } else {
-            httpClientResponse.bodyHandler((buffer) -> {
+            final IncrementalDecoder incrementalDecoder = createIncrementalDecoder(httpClientResponse, clazz);
+            final Handler<Buffer> bodyHandler = (buffer) -> {
                 httpClientResponse.exceptionHandler(null);
                 if (log.isDebugEnabled()) {
                     final String body = new String(buffer.getBytes(), Charsets.UTF_8);
@@ -406,18 +463,70 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
                 }
 
                 final RestClientResponse<T> restClientResponse = new DefaultRestClientResponse(
-                        httpMessageConverters,
+                        restClient.getHttpMessageConverterResolver(),
                         clazz,
                         createHttpInputMessage(buffer.getByteBuf(), httpClientResponse),
                         httpClientResponse,
-                        exceptionHandler
+                        exceptionHandler,
+                        incrementalDecoder
                 );
 
                 handleResponse(restClientResponse);
-            });
+            };
+
+            if (incrementalDecoder == null) {
+                httpClientResponse.bodyHandler(bodyHandler);
+            } else {
+                // The body is still aggregated for caching and repeated reads, but parsed chunk by chunk on arrival
+                final Buffer body = Buffer.buffer();
+                httpClientResponse.handler(chunk -> {
+                    body.appendBuffer(chunk);
+                    incrementalDecoder.write(chunk.getByteBuf());
+                });
+                httpClientResponse.endHandler(aVoid -> bodyHandler.handle(body));
+            }
         }
     }
 
+    @Nullable
+    private IncrementalDecoder createIncrementalDecoder(HttpClientResponse httpClientResponse, Class clazz) {
+        if (Void.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+
+        final String contentType = httpClientResponse.headers().get(HttpHeaders.CONTENT_TYPE);
+        final HttpMessageConverter httpMessageConverter = restClient.getHttpMessageConverterResolver().resolveReader(clazz, contentType);
+        if (httpMessageConverter instanceof IncrementalHttpMessageConverter) {
+            final MediaType mediaType = Strings.isNullOrEmpty(contentType) ? null : MediaType.parseMediaType(contentType);
+            final IncrementalHttpMessageConverter incrementalHttpMessageConverter = (IncrementalHttpMessageConverter) httpMessageConverter;
+            if (incrementalHttpMessageConverter.canReadIncrementally(clazz, mediaType)) {
+                return incrementalHttpMessageConverter.createIncrementalDecoder(clazz, mediaType);
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> void handleStreamingResponse(HttpClientResponse httpClientResponse, Class<E> elementClass) {
+        log.debug("Http request to {} {} SUCCESSFUL. Return status: {}, message: {}, streaming body", new Object[]{method, uri, httpClientResponse.statusCode(), httpClientResponse.statusMessage()});
+
+        final String contentType = httpClientResponse.headers().get(HttpHeaders.CONTENT_TYPE);
+        final MediaType mediaType = Strings.isNullOrEmpty(contentType) ? null : MediaType.parseMediaType(contentType);
+        for (HttpMessageConverter httpMessageConverter : httpMessageConverters) {
+            if (httpMessageConverter instanceof StreamingHttpMessageConverter
+                    && ((StreamingHttpMessageConverter) httpMessageConverter).canStream(elementClass, mediaType)) {
+                final ChunkDecoder<E> chunkDecoder = ((StreamingHttpMessageConverter) httpMessageConverter).createChunkDecoder(elementClass, mediaType);
+                final ReadStream<E> readStream = new DecodingReadStream<>(httpClientResponse, chunkDecoder, exceptionHandler);
+                handleResponse((RestClientResponse<T>) new StreamingRestClientResponse<>(httpClientResponse, readStream));
+                return;
+            }
+        }
+
+        httpClientResponse.handler(buffer -> {
+        });
+        handleException(new RestClientException("Could not find any suitable StreamingHttpMessageConverter for element type [" + elementClass.getName() + "] and media type " + mediaType));
+    }
+
     private void handleResponse(RestClientResponse<T> restClientResponse) {
         if (HttpMethod.GET.equals(method) && requestCacheOptions != null) {
             final RestClientRequestSlice<T> restClientRequestSlice = getRestClientRequestSlice();
@@ -471,7 +580,24 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
 
             cancelOutstandingEvictionTimer(cacheKey);
             restClient.getRequestCache().put(cacheKey, restClientResponse);
-            createEvictionTimer(cacheKey, requestCacheOptions.getExpiresAfterWriteMillis());
+            createEvictionTimer(cacheKey, getExpiresAfterWriteMillis());
+        }
+    }
+
+    private int getExpiresAfterWriteMillis() {
+        if (requestCacheOptions.getAdaptiveExpiresAfterWrite()) {
+            return restClient.getAdaptiveTtlTracker().getExpiresAfterWriteMillis(UriTemplates.templateOf(uri), requestCacheOptions);
+        } else {
+            return requestCacheOptions.getExpiresAfterWriteMillis();
+        }
+    }
+
+    private void recordUpstreamResult(boolean failed) {
+        if (requestStarted && !upstreamResultRecorded && HttpMethod.GET.equals(method)
+                && requestCacheOptions != null && requestCacheOptions.getAdaptiveExpiresAfterWrite()) {
+            final long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStartedAtNanos);
+            restClient.getAdaptiveTtlTracker().record(UriTemplates.templateOf(uri), latencyMillis, failed);
+            upstreamResultRecorded = true;
         }
     }
 
@@ -586,14 +712,47 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
         if (timeoutInMillis > 0) {
             httpClientRequest.setTimeout(timeoutInMillis);
         }
-        httpClientRequest.end(Buffer.buffer(bufferedHttpOutputMessage.getBody()));
-        key.ifPresent(e -> restClient.getRunningRequests().put(e, this));
+        // Log before handing over the body, the http client releases it as soon as it's flushed
         logRequest();
+        requestStarted = true;
+        requestStartedAtNanos = System.nanoTime();
+        if (bufferedHttpOutputMessage.isStreaming()) {
+            streamRequest();
+        } else {
+            httpClientRequest.end(Buffer.buffer(bufferedHttpOutputMessage.getBody()));
+        }
+        key.ifPresent(e -> restClient.getRunningRequests().put(e, this));
+    }
+
+    private void streamRequest() {
+        final long contentLength = bufferedHttpOutputMessage.getContentLength();
+        if (contentLength == -1) {
+            httpClientRequest.headers().remove(HttpHeaders.CONTENT_LENGTH);
+            httpClientRequest.setChunked(true);
+        } else if (!httpClientRequest.isChunked()) {
+            httpClientRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+        }
+
+        bufferedHttpOutputMessage.writeTo(vertx, httpClientRequest, result -> {
+            if (result.succeeded()) {
+                httpClientRequest.end();
+            } else {
+                httpClientRequest.reset();
+                if (exceptionHandler != null) {
+                    exceptionHandler.handle(result.cause());
+                } else {
+                    log.error("No exceptionHandler found to handler exception.", result.cause());
+                }
+            }
+        });
     }
 
     private void writeContentLength() {
         if (!httpClientRequest.isChunked() && Strings.isNullOrEmpty(bufferedHttpOutputMessage.getHeaders().get(HttpHeaders.CONTENT_LENGTH))) {
-            bufferedHttpOutputMessage.getHeaders().set(HttpHeaders.CONTENT_LENGTH, String.valueOf(bufferedHttpOutputMessage.getBody().readableBytes()));
+            final long contentLength = bufferedHttpOutputMessage.getContentLength();
+            if (contentLength != -1) {
+                bufferedHttpOutputMessage.getHeaders().set(HttpHeaders.CONTENT_LENGTH, String.valueOf(contentLength));
+            }
         }
     }
 
@@ -619,37 +778,8 @@ public class DefaultRestClientRequest<T> implements RestClientRequest<T> {
     private void populateAcceptHeaderIfNotPresent() {
         final String acceptHeader = httpClientRequest.headers().get(HttpHeaders.ACCEPT);
         if (Strings.isNullOrEmpty(acceptHeader)) {
-            httpClientRequest.headers().set(
-                    HttpHeaders.ACCEPT,
-                    formatForAcceptHeader(
-                            httpMessageConverters
-                                    .stream()
-                                    .map(HttpMessageConverter::getSupportedMediaTypes)
-                                    .reduce(new LinkedList<>(), (a, b) -> {
-                                                a.addAll(b);
-                                                return a;
-                                            }
-                                    )
-                    )
-            );
-        }
-    }
-
-    private String formatForAcceptHeader(List<MediaType> mediaTypes) {
-        final List<MediaType> formattedMediaTypes = stripDownCharset(mediaTypes);
-        MediaType.sortBySpecificity(formattedMediaTypes);
-        return Joiner.on(",").join(formattedMediaTypes.stream().map(MediaType::toString).collect(Collectors.toList()));
-    }
-
-    private List<MediaType> stripDownCharset(List<MediaType> mediaTypes) {
-        final List<MediaType> result = new ArrayList<MediaType>(mediaTypes.size());
-        for (MediaType mediaType : mediaTypes) {
-            if (mediaType.getCharSet() != null) {
-                mediaType = new MediaType(mediaType.getType(), mediaType.getSubtype());
-            }
-            result.add(mediaType);
+            httpClientRequest.headers().set(HttpHeaders.ACCEPT, restClient.getDefaultAcceptHeader());
         }
-        return result;
     }
 
     private static class RestClientRequestSlice<T> {
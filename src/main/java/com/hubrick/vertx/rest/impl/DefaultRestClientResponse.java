@@ -19,6 +19,8 @@ import com.hubrick.vertx.rest.HttpInputMessage;
 import com.hubrick.vertx.rest.MediaType;
 import com.hubrick.vertx.rest.RestClientResponse;
 import com.hubrick.vertx.rest.converter.HttpMessageConverter;
+import com.hubrick.vertx.rest.converter.IncrementalDecoder;
+import com.hubrick.vertx.rest.converter.UpdatingHttpMessageConverter;
 import com.hubrick.vertx.rest.exception.RestClientException;
 import io.netty.buffer.ByteBuf;
 import io.vertx.core.Handler;
@@ -29,7 +31,6 @@ import io.vertx.core.streams.StreamBase;
 import javax.annotation.Nullable;
 import java.util.List;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -40,28 +41,43 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class DefaultRestClientResponse<T> implements RestClientResponse<T> {
 
-    private final List<HttpMessageConverter> httpMessageConverters;
+    private final HttpMessageConverterResolver httpMessageConverterResolver;
     private final Class<T> clazz;
     private final HttpInputMessage httpInputMessage;
     private final StreamBase streamBase;
     private Handler<Throwable> exceptionHandler;
+    private IncrementalDecoder<T> incrementalDecoder;
 
-    DefaultRestClientResponse(List<HttpMessageConverter> httpMessageConverters,
+    DefaultRestClientResponse(HttpMessageConverterResolver httpMessageConverterResolver,
                               Class<T> clazz,
                               HttpInputMessage httpInputMessage,
                               StreamBase streamBase,
                               @Nullable Handler<Throwable> exceptionHandler) {
-        checkNotNull(httpMessageConverters, "dataMappers must not be null");
-        checkArgument(!httpMessageConverters.isEmpty(), "dataMappers must not be empty");
+        this(httpMessageConverterResolver, clazz, httpInputMessage, streamBase, exceptionHandler, null);
+    }
+
+    /**
+     * @param incrementalDecoder Decoder which has already been fed with the whole body. It serves the first {@link #getBody()}
+     *                           call, later calls (e.g. of cached responses) decode the buffered body again.
+     * @since 3.2.0
+     */
+    DefaultRestClientResponse(HttpMessageConverterResolver httpMessageConverterResolver,
+                              Class<T> clazz,
+                              HttpInputMessage httpInputMessage,
+                              StreamBase streamBase,
+                              @Nullable Handler<Throwable> exceptionHandler,
+                              @Nullable IncrementalDecoder<T> incrementalDecoder) {
+        checkNotNull(httpMessageConverterResolver, "httpMessageConverterResolver must not be null");
         checkNotNull(clazz, "clazz must not be null");
         checkNotNull(httpInputMessage, "httpInputMessage must not be null");
         checkNotNull(streamBase, "streamBase must not be null");
 
-        this.httpMessageConverters = httpMessageConverters;
+        this.httpMessageConverterResolver = httpMessageConverterResolver;
         this.clazz = clazz;
         this.httpInputMessage = httpInputMessage;
         this.streamBase = streamBase;
         this.exceptionHandler = exceptionHandler;
+        this.incrementalDecoder = incrementalDecoder;
     }
 
     @Override
@@ -95,14 +111,45 @@ public class DefaultRestClientResponse<T> implements RestClientResponse<T> {
         if(byteBuf.readableBytes() == 0 || Void.class.isAssignableFrom(clazz)) return null;
 
         try {
-            final MediaType mediaType = MediaType.parseMediaType(headers().get(HttpHeaders.CONTENT_TYPE));
-            for (HttpMessageConverter httpMessageConverter : httpMessageConverters) {
-                if (httpMessageConverter.canRead(clazz, mediaType)) {
-                    return (T) httpMessageConverter.read(clazz, httpInputMessage);
-                }
+            if (incrementalDecoder != null) {
+                final IncrementalDecoder<T> decoder = incrementalDecoder;
+                incrementalDecoder = null;
+                return decoder.end();
+            }
+
+            return (T) resolveReader(headers().get(HttpHeaders.CONTENT_TYPE)).read(clazz, httpInputMessage);
+        } catch (Throwable t) {
+            if(exceptionHandler != null) {
+                exceptionHandler.handle(t);
+                return null;
+            } else {
+                throw t;
             }
+        }
+    }
+
+    @Override
+    public T getBody(T into) {
+        checkNotNull(into, "into must not be null");
+        final ByteBuf byteBuf = httpInputMessage.getBody();
+        if(byteBuf.readableBytes() == 0 || Void.class.isAssignableFrom(clazz)) return into;
+
+        final String contentType = headers().get(HttpHeaders.CONTENT_TYPE);
+        if (contentType == null) {
+            // Without a content type there is no converter to update with, read the body like any other
+            return getBody();
+        }
 
-            throw new RestClientException("Could not find any suitable DataMapper for reading media type " + mediaType);
+        try {
+            // An incremental decoder always binds a new instance, the buffered body is decoded into the given one instead
+            incrementalDecoder = null;
+
+            final HttpMessageConverter httpMessageConverter = resolveReader(contentType);
+            if (httpMessageConverter instanceof UpdatingHttpMessageConverter
+                    && ((UpdatingHttpMessageConverter) httpMessageConverter).canUpdate(clazz, MediaType.parseMediaType(contentType))) {
+                return ((UpdatingHttpMessageConverter) httpMessageConverter).update(clazz, into, httpInputMessage);
+            }
+            return (T) httpMessageConverter.read(clazz, httpInputMessage);
         } catch (Throwable t) {
             if(exceptionHandler != null) {
                 exceptionHandler.handle(t);
@@ -113,6 +160,14 @@ public class DefaultRestClientResponse<T> implements RestClientResponse<T> {
         }
     }
 
+    private HttpMessageConverter resolveReader(String contentType) {
+        final HttpMessageConverter httpMessageConverter = httpMessageConverterResolver.resolveReader(clazz, contentType);
+        if (httpMessageConverter == null) {
+            throw new RestClientException("Could not find any suitable DataMapper for reading media type " + MediaType.parseMediaType(contentType));
+        }
+        return httpMessageConverter;
+    }
+
     @Override
     public void exceptionHandler(Handler<Throwable> exceptionHandler) {
         this.exceptionHandler = exceptionHandler;
@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.converter.HttpMessageConverter;
+
+import javax.annotation.Nullable;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Memoizes which {@link HttpMessageConverter} reads or writes a class for a given content type, so that the
+ * converter chain is only walked once per combination. Content types are reduced to type, subtype and charset before
+ * they are looked up, so parameters like multipart boundaries don't create new entries. The number of remembered
+ * combinations is bounded, the cache is cleared once the bound is hit.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+class HttpMessageConverterResolver {
+
+    private static final int MAX_CACHED_RESOLUTIONS = 1024;
+
+    private final List<HttpMessageConverter> httpMessageConverters;
+    private final ConcurrentMap<ResolutionKey, Optional<HttpMessageConverter>> readers = new ConcurrentHashMap<>(16);
+    private final ConcurrentMap<ResolutionKey, Optional<HttpMessageConverter>> writers = new ConcurrentHashMap<>(16);
+
+    HttpMessageConverterResolver(List<HttpMessageConverter> httpMessageConverters) {
+        this.httpMessageConverters = httpMessageConverters;
+    }
+
+    /**
+     * @param clazz       The class to read
+     * @param contentType The raw value of the Content-Type header
+     * @return The first converter which can read the class or null if there is none
+     */
+    @Nullable
+    HttpMessageConverter resolveReader(Class<?> clazz, @Nullable String contentType) {
+        return resolve(readers, clazz, contentType, true);
+    }
+
+    /**
+     * @param clazz       The class to write
+     * @param contentType The raw value of the Content-Type header
+     * @return The first converter which can write the class or null if there is none
+     */
+    @Nullable
+    HttpMessageConverter resolveWriter(Class<?> clazz, @Nullable String contentType) {
+        return resolve(writers, clazz, contentType, false);
+    }
+
+    private HttpMessageConverter resolve(ConcurrentMap<ResolutionKey, Optional<HttpMessageConverter>> resolutions,
+                                         Class<?> clazz,
+                                         @Nullable String contentType,
+                                         boolean read) {
+        final MediaType mediaType = MediaType.parseMediaType(contentType);
+        final ResolutionKey resolutionKey = new ResolutionKey(clazz, mediaType.getType(), mediaType.getSubtype(), mediaType.getCharSet());
+        Optional<HttpMessageConverter> httpMessageConverter = resolutions.get(resolutionKey);
+        if (httpMessageConverter == null) {
+            // Resolved with the reduced media type, so the result is the same for every content type sharing the key
+            final MediaType reducedMediaType = mediaType.getCharSet() != null ?
+                    new MediaType(mediaType.getType(), mediaType.getSubtype(), mediaType.getCharSet()) :
+                    new MediaType(mediaType.getType(), mediaType.getSubtype());
+            httpMessageConverter = resolve(clazz, reducedMediaType, read);
+            if (resolutions.size() >= MAX_CACHED_RESOLUTIONS) {
+                resolutions.clear();
+            }
+            resolutions.putIfAbsent(resolutionKey, httpMessageConverter);
+        }
+        return httpMessageConverter.orElse(null);
+    }
+
+    private Optional<HttpMessageConverter> resolve(Class<?> clazz, MediaType mediaType, boolean read) {
+        for (HttpMessageConverter httpMessageConverter : httpMessageConverters) {
+            if (read ? httpMessageConverter.canRead(clazz, mediaType) : httpMessageConverter.canWrite(clazz, mediaType)) {
+                return Optional.of(httpMessageConverter);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class ResolutionKey {
+
+        private final Class<?> clazz;
+        private final String type;
+        private final String subtype;
+        private final Charset charset;
+        private final int hashCode;
+
+        private ResolutionKey(Class<?> clazz, String type, String subtype, @Nullable Charset charset) {
+            this.clazz = clazz;
+            this.type = type;
+            this.subtype = subtype;
+            this.charset = charset;
+            this.hashCode = Objects.hash(clazz, type, subtype, charset);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ResolutionKey)) return false;
+            final ResolutionKey that = (ResolutionKey) o;
+            return clazz == that.clazz && type.equals(that.type) && subtype.equals(that.subtype) && Objects.equals(charset, that.charset);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.PrefetchOptions;
+import com.hubrick.vertx.rest.RequestCacheOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Learns first-order transitions between uri templates and predicts the follow-up requests which should be
+ * prefetched. The frequencies are halved every {@link PrefetchOptions#getDecayInterval()} requests and rarely
+ * seen transitions are dropped, which keeps the table small and lets it follow changing access patterns.
+ * <p>
+ * The query isn't part of a template. Follow-ups are predicted with the query their template was always requested
+ * with, templates requested with varying queries aren't prefetched, as the query can't be derived.
+ * <p>
+ * Like the rest of the request cache it's only accessed from the context of the {@link DefaultRestClient}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+class RequestPrefetcher {
+
+    private static final int MAX_TEMPLATES = 1024;
+    private static final int MAX_SEQUENCES = 4096;
+    private static final int MAX_TRANSITIONS_PER_TEMPLATE = 8;
+    private static final double MIN_FREQUENCY = 0.5;
+    private static final String DEFAULT_SEQUENCE = "";
+
+    private final PrefetchOptions prefetchOptions;
+    private final Map<String, TransitionRow> transitions = new BoundedMap<>(MAX_TEMPLATES);
+    private final Map<String, Target> targets = new BoundedMap<>(MAX_TEMPLATES);
+    private final Map<String, Observation> lastObservations = new BoundedMap<>(MAX_SEQUENCES);
+
+    private double realRequests = 0;
+    private double prefetchedRequests = 0;
+    private int requestsSinceDecay = 0;
+
+    RequestPrefetcher(PrefetchOptions prefetchOptions) {
+        this.prefetchOptions = prefetchOptions;
+    }
+
+    PrefetchOptions getPrefetchOptions() {
+        return prefetchOptions;
+    }
+
+    /**
+     * Records a real request and returns the requests which should be prefetched in consequence.
+     * The returned predictions are already accounted against the prefetch budget.
+     */
+    List<Prediction> onRequest(String uri, String sequence, Class<?> responseClass, RequestCacheOptions requestCacheOptions) {
+        final String template = UriTemplates.templateOf(uri);
+        final Observation observation = new Observation(template, UriTemplates.pathOf(uri), UriTemplates.variablesOf(uri));
+        final String sequenceKey = sequence != null ? sequence : DEFAULT_SEQUENCE;
+
+        final Observation previous = lastObservations.put(sequenceKey, observation);
+        if (previous != null) {
+            recordTransition(previous, observation);
+        }
+        final String query = UriTemplates.queryOf(uri);
+        final Target previousTarget = targets.get(template);
+        final boolean queryVaries = previousTarget != null && (previousTarget.queryVaries || !Objects.equals(previousTarget.query, query));
+        targets.put(template, new Target(responseClass, requestCacheOptions, query, queryVaries));
+
+        realRequests++;
+        if (++requestsSinceDecay >= prefetchOptions.getDecayInterval()) {
+            decay();
+        }
+
+        return predict(observation);
+    }
+
+    private void recordTransition(Observation from, Observation to) {
+        TransitionRow transitionRow = transitions.get(from.template);
+        if (transitionRow == null) {
+            transitionRow = new TransitionRow();
+            transitions.put(from.template, transitionRow);
+        }
+
+        Transition transition = transitionRow.transitions.get(to.template);
+        if (transition == null) {
+            if (transitionRow.transitions.size() >= MAX_TRANSITIONS_PER_TEMPLATE) {
+                transitionRow.removeLeastFrequent();
+            }
+            transition = new Transition();
+            transitionRow.transitions.put(to.template, transition);
+        }
+
+        transitionRow.count++;
+        transition.count++;
+        if (to.path.equals(UriTemplates.expand(to.template, from.variables))) {
+            transition.predictableCount++;
+        }
+    }
+
+    private List<Prediction> predict(Observation observation) {
+        final TransitionRow transitionRow = transitions.get(observation.template);
+        if (transitionRow == null || transitionRow.count < prefetchOptions.getMinObservations()) {
+            return Collections.emptyList();
+        }
+
+        List<Prediction> predictions = Collections.emptyList();
+        for (Map.Entry<String, Transition> entry : transitionRow.transitions.entrySet()) {
+            final double probability = entry.getValue().predictableCount / transitionRow.count;
+            if (probability < prefetchOptions.getProbabilityThreshold()) {
+                continue;
+            }
+
+            final String predictedPath = UriTemplates.expand(entry.getKey(), observation.variables);
+            final Target target = targets.get(entry.getKey());
+            if (predictedPath == null || predictedPath.equals(observation.path) || target == null || target.queryVaries) {
+                continue;
+            }
+            final String predictedUri = target.query != null ? predictedPath + "?" + target.query : predictedPath;
+            if (prefetchedRequests + 1 > realRequests * prefetchOptions.getMaxPrefetchRatio()) {
+                break;
+            }
+
+            prefetchedRequests++;
+            if (predictions.isEmpty()) {
+                predictions = new ArrayList<>(2);
+            }
+            predictions.add(new Prediction(predictedUri, target.responseClass, target.requestCacheOptions));
+        }
+        return predictions;
+    }
+
+    private void decay() {
+        requestsSinceDecay = 0;
+        realRequests /= 2;
+        prefetchedRequests /= 2;
+        for (Iterator<TransitionRow> rowIterator = transitions.values().iterator(); rowIterator.hasNext(); ) {
+            final TransitionRow transitionRow = rowIterator.next();
+            transitionRow.count /= 2;
+            for (Iterator<Transition> iterator = transitionRow.transitions.values().iterator(); iterator.hasNext(); ) {
+                final Transition transition = iterator.next();
+                transition.count /= 2;
+                transition.predictableCount /= 2;
+                if (transition.count < MIN_FREQUENCY) {
+                    iterator.remove();
+                }
+            }
+            if (transitionRow.transitions.isEmpty()) {
+                rowIterator.remove();
+            }
+        }
+    }
+
+    static class Prediction {
+
+        private final String uri;
+        private final Class<?> responseClass;
+        private final RequestCacheOptions requestCacheOptions;
+
+        private Prediction(String uri, Class<?> responseClass, RequestCacheOptions requestCacheOptions) {
+            this.uri = uri;
+            this.responseClass = responseClass;
+            this.requestCacheOptions = requestCacheOptions;
+        }
+
+        String getUri() {
+            return uri;
+        }
+
+        Class<?> getResponseClass() {
+            return responseClass;
+        }
+
+        RequestCacheOptions getRequestCacheOptions() {
+            return requestCacheOptions;
+        }
+    }
+
+    private static class Observation {
+
+        private final String template;
+        private final String path;
+        private final List<String> variables;
+
+        private Observation(String template, String path, List<String> variables) {
+            this.template = template;
+            this.path = path;
+            this.variables = variables;
+        }
+    }
+
+    private static class Target {
+
+        private final Class<?> responseClass;
+        private final RequestCacheOptions requestCacheOptions;
+        private final String query;
+        private final boolean queryVaries;
+
+        private Target(Class<?> responseClass, RequestCacheOptions requestCacheOptions, String query, boolean queryVaries) {
+            this.responseClass = responseClass;
+            this.requestCacheOptions = requestCacheOptions;
+            this.query = query;
+            this.queryVaries = queryVaries;
+        }
+    }
+
+    private static class TransitionRow {
+
+        private final Map<String, Transition> transitions = new HashMap<>(MAX_TRANSITIONS_PER_TEMPLATE * 2);
+        private double count;
+
+        private void removeLeastFrequent() {
+            String leastFrequent = null;
+            double leastCount = Double.MAX_VALUE;
+            for (Map.Entry<String, Transition> entry : transitions.entrySet()) {
+                if (entry.getValue().count < leastCount) {
+                    leastFrequent = entry.getKey();
+                    leastCount = entry.getValue().count;
+                }
+            }
+            transitions.remove(leastFrequent);
+        }
+    }
+
+    private static class Transition {
+
+        private double count;
+        private double predictableCount;
+    }
+
+    private static class BoundedMap<K, V> extends LinkedHashMap<K, V> {
+
+        private final int maxSize;
+
+        private BoundedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
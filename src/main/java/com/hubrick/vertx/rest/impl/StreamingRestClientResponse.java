@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.RestClientResponse;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.List;
+
+/**
+ * A response whose body is a stream of elements which are decoded while the body arrives.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+class StreamingRestClientResponse<T> implements RestClientResponse<ReadStream<T>> {
+
+    private final HttpClientResponse httpClientResponse;
+    private final ReadStream<T> readStream;
+
+    StreamingRestClientResponse(HttpClientResponse httpClientResponse, ReadStream<T> readStream) {
+        this.httpClientResponse = httpClientResponse;
+        this.readStream = readStream;
+    }
+
+    @Override
+    public int statusCode() {
+        return httpClientResponse.statusCode();
+    }
+
+    @Override
+    public String statusMessage() {
+        return httpClientResponse.statusMessage();
+    }
+
+    @Override
+    public MultiMap headers() {
+        return httpClientResponse.headers();
+    }
+
+    /**
+     * @return The HTTP trailers, only populated once the stream ended
+     */
+    @Override
+    public MultiMap trailers() {
+        return httpClientResponse.trailers();
+    }
+
+    @Override
+    public List<String> cookies() {
+        return httpClientResponse.cookies();
+    }
+
+    @Override
+    public ReadStream<T> getBody() {
+        return readStream;
+    }
+
+    @Override
+    public void exceptionHandler(Handler<Throwable> exceptionHandler) {
+        readStream.exceptionHandler(exceptionHandler);
+    }
+}
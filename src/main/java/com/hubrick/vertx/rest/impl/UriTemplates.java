@@ -0,0 +1,148 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Derives uri templates from concrete request uris by stripping the query and collapsing
+ * id-like path segments (numbers, uuids and long alphanumeric tokens) into a placeholder.
+ * <p>
+ * {@code /api/orders/123/items?page=2} becomes {@code /api/orders/{}/items}.
+ *
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+final class UriTemplates {
+
+    static final String PLACEHOLDER = "{}";
+
+    private static final int MIN_TOKEN_ID_LENGTH = 16;
+
+    private UriTemplates() {
+    }
+
+    static String templateOf(String uri) {
+        return parse(uri, null);
+    }
+
+    /**
+     * @return The id-like path segments of the uri in the order of their appearance
+     */
+    static List<String> variablesOf(String uri) {
+        final List<String> variables = new ArrayList<>(2);
+        parse(uri, variables);
+        return variables.isEmpty() ? Collections.emptyList() : variables;
+    }
+
+    /**
+     * @return The uri without query and fragment
+     */
+    static String pathOf(String uri) {
+        return uri.substring(0, pathEnd(uri));
+    }
+
+    /**
+     * @return The query of the uri without the leading {@code ?} or null if there is none
+     */
+    static String queryOf(String uri) {
+        final int queryStart = uri.indexOf('?');
+        if (queryStart == -1) {
+            return null;
+        }
+        final int fragmentStart = uri.indexOf('#', queryStart);
+        return uri.substring(queryStart + 1, fragmentStart == -1 ? uri.length() : fragmentStart);
+    }
+
+    /**
+     * Fills the placeholders of the template with the given variables in order.
+     *
+     * @return The expanded uri or null if there are more placeholders than variables
+     */
+    static String expand(String template, List<String> variables) {
+        final StringBuilder uri = new StringBuilder(template.length() + 32);
+        int variableIndex = 0;
+        int position = 0;
+        int placeholderIndex;
+        while ((placeholderIndex = template.indexOf(PLACEHOLDER, position)) != -1) {
+            if (variableIndex == variables.size()) {
+                return null;
+            }
+            uri.append(template, position, placeholderIndex).append(variables.get(variableIndex++));
+            position = placeholderIndex + PLACEHOLDER.length();
+        }
+        return uri.append(template, position, template.length()).toString();
+    }
+
+    private static String parse(String uri, List<String> variables) {
+        final int end = pathEnd(uri);
+        final StringBuilder template = new StringBuilder(end);
+        int segmentStart = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i == end || uri.charAt(i) == '/') {
+                if (isIdSegment(uri, segmentStart, i)) {
+                    template.append(PLACEHOLDER);
+                    if (variables != null) {
+                        variables.add(uri.substring(segmentStart, i));
+                    }
+                } else {
+                    template.append(uri, segmentStart, i);
+                }
+                if (i < end) {
+                    template.append('/');
+                }
+                segmentStart = i + 1;
+            }
+        }
+        return template.toString();
+    }
+
+    private static int pathEnd(String uri) {
+        for (int i = 0; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return uri.length();
+    }
+
+    private static boolean isIdSegment(String uri, int start, int end) {
+        final int length = end - start;
+        if (length == 0) {
+            return false;
+        }
+
+        boolean allDigits = true;
+        boolean hasDigit = false;
+        for (int i = start; i < end; i++) {
+            final char c = uri.charAt(i);
+            final boolean digit = c >= '0' && c <= '9';
+            hasDigit |= digit;
+            allDigits &= digit;
+            if (!digit && !isTokenChar(c)) {
+                return false;
+            }
+        }
+        return allDigits || (hasDigit && length >= MIN_TOKEN_ID_LENGTH);
+    }
+
+    private static boolean isTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '-' || c == '_';
+    }
+}
@@ -15,24 +15,41 @@
  */
 package com.hubrick.vertx.rest.message;
 
-import com.hubrick.vertx.rest.HttpOutputMessage;
+import com.hubrick.vertx.rest.StreamingHttpOutputMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
 import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * @author Emir Dizdarevic
  * @since 1.3.0
  */
-public class BufferedHttpOutputMessage implements HttpOutputMessage {
+public class BufferedHttpOutputMessage implements StreamingHttpOutputMessage {
 
     private MultiMap headers = new CaseInsensitiveHeaders();
     private final CompositeByteBuf byteBuf = Unpooled.compositeBuffer(64);
+    private final List<StreamedSegment> streamedSegments = new ArrayList<>(0);
 
     @Override
     public MultiMap getHeaders() {
@@ -44,14 +61,178 @@ public class BufferedHttpOutputMessage implements HttpOutputMessage {
         byteBuf.addComponent(data).writerIndex(byteBuf.writerIndex() + data.writerIndex());
     }
 
+    /**
+     * @since 3.2.0
+     */
+    @Override
+    public void writeFile(Path file) throws IOException {
+        checkNotNull(file, "file must not be null");
+        streamedSegments.add(new StreamedSegment(byteBuf.writerIndex(), file, null, Files.size(file)));
+    }
+
+    /**
+     * @since 3.2.0
+     */
+    @Override
+    public void writeStream(ReadStream<Buffer> stream, long length) throws IOException {
+        checkNotNull(stream, "stream must not be null");
+        checkArgument(length >= -1, "length must be greater or equal to -1");
+        streamedSegments.add(new StreamedSegment(byteBuf.writerIndex(), null, stream, length));
+    }
+
+    /**
+     * @return The buffered part of the body. Doesn't contain the segments which are streamed.
+     */
     @Override
     public ByteBuf getBody() {
         return Unpooled.unmodifiableBuffer(byteBuf);
     }
 
+    /**
+     * @return true if segments of the body are streamed when the request is sent
+     * @since 3.2.0
+     */
+    public boolean isStreaming() {
+        return !streamedSegments.isEmpty();
+    }
+
+    /**
+     * @return The length of the whole body or -1 if the length of a streamed segment is unknown
+     * @since 3.2.0
+     */
+    public long getContentLength() {
+        long contentLength = byteBuf.readableBytes();
+        for (StreamedSegment streamedSegment : streamedSegments) {
+            if (streamedSegment.length == -1) {
+                return -1;
+            }
+            contentLength += streamedSegment.length;
+        }
+        return contentLength;
+    }
+
+    /**
+     * Writes the whole body to the target in order, the streamed segments with back-pressure. The buffered parts are
+     * handed over to the target, which releases them once they are flushed. The target isn't ended.
+     *
+     * @param vertx             The vertx instance to open files with
+     * @param target            The stream to write to
+     * @param completionHandler Called once everything has been written or a streamed segment failed
+     * @since 3.2.0
+     */
+    public void writeTo(Vertx vertx, WriteStream<Buffer> target, Handler<AsyncResult<Void>> completionHandler) {
+        checkNotNull(vertx, "vertx must not be null");
+        checkNotNull(target, "target must not be null");
+        checkNotNull(completionHandler, "completionHandler must not be null");
+        writeTo(vertx, target, 0, byteBuf.readerIndex(), completionHandler);
+    }
+
+    private void writeTo(Vertx vertx, WriteStream<Buffer> target, int segmentIndex, int offset, Handler<AsyncResult<Void>> completionHandler) {
+        final int end = segmentIndex < streamedSegments.size() ? streamedSegments.get(segmentIndex).offset : byteBuf.writerIndex();
+        if (end > offset) {
+            target.write(Buffer.buffer(byteBuf.retainedSlice(offset, end - offset)));
+        }
+        if (segmentIndex == streamedSegments.size()) {
+            release();
+            completionHandler.handle(Future.succeededFuture());
+            return;
+        }
+
+        final Handler<AsyncResult<Void>> nextHandler = result -> {
+            if (result.succeeded()) {
+                writeTo(vertx, target, segmentIndex + 1, end, completionHandler);
+            } else {
+                release();
+                completionHandler.handle(result);
+            }
+        };
+        final StreamedSegment streamedSegment = streamedSegments.get(segmentIndex);
+        if (streamedSegment.file != null) {
+            vertx.fileSystem().open(streamedSegment.file.toString(), new OpenOptions().setRead(true).setWrite(false).setCreate(false), openResult -> {
+                if (openResult.failed()) {
+                    nextHandler.handle(Future.failedFuture(openResult.cause()));
+                    return;
+                }
+                final AsyncFile asyncFile = openResult.result();
+                pump(asyncFile, target, streamedSegment.length, pumpResult -> asyncFile.close(closeResult -> nextHandler.handle(pumpResult)));
+            });
+        } else {
+            pump(streamedSegment.stream, target, streamedSegment.length, nextHandler);
+        }
+    }
+
+    /**
+     * Writes the stream to the target with back-pressure. The segment fails if the stream doesn't deliver exactly the
+     * expected number of bytes, as the Content-Length announced for the request would be wrong otherwise.
+     */
+    private static void pump(ReadStream<Buffer> stream, WriteStream<Buffer> target, long expectedLength, Handler<AsyncResult<Void>> handler) {
+        final long[] written = {0};
+        final boolean[] completed = {false};
+        final Handler<AsyncResult<Void>> completionHandler = result -> {
+            if (!completed[0]) {
+                completed[0] = true;
+                target.drainHandler(null);
+                handler.handle(result);
+            }
+        };
+
+        stream.exceptionHandler(t -> completionHandler.handle(Future.failedFuture(t)));
+        stream.endHandler(aVoid -> {
+            if (expectedLength != -1 && written[0] != expectedLength) {
+                completionHandler.handle(Future.failedFuture(new IOException("Streamed " + written[0] + " bytes instead of the expected " + expectedLength)));
+            } else {
+                completionHandler.handle(Future.succeededFuture());
+            }
+        });
+        stream.handler(buffer -> {
+            if (completed[0]) {
+                return;
+            }
+            written[0] += buffer.length();
+            if (expectedLength != -1 && written[0] > expectedLength) {
+                stream.pause();
+                completionHandler.handle(Future.failedFuture(new IOException("Streamed more than the expected " + expectedLength + " bytes")));
+                return;
+            }
+            target.write(buffer);
+            if (target.writeQueueFull()) {
+                stream.pause();
+                target.drainHandler(aVoid -> stream.resume());
+            }
+        });
+        stream.resume();
+    }
+
+    /**
+     * Releases the body in case it's never handed over to the http client, which otherwise takes care of it.
+     */
+    public void release() {
+        if (byteBuf.refCnt() > 0) {
+            byteBuf.release();
+        }
+    }
+
     public void putAllHeaders(MultiMap headers) {
         for (Map.Entry<String, String> header : headers) {
             headers.add(header.getKey(), header.getValue());
         }
     }
+
+    /**
+     * A file or stream which is sent after the buffered bytes before the offset.
+     */
+    private static final class StreamedSegment {
+
+        private final int offset;
+        private final Path file;
+        private final ReadStream<Buffer> stream;
+        private final long length;
+
+        private StreamedSegment(int offset, Path file, ReadStream<Buffer> stream, long length) {
+            this.offset = offset;
+            this.file = file;
+            this.stream = stream;
+            this.length = length;
+        }
+    }
 }
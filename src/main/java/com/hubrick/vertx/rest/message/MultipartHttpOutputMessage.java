@@ -55,15 +55,18 @@ public class MultipartHttpOutputMessage implements HttpOutputMessage {
 
     private void writeHeaders() throws IOException {
         if (!this.headersWritten) {
-            final ByteBuf headersBuf = Unpooled.buffer(1024);    // Header size guess
+            // Every char is written as one byte, so the exact size is known up front and the buffer never grows
+            int size = NEW_LINE.length;
+            for (Map.Entry<String, String> header : headers) {
+                size += header.getKey().length() + COLON.length + SPACE.length + header.getValue().length() + NEW_LINE.length;
+            }
+            final ByteBuf headersBuf = Unpooled.buffer(size);
             for (String name : headers.names()) {
-                byte[] headerName = name.getBytes(multipartCharset);
                 for (String headerValueString : headers.getAll(name)) {
-                    byte[] headerValue = headerValueString.getBytes(multipartCharset);
-                    headersBuf.writeBytes(headerName);
+                    writeHeaderString(headersBuf, name);
                     headersBuf.writeBytes(COLON);
                     headersBuf.writeBytes(SPACE);
-                    headersBuf.writeBytes(headerValue);
+                    writeHeaderString(headersBuf, headerValueString);
                     headersBuf.writeBytes(NEW_LINE);
                 }
             }
@@ -73,6 +76,17 @@ public class MultipartHttpOutputMessage implements HttpOutputMessage {
         }
     }
 
+    /**
+     * Writes the string in US-ASCII. Like {@link String#getBytes(Charset)} non ASCII chars are replaced with
+     * {@code '?'}, as are CR and LF which would end the header line.
+     */
+    private static void writeHeaderString(ByteBuf byteBuf, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            byteBuf.writeByte(c > 0x7F || c == '\r' || c == '\n' ? '?' : c);
+        }
+    }
+
     @Override
     public ByteBuf getBody() {
         return Unpooled.unmodifiableBuffer(byteBuf);
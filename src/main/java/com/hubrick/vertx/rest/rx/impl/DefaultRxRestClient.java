@@ -21,10 +21,17 @@ import com.hubrick.vertx.rest.RestClientResponse;
 import com.hubrick.vertx.rest.common.DefaultRxRestClientResponse;
 import com.hubrick.vertx.rest.rx.RxRestClient;
 import com.hubrick.vertx.rest.common.DefaultRxRestClientRequest;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
+import rx.Emitter;
+import rx.Observable;
 import rx.Single;
 import rx.functions.Action1;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * @author Emir Dizdarevic
  * @since 1.1.0
@@ -105,4 +112,47 @@ public class DefaultRxRestClient implements RxRestClient {
             }
         });
     }
+
+    /**
+     * Creates an Observable which emits the elements of the streamed response. While the subscriber has no outstanding
+     * requests the underlying response is paused, an unsubscribe drains the rest of the response so the
+     * connection can be reused.
+     *
+     * @return "cold" Observable that emits the elements of the response
+     */
+    @Override
+    public <T> Observable<T> stream(HttpMethod method, String uri, Class<T> elementClass, Action1<RestClientRequest<ReadStream<T>>> requestBuilder) {
+        return Observable.defer(() -> {
+            final AtomicReference<Runnable> resumeAction = new AtomicReference<>();
+            return Observable.<T>create(emitter -> {
+                final RestClientRequest<ReadStream<T>> callbackRequest = restClient.stream(method, uri, elementClass, restClientResponse -> {
+                    final Context context = Vertx.currentContext();
+                    final ReadStream<T> readStream = restClientResponse.getBody();
+                    resumeAction.set(() -> context.runOnContext(aVoid -> readStream.resume()));
+                    emitter.setCancellation(() -> context.runOnContext(aVoid -> readStream.handler(element -> {
+                    }).resume()));
+
+                    readStream.exceptionHandler(emitter::onError);
+                    readStream.endHandler(aVoid -> emitter.onCompleted());
+                    readStream.handler(element -> {
+                        emitter.onNext(element);
+                        if (emitter.requested() == 0) {
+                            readStream.pause();
+                        }
+                    });
+                }).exceptionHandler(emitter::onError);
+                try {
+                    final DefaultRxRestClientRequest<ReadStream<T>> rxDecoratedRequest = new DefaultRxRestClientRequest<>(callbackRequest);
+                    requestBuilder.call(rxDecoratedRequest);
+                } catch (Exception e) {
+                    emitter.onError(e);
+                }
+            }, Emitter.BackpressureMode.BUFFER).doOnRequest(requested -> {
+                final Runnable resume = resumeAction.get();
+                if (resume != null) {
+                    resume.run();
+                }
+            });
+        });
+    }
 }
@@ -21,9 +21,11 @@ import com.hubrick.vertx.rest.RestClientRequest;
 import com.hubrick.vertx.rest.RestClientResponse;
 import com.hubrick.vertx.rest.converter.HttpMessageConverter;
 import com.hubrick.vertx.rest.rx2.impl.DefaultRxRestClient;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
 
 import java.util.List;
 
@@ -154,4 +156,18 @@ public interface RxRestClient {
      * @return A reference to the {@link RestClientRequest}
      */
     <T> Single<RestClientResponse<T>> request(HttpMethod method, String uri, Class<T> responseClass, Action1<RestClientRequest<T>> requestBuilder);
+
+    /**
+     * Makes a call whose successful response body is emitted element by element while it arrives, e.g. the elements
+     * of a top level JSON array or the lines of newline delimited JSON. The response is paused while the subscriber
+     * doesn't request more elements.
+     *
+     * @param method The http method to be used for this call
+     * @param uri The uri which should be called.
+     * @param elementClass The class which represents a single element of the response
+     * @param requestBuilder The handler to build the request
+     * @return A cold Flowable of the elements
+     * @since 3.2.0
+     */
+    <T> Flowable<T> stream(HttpMethod method, String uri, Class<T> elementClass, Action1<RestClientRequest<ReadStream<T>>> requestBuilder);
 }
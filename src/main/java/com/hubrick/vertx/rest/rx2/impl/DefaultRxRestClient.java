@@ -22,8 +22,15 @@ import com.hubrick.vertx.rest.common.DefaultRxRestClientRequest;
 import com.hubrick.vertx.rest.common.DefaultRxRestClientResponse;
 import com.hubrick.vertx.rest.rx2.Action1;
 import com.hubrick.vertx.rest.rx2.RxRestClient;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
 import io.reactivex.Single;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
+
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author Emir Dizdarevic
@@ -105,4 +112,47 @@ public class DefaultRxRestClient implements RxRestClient {
             }
         });
     }
+
+    /**
+     * Creates a Flowable which emits the elements of the streamed response. While the subscriber has no outstanding
+     * requests the underlying response is paused, a cancelled subscription drains the rest of the response so the
+     * connection can be reused.
+     *
+     * @return "cold" Flowable that emits the elements of the response
+     */
+    @Override
+    public <T> Flowable<T> stream(HttpMethod method, String uri, Class<T> elementClass, Action1<RestClientRequest<ReadStream<T>>> requestBuilder) {
+        return Flowable.defer(() -> {
+            final AtomicReference<Runnable> resumeAction = new AtomicReference<>();
+            return Flowable.<T>create(emitter -> {
+                final RestClientRequest<ReadStream<T>> callbackRequest = restClient.stream(method, uri, elementClass, restClientResponse -> {
+                    final Context context = Vertx.currentContext();
+                    final ReadStream<T> readStream = restClientResponse.getBody();
+                    resumeAction.set(() -> context.runOnContext(aVoid -> readStream.resume()));
+                    emitter.setCancellable(() -> context.runOnContext(aVoid -> readStream.handler(element -> {
+                    }).resume()));
+
+                    readStream.exceptionHandler(emitter::onError);
+                    readStream.endHandler(aVoid -> emitter.onComplete());
+                    readStream.handler(element -> {
+                        emitter.onNext(element);
+                        if (emitter.requested() == 0) {
+                            readStream.pause();
+                        }
+                    });
+                }).exceptionHandler(emitter::onError);
+                try {
+                    final DefaultRxRestClientRequest<ReadStream<T>> rxDecoratedRequest = new DefaultRxRestClientRequest<>(callbackRequest);
+                    requestBuilder.call(rxDecoratedRequest);
+                } catch (Exception e) {
+                    emitter.onError(e);
+                }
+            }, BackpressureStrategy.BUFFER).doOnRequest(requested -> {
+                final Runnable resume = resumeAction.get();
+                if (resume != null) {
+                    resume.run();
+                }
+            });
+        });
+    }
 }
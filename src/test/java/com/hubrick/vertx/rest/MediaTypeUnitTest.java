@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.exception.InvalidMediaTypeException;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class MediaTypeUnitTest {
+
+    @Test
+    public void testParseInternsInstances() {
+        final MediaType first = MediaType.parseMediaType("application/json;charset=UTF-8");
+        final MediaType second = MediaType.parseMediaType("application/json;charset=UTF-8");
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(first.toString(), is(sameInstance(first.toString())));
+    }
+
+    @Test
+    public void testParseDoesNotInternBoundaries() {
+        final MediaType first = MediaType.parseMediaType("multipart/form-data;boundary=abc");
+        final MediaType second = MediaType.parseMediaType("multipart/form-data;boundary=abc");
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void testParse() {
+        final MediaType mediaType = MediaType.parseMediaType(" Text/HTML ; charset=ISO-8859-1 ;q=0.5; level ;");
+
+        assertThat(mediaType.getType(), is("text"));
+        assertThat(mediaType.getSubtype(), is("html"));
+        assertThat(mediaType.getCharSet(), is(Charsets.ISO_8859_1));
+        assertThat(mediaType.getQualityValue(), is(0.5D));
+        assertThat(mediaType.getParameters().size(), is(2));
+        assertThat(mediaType.toString(), is("text/html;charset=iso-8859-1;q=0.5"));
+        assertThat(mediaType, is(new MediaType("text", "html", mediaType.getParameters())));
+        assertThat(mediaType.hashCode(), is(new MediaType("text", "html", mediaType.getParameters()).hashCode()));
+    }
+
+    @Test
+    public void testParseWildcard() {
+        final MediaType mediaType = MediaType.parseMediaType("*; q=.2");
+
+        assertThat(mediaType.isWildcardType(), is(true));
+        assertThat(mediaType.isWildcardSubtype(), is(true));
+        assertThat(mediaType.getQualityValue(), is(0.2D));
+    }
+
+    @Test(expected = InvalidMediaTypeException.class)
+    public void testParseMissingSubtype() {
+        MediaType.parseMediaType("text/;charset=UTF-8");
+    }
+
+    @Test(expected = InvalidMediaTypeException.class)
+    public void testParseInvalidQualityValue() {
+        MediaType.parseMediaType("text/plain;q=1.5");
+    }
+
+    @Test(expected = InvalidMediaTypeException.class)
+    public void testParseUnsupportedCharset() {
+        MediaType.parseMediaType("text/plain;charset=no-such-charset");
+    }
+
+    @Test
+    public void testIncludesAndCompatibleWithSuffix() {
+        final MediaType xmlWildcard = MediaType.parseMediaType("application/*+xml");
+        final MediaType soap = MediaType.parseMediaType("application/soap+xml");
+        final MediaType soapJson = MediaType.parseMediaType("application/soap+json");
+
+        assertThat(xmlWildcard.includes(soap), is(true));
+        assertThat(soap.includes(xmlWildcard), is(false));
+        assertThat(xmlWildcard.includes(soapJson), is(false));
+        assertThat(soap.isCompatibleWith(xmlWildcard), is(true));
+        assertThat(xmlWildcard.isCompatibleWith(soapJson), is(false));
+        assertThat(MediaType.parseMediaType("application/ab+xml").isCompatibleWith(soap), is(false));
+    }
+}
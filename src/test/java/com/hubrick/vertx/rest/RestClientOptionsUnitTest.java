@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class RestClientOptionsUnitTest {
+
+    @Test
+    public void testAdaptiveRequestCacheOptionsFromJson() {
+        final RestClientOptions restClientOptions = new RestClientOptions(new JsonObject()
+                .put("globalRequestCacheOptions", new JsonObject()
+                        .put("minTtlInMillis", 1000)
+                        .put("maxTtlInMillis", 60000)
+                        .put("healthyLatencyInMillis", 50)
+                        .put("degradedLatencyInMillis", 500)
+                        .put("degradedErrorRate", 0.25)));
+
+        final RequestCacheOptions requestCacheOptions = restClientOptions.getGlobalRequestCacheOptions();
+        assertThat(requestCacheOptions.getAdaptiveExpiresAfterWrite(), is(true));
+        assertThat(requestCacheOptions.getMinExpiresAfterWriteMillis(), is(1000));
+        assertThat(requestCacheOptions.getMaxExpiresAfterWriteMillis(), is(60000));
+        assertThat(requestCacheOptions.getAdaptiveHealthyLatencyMillis(), is(50));
+        assertThat(requestCacheOptions.getAdaptiveDegradedLatencyMillis(), is(500));
+        assertThat(requestCacheOptions.getAdaptiveErrorRateThreshold(), is(0.25));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinTtlWithoutMaxTtlFromJson() {
+        new RestClientOptions(new JsonObject().put("globalRequestCacheOptions", new JsonObject().put("minTtlInMillis", 1000)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxTtlWithoutMinTtlFromJson() {
+        new RestClientOptions(new JsonObject().put("globalRequestCacheOptions", new JsonObject().put("maxTtlInMillis", 60000)));
+    }
+
+    @Test
+    public void testPrefetchOptionsFromJson() {
+        final RestClientOptions restClientOptions = new RestClientOptions(new JsonObject()
+                .put("prefetchOptions", new JsonObject()
+                        .put("probabilityThreshold", 0.8)
+                        .put("maxPrefetchRatio", 0.2)
+                        .put("minObservations", 5)
+                        .put("decayInterval", 500)
+                        .put("sequenceHeader", "X-Session-Id")));
+
+        final PrefetchOptions prefetchOptions = restClientOptions.getPrefetchOptions();
+        assertThat(prefetchOptions.getProbabilityThreshold(), is(0.8));
+        assertThat(prefetchOptions.getMaxPrefetchRatio(), is(0.2));
+        assertThat(prefetchOptions.getMinObservations(), is(5));
+        assertThat(prefetchOptions.getDecayInterval(), is(500));
+        assertThat(prefetchOptions.getSequenceHeader(), is("X-Session-Id"));
+    }
+}
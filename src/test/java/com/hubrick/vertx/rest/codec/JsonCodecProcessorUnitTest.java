@@ -0,0 +1,239 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.converter.JsonCodecHttpMessageConverter;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JsonCodecProcessorUnitTest {
+
+    private static final String USER = "package test;\n" +
+            "import com.fasterxml.jackson.annotation.JsonIgnore;\n" +
+            "import com.fasterxml.jackson.annotation.JsonProperty;\n" +
+            "import com.hubrick.vertx.rest.codec.GenerateJsonCodec;\n" +
+            "import java.util.*;\n" +
+            "@GenerateJsonCodec\n" +
+            "public class User extends Base {\n" +
+            "    public long id;\n" +
+            "    @JsonProperty(\"full_name\") public String name;\n" +
+            "    private List<String> tags;\n" +
+            "    public Map<String, Integer> scores;\n" +
+            "    public Role role;\n" +
+            "    public Address address;\n" +
+            "    public Set<Address> previous;\n" +
+            "    public UUID uuid;\n" +
+            "    public int[] numbers;\n" +
+            "    @JsonIgnore public String secret = \"secret\";\n" +
+            "    public transient String cache;\n" +
+            "    public List<String> getTags() { return tags; }\n" +
+            "    public void setTags(List<String> tags) { this.tags = tags; }\n" +
+            "    public enum Role { ADMIN, USER }\n" +
+            "    @GenerateJsonCodec public static class Address { public String city; public Double lat; }\n" +
+            "}\n";
+    private static final String BASE = "package test;\n" +
+            "public class Base { public boolean active; }\n";
+    private static final String JSON = "{\"active\":true,\"id\":42,\"full_name\":\"John\",\"tags\":[\"a\",null],\"scores\":{\"x\":1,\"y\":null}," +
+            "\"role\":\"ADMIN\",\"address\":{\"city\":\"Berlin\",\"lat\":52.5},\"previous\":[{\"city\":\"Oslo\",\"lat\":null}]," +
+            "\"uuid\":\"0f8fad5b-d9cb-469f-a165-70867728950e\",\"numbers\":[1,2]}";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final ClassLoader classLoader = compile(source("test.User", USER), source("test.Base", BASE));
+        final Class<?> userClass = classLoader.loadClass("test.User");
+        final JsonCodecHttpMessageConverter<Object> converter = new JsonCodecHttpMessageConverter<>(new ObjectMapper());
+
+        final Object user = converter.read(userClass, new BufferedHttpInputMessage(
+                Unpooled.copiedBuffer("{\"unknown\":{\"a\":[1]}," + JSON.substring(1), Charsets.UTF_8),
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        ));
+        assertThat(userClass.getField("id").get(user), is(42L));
+        assertThat(userClass.getMethod("getTags").invoke(user), is(Arrays.asList("a", null)));
+        assertThat(userClass.getField("uuid").get(user).toString(), is("0f8fad5b-d9cb-469f-a165-70867728950e"));
+
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(user, MediaType.APPLICATION_JSON, httpOutputMessage);
+        assertThat(httpOutputMessage.getBody().toString(Charsets.UTF_8), is(JSON));
+        httpOutputMessage.release();
+    }
+
+    @Test
+    public void testOnlyAnnotatedClassesSupported() throws Exception {
+        final ClassLoader classLoader = compile(source("test.User", USER), source("test.Base", BASE));
+        final JsonCodecHttpMessageConverter<Object> converter = new JsonCodecHttpMessageConverter<>(new ObjectMapper());
+
+        assertThat(converter.canRead(classLoader.loadClass("test.User$Address"), MediaType.APPLICATION_JSON), is(true));
+        assertThat(converter.canRead(classLoader.loadClass("test.Base"), MediaType.APPLICATION_JSON), is(false));
+        assertThat(converter.canRead(String.class, MediaType.APPLICATION_JSON), is(false));
+    }
+
+    @Test
+    public void testInvalidClass() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> errors = compile(temporaryFolder.newFolder(), source("test.Invalid", "package test;\n" +
+                "@com.hubrick.vertx.rest.codec.GenerateJsonCodec\n" +
+                "public class Invalid { private Invalid() {} }\n"));
+
+        assertThat(errors, hasSize(1));
+        assertThat(errors.get(0).getMessage(null), containsString("no-arg constructor"));
+    }
+
+    @Test
+    public void testChar() throws Exception {
+        final ClassLoader classLoader = compile(source("test.Letter", "package test;\n" +
+                "@com.hubrick.vertx.rest.codec.GenerateJsonCodec\n" +
+                "public class Letter { public char letter = 'x'; public Character boxed = 'y'; }\n"));
+        final Class<?> letterClass = classLoader.loadClass("test.Letter");
+        final JsonCodecHttpMessageConverter<Object> converter = new JsonCodecHttpMessageConverter<>(new ObjectMapper());
+
+        final Object nulls = converter.read(letterClass, createHttpInputMessage("{\"letter\":null,\"boxed\":null}"));
+        assertThat(letterClass.getField("letter").get(nulls), is('\0'));
+        assertThat(letterClass.getField("boxed").get(nulls), is(nullValue()));
+
+        final Object letter = converter.read(letterClass, createHttpInputMessage("{\"letter\":65,\"boxed\":\"b\"}"));
+        assertThat(letterClass.getField("letter").get(letter), is('A'));
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(letter, MediaType.APPLICATION_JSON, httpOutputMessage);
+        assertThat(httpOutputMessage.getBody().toString(Charsets.UTF_8), is("{\"letter\":\"A\",\"boxed\":\"b\"}"));
+        httpOutputMessage.release();
+    }
+
+    @Test
+    public void testUnsupportedJacksonAnnotations() throws Exception {
+        final List<Diagnostic<? extends JavaFileObject>> errors = compile(temporaryFolder.newFolder(), source("test.Unsupported", "package test;\n" +
+                "import com.fasterxml.jackson.annotation.*;\n" +
+                "@com.hubrick.vertx.rest.codec.GenerateJsonCodec\n" +
+                "@JsonInclude(JsonInclude.Include.NON_NULL)\n" +
+                "public class Unsupported {\n" +
+                "    @JsonProperty(value = \"n\", access = JsonProperty.Access.READ_ONLY) public String name;\n" +
+                "    @JsonFormat(pattern = \"yyyy\") public java.util.Date date;\n" +
+                "    public State state;\n" +
+                "    @JsonCreator public Unsupported() {}\n" +
+                "    @JsonProperty(\"computed\") public int computed() { return 1; }\n" +
+                "    public enum State { @JsonProperty(\"on\") ON }\n" +
+                "}\n"));
+
+        final List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> error : errors) {
+            messages.add(error.getMessage(null));
+        }
+        assertThat(messages.toString(), messages, hasItems(
+                containsString("@JsonInclude"),
+                containsString("value of @JsonProperty, not access"),
+                containsString("@JsonFormat"),
+                containsString("@JsonCreator")
+        ));
+        assertThat(compile(temporaryFolder.newFolder(), source("test.Computed", "package test;\n" +
+                "@com.hubrick.vertx.rest.codec.GenerateJsonCodec\n" +
+                "public class Computed {\n" +
+                "    public State state;\n" +
+                "    @com.fasterxml.jackson.annotation.JsonProperty(\"computed\") public int computed() { return 1; }\n" +
+                "    public enum State { @com.fasterxml.jackson.annotation.JsonProperty(\"on\") ON }\n" +
+                "}\n")).toString(), allOf(containsString("getters and setters"), containsString("test.Computed.State")));
+    }
+
+    private static BufferedHttpInputMessage createHttpInputMessage(String json) {
+        return new BufferedHttpInputMessage(
+                Unpooled.copiedBuffer(json, Charsets.UTF_8),
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+
+    private ClassLoader compile(JavaFileObject... sources) throws Exception {
+        final File output = temporaryFolder.newFolder();
+        final List<Diagnostic<? extends JavaFileObject>> errors = compile(output, sources);
+        assertThat(errors.toString(), errors, hasSize(0));
+        return new URLClassLoader(new URL[]{output.toURI().toURL()}, getClass().getClassLoader());
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(File output, JavaFileObject... sources) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, Charsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", System.getProperty("java.class.path")), null, Arrays.asList(sources));
+            task.setProcessors(Collections.singletonList(new JsonCodecProcessor()));
+            task.call();
+        }
+
+        final List<Diagnostic<? extends JavaFileObject>> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic);
+            }
+        }
+        return errors;
+    }
+
+    private static JavaFileObject source(String className, String content) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return content;
+            }
+        };
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class ChunkDecoderUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testJsonArraySplitAtEveryPosition() {
+        final String json = " [ {\"name\":\"a]b\\\"}\",\"tags\":[1,{\"x\":[]}]}, \"str,ing\", 42 ,true,null,[1,2] ] ";
+        for (int split = 0; split <= json.length(); split++) {
+            final ChunkDecoder<Object> chunkDecoder = new JsonArrayChunkDecoder<>(objectMapper.readerFor(Object.class));
+            final List<Object> elements = new ArrayList<>();
+
+            chunkDecoder.write(Unpooled.copiedBuffer(json.substring(0, split), Charsets.UTF_8));
+            drain(chunkDecoder, elements);
+            chunkDecoder.write(Unpooled.copiedBuffer(json.substring(split), Charsets.UTF_8));
+            drain(chunkDecoder, elements);
+            chunkDecoder.end();
+            drain(chunkDecoder, elements);
+
+            assertThat("split at " + split, elements.size(), is(6));
+            assertThat(((Map) elements.get(0)).get("name"), is("a]b\"}"));
+            assertThat(elements.subList(1, 6), is(Arrays.asList("str,ing", 42, true, null, Arrays.asList(1, 2))));
+        }
+    }
+
+    @Test
+    public void testEmptyJsonArray() {
+        final ChunkDecoder<Object> chunkDecoder = new JsonArrayChunkDecoder<>(objectMapper.readerFor(Object.class));
+        chunkDecoder.write(Unpooled.copiedBuffer("[ ]", Charsets.UTF_8));
+        chunkDecoder.end();
+
+        assertThat(chunkDecoder.hasNext(), is(false));
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testTruncatedJsonArray() {
+        final ChunkDecoder<Object> chunkDecoder = new JsonArrayChunkDecoder<>(objectMapper.readerFor(Object.class));
+        chunkDecoder.write(Unpooled.copiedBuffer("[1,{\"a\":", Charsets.UTF_8));
+        chunkDecoder.end();
+
+        drain(chunkDecoder, new ArrayList<>());
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testNoJsonArray() {
+        final ChunkDecoder<Object> chunkDecoder = new JsonArrayChunkDecoder<>(objectMapper.readerFor(Object.class));
+        chunkDecoder.write(Unpooled.copiedBuffer("{\"a\":1}", Charsets.UTF_8));
+
+        chunkDecoder.hasNext();
+    }
+
+    @Test
+    public void testJsonLines() {
+        final ChunkDecoder<Object> chunkDecoder = new JsonLinesChunkDecoder<>(objectMapper.readerFor(Object.class));
+        final List<Object> elements = new ArrayList<>();
+
+        chunkDecoder.write(Unpooled.copiedBuffer("{\"a\":1}\r\n\n  \n[1,", Charsets.UTF_8));
+        drain(chunkDecoder, elements);
+        assertThat(elements.size(), is(1));
+
+        chunkDecoder.write(Unpooled.copiedBuffer("2]\n\"last\"", Charsets.UTF_8));
+        drain(chunkDecoder, elements);
+        assertThat(elements.size(), is(2));
+
+        chunkDecoder.end();
+        drain(chunkDecoder, elements);
+        assertThat(elements.size(), is(3));
+        assertThat(elements.get(2), is("last"));
+    }
+
+    @Test
+    public void testCsvSplitAtEveryPosition() {
+        final String csv = "id,name,amount\r\n1,\"Doe, John\",-12\n\n2,\"say \"\"hi\"\"\nthere\",9223372036854775807\r\n3,,0";
+        for (int split = 0; split <= csv.length(); split++) {
+            for (boolean reuseRows : new boolean[]{false, true}) {
+                final ChunkDecoder<CsvRow> chunkDecoder = new CsvChunkDecoder(',', true, Charsets.UTF_8, reuseRows);
+                final List<List<String>> rows = new ArrayList<>();
+
+                chunkDecoder.write(Unpooled.copiedBuffer(csv.substring(0, split), Charsets.UTF_8));
+                drainRows(chunkDecoder, rows);
+                chunkDecoder.write(Unpooled.copiedBuffer(csv.substring(split), Charsets.UTF_8));
+                drainRows(chunkDecoder, rows);
+                chunkDecoder.end();
+                drainRows(chunkDecoder, rows);
+
+                assertThat("split at " + split, rows, is(Arrays.asList(
+                        Arrays.asList("id", "name", "amount"),
+                        Arrays.asList("1", "Doe, John", "-12"),
+                        Arrays.asList("2", "say \"hi\"\nthere", "9223372036854775807"),
+                        Arrays.asList("3", "", "0")
+                )));
+            }
+        }
+    }
+
+    @Test
+    public void testCsvTypedFields() {
+        final ChunkDecoder<CsvRow> chunkDecoder = new CsvChunkDecoder('\t', false, Charsets.UTF_8, true);
+        chunkDecoder.write(Unpooled.copiedBuffer("-2147483648\t-9223372036854775808\t1.5e3\tTRUE\t\"x\"\t\n", Charsets.UTF_8));
+        chunkDecoder.end();
+
+        final CsvRow row = chunkDecoder.next();
+        assertThat(row.size(), is(6));
+        assertThat(row.getInt(0), is(Integer.MIN_VALUE));
+        assertThat(row.getLong(1), is(Long.MIN_VALUE));
+        assertThat(row.getDouble(2), is(1500d));
+        assertThat(row.getBoolean(3), is(true));
+        assertThat(row.getString(4), is("\"x\""));
+        assertThat(row.isEmpty(5), is(true));
+        assertThat(row.copy().toList(), is(row.toList()));
+        assertThat(chunkDecoder.hasNext(), is(false));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testCsvLongOverflow() {
+        final ChunkDecoder<CsvRow> chunkDecoder = new CsvChunkDecoder(',', true, Charsets.UTF_8, false);
+        chunkDecoder.write(Unpooled.copiedBuffer("9223372036854775808", Charsets.UTF_8));
+        chunkDecoder.end();
+
+        chunkDecoder.next().getLong(0);
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testCsvUnterminatedQuote() {
+        final ChunkDecoder<CsvRow> chunkDecoder = new CsvChunkDecoder(',', true, Charsets.UTF_8, false);
+        chunkDecoder.write(Unpooled.copiedBuffer("1,\"open\n", Charsets.UTF_8));
+        chunkDecoder.end();
+
+        chunkDecoder.hasNext();
+    }
+
+    private void drainRows(ChunkDecoder<CsvRow> chunkDecoder, List<List<String>> rows) {
+        while (chunkDecoder.hasNext()) {
+            rows.add(chunkDecoder.next().toList());
+        }
+    }
+
+    private void drain(ChunkDecoder<Object> chunkDecoder, List<Object> elements) {
+        while (chunkDecoder.hasNext()) {
+            elements.add(chunkDecoder.next());
+        }
+    }
+}
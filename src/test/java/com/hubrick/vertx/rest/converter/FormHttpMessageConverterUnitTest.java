@@ -29,6 +29,7 @@ import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpHeaders;
 import org.junit.Test;
 
+import java.net.URLEncoder;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.is;
@@ -64,4 +65,27 @@ public class FormHttpMessageConverterUnitTest {
         assertThat(values.size(), is(1));
         assertThat(values.get("test"), is(ImmutableSet.of("value")));
     }
+
+    @Test
+    public void testRoundTripEscaped() throws Exception {
+        final FormHttpMessageConverter converter = new FormHttpMessageConverter();
+        final HttpOutputMessage message = new BufferedHttpOutputMessage();
+
+        final HashMultimap<String, Object> values = HashMultimap.create();
+        values.put("na me", "a&b=c+d%e");
+        values.put("emoji", "gr\u00fc\u00dfe \ud83d\ude00!");
+        values.put("flag", null);
+
+        converter.write(values, MediaType.APPLICATION_FORM_URLENCODED, message);
+        final String body = message.getBody().toString(Charsets.UTF_8);
+
+        assertThat(body.contains("na+me=" + URLEncoder.encode("a&b=c+d%e", "UTF-8")), is(true));
+        assertThat(body.contains("emoji=" + URLEncoder.encode("gr\u00fc\u00dfe \ud83d\ude00!", "UTF-8")), is(true));
+
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(body.getBytes(Charsets.UTF_8));
+        final Class<? extends Multimap<String, Object>> clazz = (Class<? extends Multimap<String, Object>>) HashMultimap.<String, Object>create().getClass();
+        final Multimap<String, Object> read = converter.read(clazz, new BufferedHttpInputMessage(byteBuf, MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED_VALUE), MultiMap.caseInsensitiveMultiMap(), "Ok", 200, Collections.emptyList()));
+
+        assertThat(read, is(values));
+    }
 }
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JacksonBinaryHttpMessageConverterUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
+
+    @Test
+    public void testSmileRoundTrip() {
+        testRoundTrip(new JacksonSmileHttpMessageConverter<>(objectMapper), MediaType.APPLICATION_SMILE, (byte) ':');
+    }
+
+    @Test
+    public void testCborRoundTrip() {
+        testRoundTrip(new JacksonCborHttpMessageConverter<>(objectMapper), MediaType.APPLICATION_CBOR, (byte) 0xbf);
+    }
+
+    @Test
+    public void testSupportedMediaTypes() {
+        final JacksonSmileHttpMessageConverter<Object> converter = new JacksonSmileHttpMessageConverter<>(objectMapper);
+
+        assertThat(converter.canRead(User.class, MediaType.APPLICATION_SMILE), is(true));
+        assertThat(converter.canRead(User.class, MediaType.APPLICATION_JSON), is(false));
+        assertThat(converter.isPreferredForAccept(), is(true));
+        assertThat(new JacksonJsonHttpMessageConverter<>(objectMapper).isPreferredForAccept(), is(false));
+    }
+
+    private void testRoundTrip(AbstractJacksonHttpMessageConverter<Object> converter, MediaType mediaType, byte firstByte) {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(new User("john", 42), mediaType, httpOutputMessage);
+
+        assertThat(httpOutputMessage.getBody().getByte(0), is(firstByte));
+        assertThat(httpOutputMessage.getBody().getByte(0), is(not((byte) '{')));
+
+        final User user = (User) converter.read(User.class, new BufferedHttpInputMessage(
+                httpOutputMessage.getBody(),
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, mediaType.toString()),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        ));
+        final Map<String, Object> tree = (Map<String, Object>) converter.read(Map.class, new BufferedHttpInputMessage(
+                httpOutputMessage.getBody(),
+                MultiMap.caseInsensitiveMultiMap(),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        ));
+        httpOutputMessage.release();
+
+        assertThat(user.getUserName(), is("john"));
+        assertThat(user.getAge(), is(42));
+        assertThat(tree.get("user_name"), is("john"));
+    }
+
+    public static class User {
+
+        private String userName;
+        private int age;
+
+        public User() {
+        }
+
+        public User(String userName, int age) {
+            this.userName = userName;
+            this.age = age;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
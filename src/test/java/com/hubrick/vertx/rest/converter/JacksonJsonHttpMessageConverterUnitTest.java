@@ -0,0 +1,235 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class JacksonJsonHttpMessageConverterUnitTest {
+
+    private final JacksonJsonHttpMessageConverter<Object> converter = new JacksonJsonHttpMessageConverter<>(new ObjectMapper());
+
+    @Test
+    public void testReadFromCompositeBuffer() {
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(
+                Unpooled.copiedBuffer("{\"name\":\"jo", Charsets.UTF_8),
+                Unpooled.directBuffer().writeBytes("hn\",\"age\"".getBytes(Charsets.UTF_8)),
+                Unpooled.copiedBuffer(":42}", Charsets.UTF_8)
+        );
+        final HttpInputMessage httpInputMessage = createHttpInputMessage(byteBuf);
+
+        final Map<String, Object> first = (Map<String, Object>) converter.read(Map.class, httpInputMessage);
+        final Map<String, Object> second = (Map<String, Object>) converter.read(Map.class, httpInputMessage);
+
+        assertThat(first.get("name"), is("john"));
+        assertThat(first.get("age"), is(42));
+        assertThat(second, is(first));
+    }
+
+    @Test
+    public void testReadFromSlicedHeapBuffer() {
+        final ByteBuf byteBuf = Unpooled.copiedBuffer("xxx[1,2,3]xxx", Charsets.UTF_8).slice(3, 7);
+
+        final Object values = converter.read(Object.class, createHttpInputMessage(byteBuf));
+
+        assertThat(values.toString(), is("[1, 2, 3]"));
+    }
+
+    @Test
+    public void testWriteIntoPooledBuffer() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+
+        converter.write(Collections.singletonMap("name", "john"), MediaType.APPLICATION_JSON, httpOutputMessage);
+
+        assertThat(httpOutputMessage.getBody().toString(Charsets.UTF_8), is("{\"name\":\"john\"}"));
+        httpOutputMessage.release();
+        assertThat(httpOutputMessage.getBody().refCnt(), is(0));
+    }
+
+    @Test
+    public void testPayloadSizeEstimate() {
+        final PayloadSizeEstimator payloadSizeEstimator = new PayloadSizeEstimator(256, 1024);
+        assertThat(payloadSizeEstimator.estimate(String.class), is(256));
+
+        payloadSizeEstimator.record(String.class, 400);
+        assertThat(payloadSizeEstimator.estimate(String.class), is(516));
+
+        payloadSizeEstimator.record(String.class, 4000);
+        assertThat(payloadSizeEstimator.estimate(String.class), is(1024));
+    }
+
+    @Test
+    public void testIncrementalDecodeSplitAtEveryPosition() {
+        final byte[] json = "{\"name\":\"j\u00f8hn\",\"age\":42,\"score\":1.5,\"tags\":[\"a\",{\"b\":null}]}".getBytes(Charsets.UTF_8);
+        converter.setIncrementalParsing(true);
+        assertThat(converter.canReadIncrementally(Map.class, MediaType.APPLICATION_JSON), is(true));
+
+        for (int split = 0; split <= json.length; split++) {
+            final IncrementalDecoder<Map> decoder = converter.createIncrementalDecoder(Map.class, MediaType.APPLICATION_JSON);
+            decoder.write(Unpooled.wrappedBuffer(json, 0, split));
+            decoder.write(Unpooled.directBuffer().writeBytes(json, split, json.length - split));
+
+            final Map<String, Object> value = decoder.end();
+
+            assertThat(value.get("name"), is("j\u00f8hn"));
+            assertThat(value.get("age"), is(42));
+            assertThat(value.get("score"), is(1.5));
+            assertThat(value.get("tags").toString(), is("[a, {b=null}]"));
+        }
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testIncrementalDecodeTruncatedBody() {
+        final IncrementalDecoder<Map> decoder = converter.createIncrementalDecoder(Map.class, MediaType.APPLICATION_JSON);
+        decoder.write(Unpooled.copiedBuffer("{\"name\":\"jo", Charsets.UTF_8));
+
+        decoder.end();
+    }
+
+    @Test
+    public void testReadProjection() {
+        final JacksonJsonHttpMessageConverter<Object> projectingConverter = new JacksonJsonHttpMessageConverter<>(new ObjectMapper());
+        projectingConverter.setProjection(Map.class, JsonProjection.of("/user/name", "/items/1/id"));
+        // The document is cut off after the selected values, reading must stop before the broken part
+        final ByteBuf byteBuf = Unpooled.copiedBuffer(
+                "{\"skipped\":{\"a\":[1,{\"b\":2}]},\"user\":{\"id\":7,\"name\":\"john\",\"tags\":[\"x\"]}," +
+                        "\"items\":[{\"id\":1},{\"id\":2,\"big\":[1,2,3]},{\"id\":3}],\"broken\":[tru", Charsets.UTF_8);
+
+        final Map<String, Object> result = (Map<String, Object>) projectingConverter.read(Map.class, createHttpInputMessage(byteBuf));
+
+        assertThat(result.keySet().toString(), is("[user, items]"));
+        assertThat(result.get("user").toString(), is("{name=john}"));
+        assertThat(result.get("items").toString(), is("[null, {id=2}]"));
+    }
+
+    @Test
+    public void testReadClassProjection() {
+        final JacksonJsonHttpMessageConverter<Object> projectingConverter = new JacksonJsonHttpMessageConverter<>(new ObjectMapper());
+        projectingConverter.setProjection(Projected.class);
+        final ByteBuf byteBuf = Unpooled.copiedBuffer(
+                "{\"name\":\"john\",\"ignored\":{\"deep\":[1,2]},\"tags\":[\"a\",\"b\"],\"trailing\":", Charsets.UTF_8);
+
+        final Projected result = (Projected) projectingConverter.read(Projected.class, createHttpInputMessage(byteBuf));
+
+        assertThat(result.name, is("john"));
+        assertThat(result.tags.toString(), is("[a, b]"));
+    }
+
+    @Test
+    public void testUpdate() {
+        final Polled target = new Polled();
+        final List<String> tags = target.tags;
+        final Map<String, Integer> counts = target.counts;
+        final Projected nested = target.nested;
+        tags.add("stale");
+        counts.put("stale", 1);
+        nested.tags = new ArrayList<>(Arrays.asList("old"));
+        target.values = new int[]{9, 9, 9};
+
+        final Polled result = converter.update(Polled.class, target, createHttpInputMessage(Unpooled.copiedBuffer(
+                "{\"tags\":[\"a\",\"b\"],\"counts\":{\"x\":2},\"nested\":{\"name\":\"john\",\"tags\":[\"c\"]},\"values\":[1]}",
+                Charsets.UTF_8)));
+
+        assertThat(result, is(sameInstance(target)));
+        assertThat(result.tags, is(sameInstance(tags)));
+        assertThat(result.tags.toString(), is("[a, b]"));
+        assertThat(result.counts, is(sameInstance(counts)));
+        assertThat(result.counts.toString(), is("{x=2}"));
+        assertThat(result.nested, is(sameInstance(nested)));
+        assertThat(result.nested.name, is("john"));
+        assertThat(result.nested.tags.toString(), is("[c]"));
+        assertThat(result.values, is(new int[]{1}));
+    }
+
+    @Test
+    public void testUpdateUnmodifiableCollection() {
+        final Polled target = new Polled();
+        target.tags = Collections.singletonList("stale");
+
+        converter.update(Polled.class, target, createHttpInputMessage(Unpooled.copiedBuffer("{\"tags\":[\"a\"]}", Charsets.UTF_8)));
+
+        assertThat(target.tags.toString(), is("[a]"));
+    }
+
+    @Test
+    public void testStringPool() {
+        final StringPool stringPool = new StringPool(16, 8);
+        final JacksonJsonHttpMessageConverter<Object> poolingConverter = new JacksonJsonHttpMessageConverter<>(new ObjectMapper());
+        poolingConverter.setStringPool(stringPool);
+
+        final Map<String, Object> first = (Map<String, Object>) poolingConverter.read(Map.class, createHttpInputMessage(
+                Unpooled.copiedBuffer("{\"currency\":\"EUR\",\"list\":[\"EUR\",\"a very long value\"]}", Charsets.UTF_8)));
+        final Polled second = poolingConverter.update(Polled.class, new Polled(), createHttpInputMessage(
+                Unpooled.copiedBuffer("{\"tags\":[\"EUR\",\"a very long value\"],\"nested\":{\"name\":\"EUR\"}}", Charsets.UTF_8)));
+
+        assertThat(((List<String>) first.get("list")).get(0), is(sameInstance(first.get("currency"))));
+        assertThat(second.tags.get(0), is(sameInstance(first.get("currency"))));
+        assertThat(second.nested.name, is(sameInstance(first.get("currency"))));
+        assertThat(second.tags.get(1), is("a very long value"));
+        assertThat(stringPool.getHitCount(), is(3L));
+        assertThat(stringPool.getMissCount(), is(1L));
+        assertThat(stringPool.getHitRate(), is(0.75D));
+        assertThat(stringPool.getBytesSaved(), is(3L * (40 + 8)));
+    }
+
+    private HttpInputMessage createHttpInputMessage(ByteBuf byteBuf) {
+        return new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+
+    public static class Projected {
+        public String name;
+        public List<String> tags;
+    }
+
+    public static class Polled {
+        public List<String> tags = new ArrayList<>();
+        public Map<String, Integer> counts = new HashMap<>();
+        public Projected nested = new Projected();
+        public int[] values;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class LazyJsonHttpMessageConverterUnitTest {
+
+    private static final String DOCUMENT = "{\"id\": -42, \"name\":\"jo\\\"hn \\u00e9\", \"gr\u00fc\u00dfe\":true,\n" +
+            "\"items\":[{\"id\":1,\"tags\":[]},{\"id\":2,\"price\":1.5e2}, null],\"es\\ncaped\":false," +
+            "\"unused\":[1x, {\"deep\":--1}]}";
+
+    private final LazyJsonHttpMessageConverter converter = new LazyJsonHttpMessageConverter();
+
+    @Test
+    public void testRead() {
+        final LazyJson json = read(DOCUMENT);
+
+        assertThat(json.getType(), is(LazyJson.Type.OBJECT));
+        assertThat(json.size(), is(6));
+        assertThat(json.get("id").asLong(), is(-42L));
+        assertThat(json.get("name").asString(), is("jo\"hn \u00e9"));
+        assertThat(json.get("gr\u00fc\u00dfe").asBoolean(), is(true));
+        assertThat(json.get("es\ncaped").asBoolean(), is(false));
+        assertThat(json.get("missing"), is(nullValue()));
+        assertThat(json.get("items").get(1).get("price").asDouble(), is(150D));
+        assertThat(json.get("items").get(0).get("tags").size(), is(0));
+        assertThat(json.get("items").get(2).isNull(), is(true));
+        assertThat(json.get("items").get(3), is(nullValue()));
+        assertThat(json.get("items").getElements().get(1).get("id").asInt(), is(2));
+        assertThat(json.getFieldNames().toString(), is("[id, name, gr\u00fc\u00dfe, items, es\ncaped, unused]"));
+        // Values are validated on access only
+        assertThat(json.get("unused").toString(), is("[1x, {\"deep\":--1}]"));
+    }
+
+    @Test
+    public void testWriteRaw() {
+        final LazyJson json = read(DOCUMENT);
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+
+        converter.write(json.get("items").get(0), MediaType.APPLICATION_JSON, httpOutputMessage);
+
+        assertThat(httpOutputMessage.getBody().toString(Charsets.UTF_8), is("{\"id\":1,\"tags\":[]}"));
+        httpOutputMessage.release();
+        assertThat(json.get("id").asInt(), is(-42));
+    }
+
+    @Test
+    public void testReadGrowsIndex() {
+        final StringBuilder document = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            document.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append('}');
+        }
+        final LazyJson json = read(document.append(']').toString());
+
+        assertThat(json.size(), is(5000));
+        assertThat(json.get(4999).get("id").asInt(), is(4999));
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadTruncated() {
+        read("{\"items\":[1,2");
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadUnbalanced() {
+        read("{\"items\":[1,2}}");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testNotALong() {
+        read("[1.5]").get(0).asLong();
+    }
+
+    private LazyJson read(String document) {
+        final int split = document.length() / 2;
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(
+                Unpooled.copiedBuffer(document.substring(0, split), Charsets.UTF_8),
+                Unpooled.directBuffer().writeBytes(document.substring(split).getBytes(Charsets.UTF_8))
+        );
+        final HttpInputMessage httpInputMessage = new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+        return converter.read(LazyJson.class, httpInputMessage);
+    }
+}
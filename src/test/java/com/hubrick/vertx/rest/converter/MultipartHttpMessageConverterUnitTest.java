@@ -0,0 +1,316 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Multimap;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.converter.model.Part;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.streams.WriteStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class MultipartHttpMessageConverterUnitTest {
+
+    private static final String CONTENT_TYPE = "multipart/mixed; boundary=\"b0und:ary\"";
+    private static final String BODY = "preamble\r\n--b0und:ary\r\n\r\n\r\n--b0und:ary  \r\n" +
+            "Content-Disposition: form-data; name=\"doc\"; filename=\"a;\\\"b\\\".txt\"\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "\r\n" +
+            "line\r\n--b0und:ar\r\n-\r\n\r\n--b0und:ary\r\n" +
+            "\r\n" +
+            "\r\n--b0und:ary--\r\nepilogue";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final MultipartHttpMessageConverter converter = new MultipartHttpMessageConverter();
+
+    @Test
+    public void testRead() {
+        final Multimap<String, Part> parts = converter.read(null, createHttpInputMessage(CONTENT_TYPE, Unpooled.copiedBuffer(BODY, Charsets.UTF_8)));
+
+        assertThat(parts.keys(), contains("", "doc", ""));
+        final List<Part> values = new ArrayList<>(parts.values());
+        assertThat(body(values.get(0)), is(""));
+        assertThat(values.get(0).getHeaders().isEmpty(), is(true));
+        assertThat(values.get(1).getFileName(), is("a;\"b\".txt"));
+        assertThat(values.get(1).getContentType(), is(MediaType.TEXT_PLAIN));
+        assertThat(body(values.get(1)), is("line\r\n--b0und:ar\r\n-\r\n"));
+        assertThat(values.get(2).getHeaders().isEmpty(), is(true));
+        assertThat(values.get(2).getFileName(), is(nullValue()));
+        assertThat(body(values.get(2)), is(""));
+    }
+
+    @Test
+    public void testReadWritten() {
+        final Multimap<String, Part> written = LinkedListMultimap.create();
+        written.put("text", new Part<>("hello", "hello.txt").setContentType(MediaType.TEXT_PLAIN));
+        written.put("bytes", new Part<>(new byte[]{'\r', '\n', '-', '-'}, "bytes.bin").setContentType(MediaType.APPLICATION_OCTET_STREAM));
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(written, MediaType.MULTIPART_FORM_DATA, httpOutputMessage);
+
+        final Multimap<String, Part> parts = converter.read(null, createHttpInputMessage(
+                httpOutputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE), Unpooled.copiedBuffer(httpOutputMessage.getBody())));
+        httpOutputMessage.release();
+
+        assertThat(parts.keys(), contains("text", "bytes"));
+        assertThat(body(parts.get("text").iterator().next()), is("hello"));
+        assertThat(body(parts.get("bytes").iterator().next()), is("\r\n--"));
+        assertThat(parts.get("bytes").iterator().next().getFileName(), is("bytes.bin"));
+    }
+
+    @Test
+    public void testWriteNonAsciiFileName() {
+        final Multimap<String, Part> written = LinkedListMultimap.create();
+        written.put("text", new Part<>("hello", "\u00e9\u010d\u0162\r\n.txt").setContentType(MediaType.TEXT_PLAIN));
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(written, MediaType.MULTIPART_FORM_DATA, httpOutputMessage);
+
+        final String body = httpOutputMessage.getBody().toString(Charsets.ISO_8859_1);
+        assertThat(body, containsString("Content-Disposition: form-data; name=\"text\"; filename=\"?????.txt\"\r\n"));
+        final Multimap<String, Part> parts = converter.read(null, createHttpInputMessage(
+                httpOutputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE), Unpooled.copiedBuffer(httpOutputMessage.getBody())));
+        httpOutputMessage.release();
+
+        assertThat(parts.get("text").iterator().next().getFileName(), is("?????.txt"));
+        assertThat(body(parts.get("text").iterator().next()), is("hello"));
+    }
+
+    @Test
+    public void testStreamSplitAtEveryPosition() {
+        final MediaType mediaType = MediaType.parseMediaType(CONTENT_TYPE);
+        assertThat(converter.canStream(Part.class, mediaType), is(true));
+        final byte[] body = BODY.getBytes(Charsets.UTF_8);
+
+        for (int split = 0; split <= body.length; split++) {
+            final ChunkDecoder<Part> decoder = converter.createChunkDecoder(Part.class, mediaType);
+            final List<String> bodies = new ArrayList<>();
+            decoder.write(Unpooled.wrappedBuffer(body, 0, split));
+            while (decoder.hasNext()) {
+                bodies.add(consume(decoder.next()));
+            }
+            decoder.write(Unpooled.directBuffer().writeBytes(body, split, body.length - split));
+            decoder.end();
+            while (decoder.hasNext()) {
+                bodies.add(consume(decoder.next()));
+            }
+
+            assertThat("split at " + split, bodies, contains("", "line\r\n--b0und:ar\r\n-\r\n", ""));
+        }
+    }
+
+    @Test
+    public void testWriteStreamedParts() throws Exception {
+        final byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        final File file = temporaryFolder.newFile("upload.txt");
+        Files.write(file.toPath(), content);
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final AsyncFile asyncFile = vertx.fileSystem().openBlocking(file.getPath(), new OpenOptions().setRead(true));
+            final Multimap<String, Part> written = LinkedListMultimap.create();
+            written.put("text", new Part<>("hello", "hello.txt").setContentType(MediaType.TEXT_PLAIN));
+            written.put("file", new Part<>(file, (String) null));
+            written.put("stream", new Part<>(asyncFile, MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length))));
+            final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+            converter.write(written, MediaType.MULTIPART_FORM_DATA, httpOutputMessage);
+
+            assertThat(httpOutputMessage.isStreaming(), is(true));
+            final long contentLength = httpOutputMessage.getContentLength();
+            final Buffer sent = Buffer.buffer();
+            final CompletableFuture<Void> completed = new CompletableFuture<>();
+            vertx.runOnContext(aVoid -> httpOutputMessage.writeTo(vertx, collectingWriteStream(sent), result -> {
+                if (result.succeeded()) {
+                    completed.complete(null);
+                } else {
+                    completed.completeExceptionally(result.cause());
+                }
+            }));
+            completed.get(10, TimeUnit.SECONDS);
+
+            assertThat((long) sent.length(), is(contentLength));
+            final Multimap<String, Part> parts = converter.read(null, createHttpInputMessage(
+                    httpOutputMessage.getHeaders().get(HttpHeaders.CONTENT_TYPE), sent.getByteBuf()));
+            assertThat(parts.keys(), contains("text", "file", "stream"));
+            assertThat(body(parts.get("text").iterator().next()), is("hello"));
+            assertThat(parts.get("file").iterator().next().getFileName(), is("upload.txt"));
+            assertThat(parts.get("file").iterator().next().getContentType(), is(MediaType.APPLICATION_OCTET_STREAM));
+            assertThat(body(parts.get("file").iterator().next()), is(new String(content, Charsets.US_ASCII)));
+            assertThat(body(parts.get("stream").iterator().next()), is(new String(content, Charsets.US_ASCII)));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test
+    public void testStreamLengthMismatchFails() throws Exception {
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), new byte[100]);
+
+        final Vertx vertx = Vertx.vertx();
+        try {
+            assertThat(writeStreamWithDeclaredLength(vertx, file, 101), containsString("Streamed 100 bytes instead of the expected 101"));
+            assertThat(writeStreamWithDeclaredLength(vertx, file, 99), containsString("Streamed more than the expected 99 bytes"));
+        } finally {
+            vertx.close();
+        }
+    }
+
+    private String writeStreamWithDeclaredLength(Vertx vertx, File file, long length) throws Exception {
+        final Multimap<String, Part> written = LinkedListMultimap.create();
+        written.put("stream", new Part<>(vertx.fileSystem().openBlocking(file.getPath(), new OpenOptions().setRead(true)),
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_LENGTH, String.valueOf(length))));
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(written, MediaType.MULTIPART_FORM_DATA, httpOutputMessage);
+
+        final CompletableFuture<String> failure = new CompletableFuture<>();
+        vertx.runOnContext(aVoid -> httpOutputMessage.writeTo(vertx, collectingWriteStream(Buffer.buffer()),
+                result -> failure.complete(result.failed() ? result.cause().getMessage() : null)));
+        return failure.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testStreamWithoutLengthHasUnknownContentLength() throws Exception {
+        final Multimap<String, Part> written = LinkedListMultimap.create();
+        final Vertx vertx = Vertx.vertx();
+        try {
+            written.put("stream", new Part<>(vertx.fileSystem().openBlocking(temporaryFolder.newFile().getPath(), new OpenOptions().setRead(true)), (String) null));
+            final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+            converter.write(written, MediaType.MULTIPART_FORM_DATA, httpOutputMessage);
+
+            assertThat(httpOutputMessage.getContentLength(), is(-1L));
+            httpOutputMessage.release();
+        } finally {
+            vertx.close();
+        }
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testMaxPartSize() {
+        converter.setMaxPartSize(4);
+
+        converter.read(null, createHttpInputMessage(CONTENT_TYPE, Unpooled.copiedBuffer(BODY, Charsets.UTF_8)));
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testMaxPartHeaderSize() {
+        converter.setMaxPartHeaderSize(16);
+        final ChunkDecoder<Part> decoder = converter.createChunkDecoder(Part.class, MediaType.parseMediaType(CONTENT_TYPE));
+
+        decoder.write(Unpooled.copiedBuffer("--b0und:ary\r\nContent-Disposition: form-data; name=\"doc\"", Charsets.UTF_8));
+        decoder.hasNext();
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testTruncatedBody() {
+        converter.read(null, createHttpInputMessage(CONTENT_TYPE, Unpooled.copiedBuffer(BODY.substring(0, BODY.indexOf("--b0und:ary--")), Charsets.UTF_8)));
+    }
+
+    private static String body(Part part) {
+        return ((ByteBuf) part.getObject()).toString(Charsets.UTF_8);
+    }
+
+    private static String consume(Part part) {
+        try {
+            return body(part);
+        } finally {
+            ((ByteBuf) part.getObject()).release();
+        }
+    }
+
+    private static WriteStream<Buffer> collectingWriteStream(Buffer target) {
+        return new WriteStream<Buffer>() {
+            @Override
+            public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+                return this;
+            }
+
+            @Override
+            public WriteStream<Buffer> write(Buffer data) {
+                target.appendBuffer(data);
+                data.getByteBuf().release();
+                return this;
+            }
+
+            @Override
+            public void end() {
+            }
+
+            @Override
+            public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+                return this;
+            }
+
+            @Override
+            public boolean writeQueueFull() {
+                return false;
+            }
+
+            @Override
+            public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+                return this;
+            }
+        };
+    }
+
+    private HttpInputMessage createHttpInputMessage(String contentType, ByteBuf byteBuf) {
+        return new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, contentType),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+}
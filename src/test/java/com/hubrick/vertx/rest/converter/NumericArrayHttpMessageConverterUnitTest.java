@@ -0,0 +1,157 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class NumericArrayHttpMessageConverterUnitTest {
+
+    private final NumericArrayHttpMessageConverter converter = new NumericArrayHttpMessageConverter();
+
+    @Test
+    public void testReadDoublesExactly() {
+        final Random random = new Random(42);
+        final double[] expected = new double[10000];
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < expected.length; i++) {
+            final String number;
+            switch (i % 4) {
+                case 0:
+                    number = Double.toString(random.nextDouble() * 1000);
+                    break;
+                case 1:
+                    number = Double.toString(-random.nextGaussian() * 1e-7);
+                    break;
+                case 2:
+                    number = String.format("%.3f", random.nextDouble() * 100).replace(',', '.');
+                    break;
+                default:
+                    number = random.nextInt() + "E-" + random.nextInt(30) + " ";
+            }
+            expected[i] = Double.parseDouble(number);
+            json.append(i > 0 ? ",\n" : "").append(number);
+        }
+        json.append("]");
+
+        assertThat(read(double[].class, json.toString()), is(expected));
+    }
+
+    @Test
+    public void testReadIntegralArrays() {
+        final String json = "[ 0, -1, 9223372036854775807, -9223372036854775808 ]";
+
+        assertThat(read(long[].class, json), is(new long[]{0L, -1L, Long.MAX_VALUE, Long.MIN_VALUE}));
+        assertThat(read(int[].class, "[1,-2,3]"), is(new int[]{1, -2, 3}));
+        assertThat(read(double[].class, "[]"), is(new double[0]));
+    }
+
+    @Test
+    public void testReadColumnWithMissingValues() {
+        final NumericColumn column = read(NumericColumn.class, "[1, null, 2.5, 100000000000000000000]");
+
+        assertThat(column.size(), is(4));
+        assertThat(column.isIntegral(), is(false));
+        assertThat(column.getLong(0), is(1L));
+        assertThat(Double.isNaN(column.getDouble(1)), is(true));
+        assertThat(column.getDouble(2), is(2.5D));
+        assertThat(column.getDouble(3), is(1e20D));
+    }
+
+    @Test
+    public void testReadColumns() {
+        final NumericColumns columns = read(NumericColumns.class,
+                "[{\"t\":1,\"v\":0.5,\"name\":\"a,}\",\"nested\":{\"x\":[1,{}]}}," +
+                        "{\"v\":1.5, \"t\":2, \"late\":7}," +
+                        "{\"t\":3,\"v\":null,\"t\":4}]");
+
+        assertThat(columns.getRowCount(), is(3));
+        assertThat(columns.getNames().toString(), is("[t, v, late]"));
+        assertThat(columns.get("t").toLongArray(), is(new long[]{1L, 2L, 3L}));
+        assertThat(columns.get("v").getDouble(1), is(1.5D));
+        assertThat(Double.isNaN(columns.get("v").getDouble(2)), is(true));
+        assertThat(Double.isNaN(columns.get("late").getDouble(0)), is(true));
+        assertThat(columns.get("late").getDouble(1), is(7D));
+        assertThat(columns.get("name"), is(nullValue()));
+    }
+
+    @Test
+    public void testReadWithArrayPool() {
+        converter.setArrayPoolSize(2);
+        final StringBuilder json = new StringBuilder("[0");
+        for (int i = 1; i < 1000; i++) {
+            json.append(',').append(i);
+        }
+        json.append(']');
+
+        for (int i = 0; i < 3; i++) {
+            final long[] values = read(long[].class, json.toString());
+            assertThat(values.length, is(1000));
+            assertThat(values[999], is(999L));
+        }
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadInvalidNumber() {
+        read(double[].class, "[1.2.3]");
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadFractionIntoLongs() {
+        read(long[].class, "[1, 1.5]");
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadTruncated() {
+        read(double[].class, "[1, 2");
+    }
+
+    private <T> T read(Class<T> clazz, String json) {
+        final int split = json.length() / 2;
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(
+                Unpooled.copiedBuffer(json.substring(0, split), Charsets.UTF_8),
+                Unpooled.directBuffer().writeBytes(json.substring(split).getBytes(Charsets.UTF_8))
+        );
+        final HttpInputMessage httpInputMessage = new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+        return clazz.cast(converter.read(clazz, httpInputMessage));
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class ProtobufHttpMessageConverterUnitTest {
+
+    private final ProtobufHttpMessageConverter converter = new ProtobufHttpMessageConverter();
+    private final Struct user = Struct.newBuilder()
+            .putFields("name", Value.newBuilder().setStringValue("john").build())
+            .putFields("age", Value.newBuilder().setNumberValue(42).build())
+            .putFields("roles", Value.newBuilder().setListValue(ListValue.newBuilder()
+                    .addValues(Value.newBuilder().setStringValue("admin"))
+                    .addValues(Value.newBuilder().setStringValue("viewer"))).build())
+            .build();
+
+    @Test
+    public void testCanReadAndWrite() {
+        assertThat(converter.canRead(Struct.class, MediaType.APPLICATION_PROTOBUF), is(true));
+        assertThat(converter.canRead(Struct.class, MediaType.APPLICATION_JSON), is(false));
+        assertThat(converter.canWrite(String.class, MediaType.APPLICATION_PROTOBUF), is(false));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(user, MediaType.APPLICATION_PROTOBUF, httpOutputMessage);
+
+        final ByteBuf body = httpOutputMessage.getBody();
+        assertThat(body.readableBytes(), is(user.getSerializedSize()));
+        final byte[] bytes = new byte[body.readableBytes()];
+        body.getBytes(body.readerIndex(), bytes);
+        httpOutputMessage.release();
+
+        assertThat(converter.read(Struct.class, createHttpInputMessage(Unpooled.wrappedBuffer(bytes))), is(user));
+        assertThat(converter.read(Struct.class, createHttpInputMessage(Unpooled.directBuffer().writeBytes(bytes))), is(user));
+        assertThat(converter.read(Struct.class, createHttpInputMessage(Unpooled.wrappedBuffer(
+                Unpooled.wrappedBuffer(bytes, 0, 5),
+                Unpooled.directBuffer().writeBytes(bytes, 5, bytes.length - 5)))), is(user));
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadMalformed() {
+        converter.read(Struct.class, createHttpInputMessage(Unpooled.wrappedBuffer(new byte[]{10, 100, 1})));
+    }
+
+    private HttpInputMessage createHttpInputMessage(ByteBuf byteBuf) {
+        return new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PROTOBUF_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class StringHttpMessageConverterUnitTest {
+
+    private static final String TEXT = "grüße 世界 😀";
+
+    private final StringHttpMessageConverter converter = new StringHttpMessageConverter();
+
+    @Test
+    public void testWriteUtf8() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+
+        converter.write(TEXT, MediaType.TEXT_PLAIN, httpOutputMessage);
+
+        final ByteBuf body = httpOutputMessage.getBody();
+        final byte[] bytes = new byte[body.readableBytes()];
+        body.getBytes(body.readerIndex(), bytes);
+        assertThat(bytes, is(TEXT.getBytes(Charsets.UTF_8)));
+    }
+
+    @Test
+    public void testWriteContentTypeCharset() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        httpOutputMessage.getHeaders().set(HttpHeaders.CONTENT_TYPE, "text/plain;charset=UTF-16BE");
+
+        converter.write(TEXT, MediaType.TEXT_PLAIN, httpOutputMessage);
+
+        assertThat(httpOutputMessage.getBody().toString(Charsets.UTF_16BE), is(TEXT));
+    }
+
+    @Test
+    public void testAcceptCharsetHeader() {
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        converter.write(TEXT, MediaType.TEXT_PLAIN, httpOutputMessage);
+        assertThat(httpOutputMessage.getHeaders().get(HttpHeaders.ACCEPT_CHARSET), is("UTF-8,ISO-8859-1"));
+
+        final StringHttpMessageConverter customConverter = new StringHttpMessageConverter(Charsets.UTF_16);
+        customConverter.setAcceptedCharsets(Arrays.asList(Charsets.UTF_16, Charsets.US_ASCII));
+        final BufferedHttpOutputMessage customHttpOutputMessage = new BufferedHttpOutputMessage();
+        customConverter.write(TEXT, MediaType.TEXT_PLAIN, customHttpOutputMessage);
+        assertThat(customHttpOutputMessage.getHeaders().get(HttpHeaders.ACCEPT_CHARSET), is("UTF-16,US-ASCII"));
+    }
+
+    @Test
+    public void testAcceptCharsetHeaderOfOverriddenAcceptedCharsets() {
+        final List<Charset> acceptedCharsets = new ArrayList<>(Collections.singletonList(Charsets.UTF_8));
+        final StringHttpMessageConverter customConverter = new StringHttpMessageConverter() {
+            @Override
+            protected List<Charset> getAcceptedCharsets() {
+                return acceptedCharsets;
+            }
+        };
+
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+        customConverter.write(TEXT, MediaType.TEXT_PLAIN, httpOutputMessage);
+        assertThat(httpOutputMessage.getHeaders().get(HttpHeaders.ACCEPT_CHARSET), is("UTF-8"));
+
+        acceptedCharsets.add(Charsets.US_ASCII);
+        final BufferedHttpOutputMessage nextHttpOutputMessage = new BufferedHttpOutputMessage();
+        customConverter.write(TEXT, MediaType.TEXT_PLAIN, nextHttpOutputMessage);
+        assertThat(nextHttpOutputMessage.getHeaders().get(HttpHeaders.ACCEPT_CHARSET), is("UTF-8,US-ASCII"));
+    }
+
+    @Test
+    public void testReadFromCompositeBuffer() {
+        final byte[] bytes = TEXT.getBytes(Charsets.UTF_8);
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(bytes, 0, 3), Unpooled.directBuffer().writeBytes(bytes, 3, bytes.length - 3));
+
+        final String text = converter.read(String.class, new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, "text/plain;charset=UTF-8"),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        ));
+
+        assertThat(text, is(TEXT));
+    }
+}
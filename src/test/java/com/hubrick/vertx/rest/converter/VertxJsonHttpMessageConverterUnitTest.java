@@ -0,0 +1,110 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.converter;
+
+import com.google.common.base.Charsets;
+import com.hubrick.vertx.rest.HttpInputMessage;
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.exception.HttpMessageConverterException;
+import com.hubrick.vertx.rest.message.BufferedHttpInputMessage;
+import com.hubrick.vertx.rest.message.BufferedHttpOutputMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class VertxJsonHttpMessageConverterUnitTest {
+
+    private final VertxJsonHttpMessageConverter converter = new VertxJsonHttpMessageConverter();
+
+    @Test
+    public void testCanRead() {
+        assertThat(converter.canRead(JsonObject.class, MediaType.APPLICATION_JSON), is(true));
+        assertThat(converter.canRead(JsonArray.class, MediaType.parseMediaType("application/hal+json")), is(true));
+        assertThat(converter.canRead(Object.class, MediaType.APPLICATION_JSON), is(false));
+    }
+
+    @Test
+    public void testReadJsonObject() {
+        final ByteBuf byteBuf = Unpooled.wrappedBuffer(
+                Unpooled.copiedBuffer("{\"name\":\"john\",\"address\":{\"ci", Charsets.UTF_8),
+                Unpooled.directBuffer().writeBytes("ty\":\"Berlin\"},\"tags\":[1,2]}".getBytes(Charsets.UTF_8))
+        );
+
+        final JsonObject jsonObject = (JsonObject) converter.read(JsonObject.class, createHttpInputMessage(byteBuf));
+
+        assertThat(jsonObject.getString("name"), is("john"));
+        assertThat(jsonObject.getJsonObject("address").getString("city"), is("Berlin"));
+        assertThat(jsonObject.getJsonArray("tags").getInteger(1), is(2));
+    }
+
+    @Test
+    public void testReadJsonArray() {
+        final JsonArray jsonArray = (JsonArray) converter.read(JsonArray.class, createHttpInputMessage(Unpooled.copiedBuffer("[{\"a\":1},\"b\"]", Charsets.UTF_8)));
+
+        assertThat(jsonArray.getJsonObject(0).getInteger("a"), is(1));
+        assertThat(jsonArray.getString(1), is("b"));
+    }
+
+    @Test(expected = HttpMessageConverterException.class)
+    public void testReadMismatchedType() {
+        converter.read(JsonObject.class, createHttpInputMessage(Unpooled.copiedBuffer("[1,2]", Charsets.UTF_8)));
+    }
+
+    @Test
+    public void testReadNull() {
+        assertThat(converter.read(JsonObject.class, createHttpInputMessage(Unpooled.copiedBuffer("null", Charsets.UTF_8))), is(nullValue()));
+        assertThat(converter.read(JsonArray.class, createHttpInputMessage(Unpooled.copiedBuffer("null", Charsets.UTF_8))), is(nullValue()));
+    }
+
+    @Test
+    public void testWrite() {
+        final JsonObject jsonObject = new JsonObject()
+                .put("name", "john")
+                .put("address", new JsonObject().put("city", "Berlin"))
+                .put("tags", new JsonArray().add(1).add("two"));
+        final BufferedHttpOutputMessage httpOutputMessage = new BufferedHttpOutputMessage();
+
+        converter.write(jsonObject, MediaType.APPLICATION_JSON, httpOutputMessage);
+
+        assertThat(new JsonObject(httpOutputMessage.getBody().toString(Charsets.UTF_8)), is(jsonObject));
+        httpOutputMessage.release();
+    }
+
+    private HttpInputMessage createHttpInputMessage(ByteBuf byteBuf) {
+        return new BufferedHttpInputMessage(
+                byteBuf,
+                MultiMap.caseInsensitiveMultiMap().add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE),
+                MultiMap.caseInsensitiveMultiMap(),
+                "Ok",
+                200,
+                Collections.emptyList()
+        );
+    }
+}
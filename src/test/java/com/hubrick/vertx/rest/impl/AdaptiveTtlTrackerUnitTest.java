@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.RequestCacheOptions;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class AdaptiveTtlTrackerUnitTest {
+
+    private final RequestCacheOptions requestCacheOptions = new RequestCacheOptions()
+            .withAdaptiveExpiresAfterWriteMillis(1000, 11000)
+            .withAdaptiveLatencyThresholdsMillis(100, 1100)
+            .withAdaptiveErrorRateThreshold(0.5);
+
+    @Test
+    public void testUnknownPartitionUsesMinimumTtl() {
+        final AdaptiveTtlTracker adaptiveTtlTracker = new AdaptiveTtlTracker();
+
+        assertThat(adaptiveTtlTracker.getExpiresAfterWriteMillis("/api/users/{}", requestCacheOptions), is(1000));
+    }
+
+    @Test
+    public void testHealthyPartitionUsesMinimumTtl() {
+        final AdaptiveTtlTracker adaptiveTtlTracker = new AdaptiveTtlTracker();
+        adaptiveTtlTracker.record("/api/users/{}", 20, false);
+
+        assertThat(adaptiveTtlTracker.getExpiresAfterWriteMillis("/api/users/{}", requestCacheOptions), is(1000));
+    }
+
+    @Test
+    public void testSlowPartitionStretchesTtl() {
+        final AdaptiveTtlTracker adaptiveTtlTracker = new AdaptiveTtlTracker();
+        adaptiveTtlTracker.record("/api/users/{}", 600, false);
+        adaptiveTtlTracker.record("/api/orders/{}", 5000, false);
+
+        assertThat(adaptiveTtlTracker.getExpiresAfterWriteMillis("/api/users/{}", requestCacheOptions), is(6000));
+        assertThat(adaptiveTtlTracker.getExpiresAfterWriteMillis("/api/orders/{}", requestCacheOptions), is(11000));
+    }
+
+    @Test
+    public void testFailingPartitionStretchesTtl() {
+        final AdaptiveTtlTracker adaptiveTtlTracker = new AdaptiveTtlTracker();
+        adaptiveTtlTracker.record("/api/users/{}", 10, true);
+
+        assertThat(adaptiveTtlTracker.getExpiresAfterWriteMillis("/api/users/{}", requestCacheOptions), is(11000));
+    }
+
+    @Test
+    public void testUriTemplates() {
+        assertThat(UriTemplates.templateOf("/api/v1/users/123?page=2"), is("/api/v1/users/{}"));
+        assertThat(UriTemplates.templateOf("/api/v1/users/e5297618-c299-4157-a85c-4957c8204819/settings"), is("/api/v1/users/{}/settings"));
+        assertThat(UriTemplates.templateOf("/api/v1/users"), is("/api/v1/users"));
+    }
+}
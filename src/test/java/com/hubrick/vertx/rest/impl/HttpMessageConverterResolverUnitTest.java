@@ -0,0 +1,78 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.MediaType;
+import com.hubrick.vertx.rest.converter.ByteArrayHttpMessageConverter;
+import com.hubrick.vertx.rest.converter.HttpMessageConverter;
+import com.hubrick.vertx.rest.converter.StringHttpMessageConverter;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class HttpMessageConverterResolverUnitTest {
+
+    @Test
+    public void testResolvesOncePerClassAndContentType() {
+        final HttpMessageConverter stringHttpMessageConverter = spy(new StringHttpMessageConverter());
+        final HttpMessageConverterResolver resolver = new HttpMessageConverterResolver(Arrays.asList(new ByteArrayHttpMessageConverter(), stringHttpMessageConverter));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(resolver.resolveReader(String.class, "text/plain"), is(stringHttpMessageConverter));
+            assertThat(resolver.resolveWriter(String.class, "text/plain"), is(stringHttpMessageConverter));
+        }
+
+        verify(stringHttpMessageConverter, times(1)).canRead(String.class, MediaType.TEXT_PLAIN);
+        verify(stringHttpMessageConverter, times(1)).canWrite(String.class, MediaType.TEXT_PLAIN);
+    }
+
+    @Test
+    public void testIgnoresParametersOtherThanCharset() {
+        final HttpMessageConverter stringHttpMessageConverter = spy(new StringHttpMessageConverter());
+        final HttpMessageConverterResolver resolver = new HttpMessageConverterResolver(Arrays.asList(stringHttpMessageConverter));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(resolver.resolveReader(String.class, "text/plain; boundary=b" + i), is(stringHttpMessageConverter));
+            assertThat(resolver.resolveReader(String.class, "text/plain; boundary=b" + i + "; charset=UTF-8"), is(stringHttpMessageConverter));
+        }
+
+        verify(stringHttpMessageConverter, times(1)).canRead(String.class, MediaType.TEXT_PLAIN);
+        verify(stringHttpMessageConverter, times(1)).canRead(String.class, new MediaType("text", "plain", StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRemembersMissingConverter() {
+        final HttpMessageConverterResolver resolver = new HttpMessageConverterResolver(Arrays.asList(new StringHttpMessageConverter()));
+
+        assertThat(resolver.resolveReader(Integer.class, "text/plain"), is(nullValue()));
+        assertThat(resolver.resolveReader(Integer.class, "text/plain"), is(nullValue()));
+        assertThat(resolver.resolveReader(byte[].class, "application/octet-stream"), is(nullValue()));
+        assertThat(new HttpMessageConverterResolver(Arrays.asList(new ByteArrayHttpMessageConverter())).resolveReader(byte[].class, "application/octet-stream"), instanceOf(ByteArrayHttpMessageConverter.class));
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (C) 2015 Etaia AS (oss@hubrick.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.hubrick.vertx.rest.impl;
+
+import com.hubrick.vertx.rest.PrefetchOptions;
+import com.hubrick.vertx.rest.RequestCacheOptions;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author Emir Dizdarevic
+ * @since 3.2.0
+ */
+public class RequestPrefetcherUnitTest {
+
+    private final RequestCacheOptions requestCacheOptions = new RequestCacheOptions().withExpiresAfterWriteMillis(1000);
+
+    @Test
+    public void testPredictsBoundFollowUpRequest() {
+        final RequestPrefetcher requestPrefetcher = new RequestPrefetcher(new PrefetchOptions().withMinObservations(3).withMaxPrefetchRatio(1));
+        for (int i = 0; i < 3; i++) {
+            requestPrefetcher.onRequest("/api/users/" + i, null, String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/users/" + i + "/settings", null, Integer.class, requestCacheOptions);
+        }
+
+        final List<RequestPrefetcher.Prediction> predictions = requestPrefetcher.onRequest("/api/users/42?expand=true", null, String.class, requestCacheOptions);
+
+        assertThat(predictions, hasSize(1));
+        assertThat(predictions.get(0).getUri(), is("/api/users/42/settings"));
+        assertThat(predictions.get(0).getResponseClass().equals(Integer.class), is(true));
+    }
+
+    @Test
+    public void testDoesNotPredictUnboundFollowUpRequest() {
+        final RequestPrefetcher requestPrefetcher = new RequestPrefetcher(new PrefetchOptions().withMinObservations(3).withMaxPrefetchRatio(1));
+        for (int i = 0; i < 3; i++) {
+            requestPrefetcher.onRequest("/api/users/" + i, null, String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/orders/" + (i + 100), null, String.class, requestCacheOptions);
+        }
+
+        assertThat(requestPrefetcher.onRequest("/api/users/42", null, String.class, requestCacheOptions), is(empty()));
+    }
+
+    @Test
+    public void testPredictsFollowUpRequestWithItsQuery() {
+        final RequestPrefetcher requestPrefetcher = new RequestPrefetcher(new PrefetchOptions().withMinObservations(3).withMaxPrefetchRatio(1));
+        for (int i = 0; i < 3; i++) {
+            requestPrefetcher.onRequest("/api/users/" + i, null, String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/users/" + i + "/settings?fields=all", null, String.class, requestCacheOptions);
+        }
+
+        final List<RequestPrefetcher.Prediction> predictions = requestPrefetcher.onRequest("/api/users/42", null, String.class, requestCacheOptions);
+
+        assertThat(predictions, hasSize(1));
+        assertThat(predictions.get(0).getUri(), is("/api/users/42/settings?fields=all"));
+    }
+
+    @Test
+    public void testDoesNotPredictFollowUpRequestWithVaryingQuery() {
+        final RequestPrefetcher requestPrefetcher = new RequestPrefetcher(new PrefetchOptions().withMinObservations(3).withMaxPrefetchRatio(1));
+        for (int i = 0; i < 3; i++) {
+            requestPrefetcher.onRequest("/api/users/" + i, null, String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/users/" + i + "/orders?page=" + i, null, String.class, requestCacheOptions);
+        }
+
+        assertThat(requestPrefetcher.onRequest("/api/users/42", null, String.class, requestCacheOptions), is(empty()));
+    }
+
+    @Test
+    public void testSequencesAreLearnedSeparately() {
+        final RequestPrefetcher requestPrefetcher = new RequestPrefetcher(new PrefetchOptions().withMinObservations(3).withMaxPrefetchRatio(1));
+        for (int i = 0; i < 3; i++) {
+            requestPrefetcher.onRequest("/api/users/" + i, "a", String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/orders/" + i, "b", String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/users/" + i + "/settings", "a", String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/orders/" + i + "/items", "b", String.class, requestCacheOptions);
+        }
+
+        final List<RequestPrefetcher.Prediction> predictions = requestPrefetcher.onRequest("/api/orders/7", "c", String.class, requestCacheOptions);
+
+        assertThat(predictions, hasSize(1));
+        assertThat(predictions.get(0).getUri(), is("/api/orders/7/items"));
+    }
+
+    @Test
+    public void testPrefetchBudgetIsRespected() {
+        final RequestPrefetcher requestPrefetcher = new RequestPrefetcher(new PrefetchOptions().withMinObservations(3).withMaxPrefetchRatio(0.1));
+        for (int i = 0; i < 3; i++) {
+            requestPrefetcher.onRequest("/api/users/" + i, null, String.class, requestCacheOptions);
+            requestPrefetcher.onRequest("/api/users/" + i + "/settings", null, String.class, requestCacheOptions);
+        }
+
+        // 7 real requests allow no prefetch yet
+        assertThat(requestPrefetcher.onRequest("/api/users/42", null, String.class, requestCacheOptions), is(empty()));
+    }
+
+    @Test
+    public void testUriTemplateExpansion() {
+        assertThat(UriTemplates.variablesOf("/api/users/42/orders/7?page=1"), is(Arrays.asList("42", "7")));
+        assertThat(UriTemplates.expand("/api/users/{}/orders/{}", Arrays.asList("42", "7")), is("/api/users/42/orders/7"));
+        assertThat(UriTemplates.expand("/api/users/{}/orders/{}", Arrays.asList("42")) == null, is(true));
+    }
+}
@@ -16,6 +16,7 @@
 package com.hubrick.vertx.rest.rx2;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.common.base.Charsets;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
@@ -29,8 +30,11 @@ import com.hubrick.vertx.rest.RestClientResponse;
 import com.hubrick.vertx.rest.common.ConvertRequest;
 import com.hubrick.vertx.rest.common.UserResponse;
 import com.hubrick.vertx.rest.common.UserSearchResponse;
+import com.hubrick.vertx.rest.converter.CsvHttpMessageConverter;
+import com.hubrick.vertx.rest.converter.CsvRow;
 import com.hubrick.vertx.rest.converter.FormHttpMessageConverter;
 import com.hubrick.vertx.rest.converter.JacksonJsonHttpMessageConverter;
+import com.hubrick.vertx.rest.converter.JacksonSmileHttpMessageConverter;
 import com.hubrick.vertx.rest.converter.MultipartHttpMessageConverter;
 import com.hubrick.vertx.rest.converter.StringHttpMessageConverter;
 import com.hubrick.vertx.rest.converter.model.Part;
@@ -40,6 +44,9 @@ import io.reactivex.ObservableSource;
 import io.reactivex.Single;
 import io.reactivex.functions.Function;
 import io.vertx.core.MultiMap;
+import io.vertx.core.file.AsyncFile;
+import io.vertx.core.file.OpenOptions;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import org.apache.commons.fileupload.MultipartStream;
@@ -51,6 +58,7 @@ import rx.functions.Func0;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -60,6 +68,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import static com.google.common.io.Resources.getResource;
 import static com.google.common.io.Resources.toByteArray;
@@ -68,6 +77,7 @@ import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.isEmptyOrNullString;
 import static org.hamcrest.Matchers.isIn;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
@@ -118,7 +128,106 @@ public class RxRestClientIntegrationTest extends AbstractFunctionalTest {
         testMultipart(testContext, new Part(loadFile("/com/hubrick/vertx/rest/common/test.gif"), "test.gif").setContentType(MediaType.IMAGE_GIF));
     }
 
+    @Test
+    public void testMultipartFile(TestContext testContext) throws Exception {
+        final File image = new File(getResource(this.getClass(), "/com/hubrick/vertx/rest/common/test.gif").toURI());
+        testMultipart(testContext, new Part(image, (String) null).setContentType(MediaType.IMAGE_GIF), request -> {
+            assertThat(testContext, request.getFirstHeader("Content-Length"), is(String.valueOf(request.getBodyAsRawBytes().length)));
+            assertThat(testContext, request.getFirstHeader("Transfer-Encoding"), isEmptyOrNullString());
+        });
+    }
+
+    @Test
+    public void testMultipartStreamWithUnknownLength(TestContext testContext) throws Exception {
+        // The mock server aggregates chunked requests, a plain server shows how the request went over the wire
+        final int port = MOCKSERVER_PORT + 1;
+        final Async listening = testContext.async();
+        vertx.createHttpServer().requestHandler(serverRequest -> serverRequest.bodyHandler(body -> {
+            try {
+                assertThat(testContext, serverRequest.getHeader("Transfer-Encoding"), is("chunked"));
+                assertThat(testContext, serverRequest.getHeader("Content-Length"), isEmptyOrNullString());
+
+                final String contentType = serverRequest.getHeader("Content-Type");
+                final MultipartStream multipartStream = new MultipartStream(new ByteArrayInputStream(body.getBytes()),
+                        contentType.substring(contentType.indexOf("boundary=") + "boundary=".length()).getBytes(Charsets.US_ASCII));
+                final ByteArrayOutputStream image = new ByteArrayOutputStream();
+                multipartStream.skipPreamble();
+                assertThat(testContext, multipartStream.readHeaders(), containsString("filename=\"test.gif\""));
+                multipartStream.readBodyData(image);
+                assertThat(testContext, image.toByteArray(), is(loadFile("/com/hubrick/vertx/rest/common/test.gif")));
+            } catch (Exception e) {
+                testContext.fail(e);
+            }
+            serverRequest.response().end();
+        })).listen(port, testContext.asyncAssertSuccess(httpServer -> listening.complete()));
+        listening.await();
+
+        final RxRestClient rxRestClient = RxRestClient.create(
+                vertx,
+                new RestClientOptions().setDefaultHost("localhost").setDefaultPort(port),
+                ImmutableList.of(new MultipartHttpMessageConverter())
+        );
+
+        final AsyncFile image = vertx.fileSystem().openBlocking(getResource(this.getClass(), "/com/hubrick/vertx/rest/common/test.gif").getPath(), new OpenOptions().setRead(true));
+        final HashMultimap<String, Part> parts = HashMultimap.create();
+        parts.put("image", new Part(image, "test.gif").setContentType(MediaType.IMAGE_GIF));
+
+        final Async async = testContext.async();
+        rxRestClient.post("/api/v1/images", restClientRequest -> {
+            restClientRequest.setContentType(MediaType.MULTIPART_FORM_DATA);
+            restClientRequest.end(parts);
+        }).subscribe(
+                restClientResponse -> {
+                    assertThat(testContext, restClientResponse.statusCode(), is(200));
+                    async.complete();
+                },
+                testContext::fail
+        );
+    }
+
+    @Test
+    public void testMultipartStreamWithWrongLength(TestContext testContext) throws Exception {
+        final HttpRequest multipartHttpRequest = request()
+                .withMethod("POST")
+                .withPath("/api/v1/images");
+        getMockServerClient().when(
+                multipartHttpRequest
+        ).respond(
+                response()
+                        .withStatusCode(200)
+        );
+
+        final RxRestClient rxRestClient = RxRestClient.create(
+                vertx,
+                new RestClientOptions().setDefaultHost("localhost").setDefaultPort(MOCKSERVER_PORT),
+                ImmutableList.of(new MultipartHttpMessageConverter())
+        );
+
+        final byte[] imageBytes = loadFile("/com/hubrick/vertx/rest/common/test.gif");
+        final AsyncFile image = vertx.fileSystem().openBlocking(getResource(this.getClass(), "/com/hubrick/vertx/rest/common/test.gif").getPath(), new OpenOptions().setRead(true));
+        final HashMultimap<String, Part> parts = HashMultimap.create();
+        parts.put("image", new Part(image, MultiMap.caseInsensitiveMultiMap().add("Content-Length", String.valueOf(imageBytes.length + 1))));
+
+        final Async async = testContext.async();
+        rxRestClient.post("/api/v1/images", restClientRequest -> {
+            restClientRequest.setContentType(MediaType.MULTIPART_FORM_DATA);
+            restClientRequest.end(parts);
+        }).subscribe(
+                restClientResponse -> testContext.fail("The request must not be sent with a wrong Content-Length"),
+                throwable -> {
+                    assertThat(testContext, throwable.getMessage(), containsString("instead of the expected " + (imageBytes.length + 1)));
+                    assertThat(testContext, Arrays.asList(getMockServerClient().retrieveRecordedRequests(multipartHttpRequest)), hasSize(0));
+                    async.complete();
+                }
+        );
+    }
+
     private void testMultipart(TestContext testContext, Part imagePart) throws Exception {
+        testMultipart(testContext, imagePart, request -> {
+        });
+    }
+
+    private void testMultipart(TestContext testContext, Part imagePart, Consumer<HttpRequest> requestAssertion) throws Exception {
         final HttpRequest multipartHttpRequest = request()
                 .withMethod("POST")
                 .withPath("/api/v1/images")
@@ -159,6 +268,7 @@ public class RxRestClientIntegrationTest extends AbstractFunctionalTest {
 
                         final HttpRequest[] requests = getMockServerClient().retrieveRecordedRequests(multipartHttpRequest);
                         assertThat(testContext, Arrays.asList(requests), hasSize(1));
+                        requestAssertion.accept(requests[0]);
 
                         final ByteArrayInputStream content = new ByteArrayInputStream(requests[0].getBodyAsRawBytes());
                         final MultipartStream multipartStream = new MultipartStream(content, getMultipartBoundary(requests[0]));
@@ -258,6 +368,146 @@ public class RxRestClientIntegrationTest extends AbstractFunctionalTest {
         );
     }
 
+    @Test
+    public void testStreamJsonArray(TestContext testContext) throws Exception {
+        testStream(testContext, "application/json;charset=UTF-8", toByteArray(getResource(RxRestClientIntegrationTest.class, "/com/hubrick/vertx/rest/common/userSearchResponse.json")));
+    }
+
+    @Test
+    public void testStreamJsonLines(TestContext testContext) throws Exception {
+        testStream(testContext, "application/x-ndjson", ("{\"id\":\"e5297618-c299-4157-a85c-4957c8204819\"}\n" +
+                "{\"id\":\"b9d8fb1a-38c5-45ea-a7ee-6450a964f4f8\"}\n").getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void testStreamCsv(TestContext testContext) throws Exception {
+        getMockServerClient().when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/v1/reports/users")
+        ).respond(
+                response()
+                        .withStatusCode(200)
+                        .withHeader(Header.header("Content-Type", "text/csv;charset=UTF-8"))
+                        .withBody("id,logins\r\ne5297618-c299-4157-a85c-4957c8204819,12\r\nb9d8fb1a-38c5-45ea-a7ee-6450a964f4f8,7\r\n")
+        );
+
+        final RestClientOptions clientOptions = new RestClientOptions();
+        clientOptions.setDefaultHost("localhost");
+        clientOptions.setDefaultPort(MOCKSERVER_PORT);
+        final RxRestClient rxRestClient = RxRestClient.create(vertx, clientOptions, ImmutableList.of(new CsvHttpMessageConverter()));
+
+        final Async async = testContext.async();
+        rxRestClient.stream(HttpMethod.GET, "/api/v1/reports/users", CsvRow.class, RestClientRequest::end)
+                .skip(1)
+                .map(row -> row.getLong(1))
+                .toList()
+                .subscribe(
+                        logins -> {
+                            assertThat(testContext, logins, is(Arrays.asList(12L, 7L)));
+                            async.complete();
+                        },
+                        testContext::fail
+                );
+    }
+
+    private void testStream(TestContext testContext, String contentType, byte[] body) {
+        getMockServerClient().when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/v1/users/export")
+        ).respond(
+                response()
+                        .withStatusCode(200)
+                        .withHeader(Header.header("Content-Type", contentType))
+                        .withBody(body)
+        );
+
+        final Async async = testContext.async();
+        rxRestClient.stream(HttpMethod.GET, "/api/v1/users/export", UserSearchResponse.class, RestClientRequest::end)
+                .map(UserSearchResponse::getId)
+                .toList()
+                .subscribe(
+                        ids -> {
+                            assertThat(testContext, ids, is(Arrays.asList(UUID.fromString("e5297618-c299-4157-a85c-4957c8204819"), UUID.fromString("b9d8fb1a-38c5-45ea-a7ee-6450a964f4f8"))));
+                            async.complete();
+                        },
+                        testContext::fail
+                );
+    }
+
+    @Test
+    public void testIncrementalParsing(TestContext testContext) throws Exception {
+        getMockServerClient().when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/v1/users/search")
+        ).respond(
+                response()
+                        .withStatusCode(200)
+                        .withHeader(Header.header("Content-Type", "application/json;charset=UTF-8"))
+                        .withBody(toByteArray(getResource(RxRestClientIntegrationTest.class, "/com/hubrick/vertx/rest/common/userSearchResponse.json")))
+        );
+
+        final JacksonJsonHttpMessageConverter jacksonJsonHttpMessageConverter = new JacksonJsonHttpMessageConverter(new ObjectMapper());
+        jacksonJsonHttpMessageConverter.setIncrementalParsing(true);
+        final RestClientOptions clientOptions = new RestClientOptions();
+        clientOptions.setDefaultHost("localhost");
+        clientOptions.setDefaultPort(MOCKSERVER_PORT);
+        final RxRestClient rxRestClient = RxRestClient.create(vertx, clientOptions, ImmutableList.of(jacksonJsonHttpMessageConverter));
+
+        final Async async = testContext.async();
+        rxRestClient.get("/api/v1/users/search", UserSearchResponse[].class, RestClientRequest::end)
+                .subscribe(
+                        restClientResponse -> {
+                            assertThat(testContext, restClientResponse.getBody().length, is(2));
+                            assertThat(testContext, restClientResponse.getBody()[0].getId(), is(UUID.fromString("e5297618-c299-4157-a85c-4957c8204819")));
+                            async.complete();
+                        },
+                        testContext::fail
+                );
+    }
+
+    @Test
+    public void testPreferredBinaryFormat(TestContext testContext) throws Exception {
+        final ObjectMapper smileObjectMapper = new ObjectMapper(new SmileFactory());
+        final UserSearchResponse[] users = new ObjectMapper().readValue(toByteArray(getResource(RxRestClientIntegrationTest.class, "/com/hubrick/vertx/rest/common/userSearchResponse.json")), UserSearchResponse[].class);
+        getMockServerClient().when(
+                request()
+                        .withMethod("GET")
+                        .withPath("/api/v1/users/search")
+                        .withHeader(Header.header("Accept", "application/x-jackson-smile,application/json;q=0\\.9,application/\\*\\+json;q=0\\.9"))
+        ).respond(
+                response()
+                        .withStatusCode(200)
+                        .withHeader(Header.header("Content-Type", MediaType.APPLICATION_SMILE_VALUE))
+                        .withBody(smileObjectMapper.writeValueAsBytes(users))
+        );
+
+        final RestClientOptions clientOptions = new RestClientOptions();
+        clientOptions.setDefaultHost("localhost");
+        clientOptions.setDefaultPort(MOCKSERVER_PORT);
+        final RxRestClient rxRestClient = RxRestClient.create(
+                vertx,
+                clientOptions,
+                ImmutableList.of(
+                        new JacksonJsonHttpMessageConverter(new ObjectMapper()),
+                        new JacksonSmileHttpMessageConverter(new ObjectMapper())
+                )
+        );
+
+        final Async async = testContext.async();
+        rxRestClient.get("/api/v1/users/search", UserSearchResponse[].class, RestClientRequest::end)
+                .subscribe(
+                        restClientResponse -> {
+                            assertThat(testContext, restClientResponse.getBody().length, is(2));
+                            assertThat(testContext, restClientResponse.getBody()[1].getId(), is(users[1].getId()));
+                            async.complete();
+                        },
+                        testContext::fail
+                );
+    }
+
     @Test
     public void testRequestWithCache(TestContext testContext) throws Exception {
         testRequestCacheOk(testContext, new RequestCacheOptions().withExpiresAfterWriteMillis(10000), 1);